@@ -0,0 +1,77 @@
+package demo.games;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Starts the backend without the web tier, against the database configured in the {@code .env} file (start it with
+ * {@code docker-compose up -d postgres}).  The benchmarks get a schema of their own, migrated by Flyway on start and
+ * dropped on stop, so the rows they seed and the indexes they drop never touch the games in the default schema, even
+ * when a run is interrupted.
+ */
+public class BenchmarkApplication {
+
+  /* All rows inserted by the benchmarks have a code starting with this prefix */
+  public static final String CODE_PREFIX = "~";
+
+  public static final String SCHEMA = "benchmark";
+
+  public static ConfigurableApplicationContext start( final String... properties ) {
+    return new SpringApplicationBuilder( GameApplication.class )
+      .web( WebApplicationType.NONE )
+      .properties( "spring.jpa.show-sql=false", "spring.main.banner-mode=off" )
+      .properties(
+        "spring.flyway.default-schema=" + SCHEMA,
+        "spring.flyway.schemas=" + SCHEMA,
+        "spring.datasource.hikari.schema=" + SCHEMA,
+        "spring.jpa.properties.hibernate.default_schema=" + SCHEMA )
+      .properties( properties )
+      .run();
+  }
+
+  /* Drops the benchmark schema with everything in it, and closes the context */
+  public static void stop( final ConfigurableApplicationContext context ) {
+    try {
+      context.getBean( JdbcTemplate.class ).execute( String.format( "DROP SCHEMA IF EXISTS %s CASCADE", SCHEMA ) );
+    } finally {
+      context.close();
+    }
+  }
+
+  /**
+   * Replaces all benchmark rows with the given number of closed games, cycling through all hand combinations
+   */
+  public static void seedClosedGames( final ConfigurableApplicationContext context, final int rows ) {
+    final JdbcTemplate jdbc = context.getBean( JdbcTemplate.class );
+    deleteSeededGames( context );
+    jdbc.update( "INSERT INTO games (code, player_1, player_2, state, outcome, closed_at)"
+      + " SELECT ? || lpad(i::text, 7, '0'),"
+      + "  i % 3,"
+      + "  (i / 3) % 3,"
+      + "  1,"
+      + "  2 - ((i / 3) % 3 - i % 3 + 3) % 3,"
+      + "  now()"
+      + " FROM generate_series(1, ?) AS i", CODE_PREFIX, rows );
+    jdbc.execute( "ANALYZE games" );
+  }
+
+  /**
+   * Adds the given number of active games next to the seeded closed games
+   */
+  public static void seedActiveGames( final ConfigurableApplicationContext context, final int rows ) {
+    final JdbcTemplate jdbc = context.getBean( JdbcTemplate.class );
+    jdbc.update( "INSERT INTO games (code, player_1, state)"
+      + " SELECT ? || 'a' || lpad(i::text, 6, '0'), i % 3, 0"
+      + " FROM generate_series(1, ?) AS i", CODE_PREFIX, rows );
+    jdbc.execute( "ANALYZE games" );
+  }
+
+  public static void deleteSeededGames( final ConfigurableApplicationContext context ) {
+    context.getBean( JdbcTemplate.class ).update( "DELETE FROM games WHERE code LIKE ?", CODE_PREFIX + "%" );
+  }
+
+  private BenchmarkApplication() {
+  }
+}
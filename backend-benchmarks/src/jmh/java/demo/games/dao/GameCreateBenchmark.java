@@ -0,0 +1,97 @@
+package demo.games.dao;
+
+import demo.games.BenchmarkApplication;
+import demo.games.model.Hand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static demo.games.model.GameState.ACTIVE;
+
+/**
+ * Compares the games created per second through {@link GameRepository#save(Object)}, which selects the row before
+ * inserting it, with the single INSERT of {@link GameRepository#insertGame(String, int, int)} and with the bulk
+ * INSERT of {@link GameRepository#insertGames(List)}.  Needs the database from the {@code .env} file:
+ * {@code ./gradlew :backend-benchmarks:jmh -Pjmh.include=GameCreateBenchmark}
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class GameCreateBenchmark {
+
+  private static final int BULK_SIZE = 10_000;
+
+  private final AtomicLong sequence = new AtomicLong();
+
+  private ConfigurableApplicationContext context;
+  private GameRepository repository;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start();
+    repository = context.getBean( GameRepository.class );
+  }
+
+  /* Every iteration starts from the same table */
+  @TearDown( Level.Iteration )
+  public void deleteCreatedGames() {
+    BenchmarkApplication.deleteSeededGames( context );
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkApplication.stop( context );
+  }
+
+  /* How the games were created before the single INSERT */
+  @Benchmark
+  public Game save() {
+    return repository.save( new Game()
+      .setCode( nextCode() )
+      .setPlayer1( Hand.ROCK )
+      .setState( ACTIVE ) );
+  }
+
+  @Benchmark
+  public int insert() {
+    return repository.insertGame( nextCode(), Hand.ROCK.ordinal(), ACTIVE.ordinal() );
+  }
+
+  /* Reported per game, so the score compares with the other benchmarks */
+  @Benchmark
+  @OperationsPerInvocation( BULK_SIZE )
+  public Set<String> insertBulk() {
+    final List<Game> games = new ArrayList<>( BULK_SIZE );
+    for ( int i = 0; i < BULK_SIZE; i++ ) {
+      games.add( new Game()
+        .setCode( nextCode() )
+        .setPlayer1( Hand.ROCK )
+        .setState( ACTIVE ) );
+    }
+    return repository.insertGames( games );
+  }
+
+  private String nextCode() {
+    return String.format( "%s%07d", BenchmarkApplication.CODE_PREFIX, sequence.incrementAndGet() % 10_000_000 );
+  }
+}
@@ -0,0 +1,90 @@
+package demo.games.dao;
+
+import demo.games.BenchmarkApplication;
+import demo.games.model.ActiveGame;
+import demo.games.model.GameDetails;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static demo.games.model.GameState.ACTIVE;
+import static demo.games.model.GameState.CLOSED;
+
+/**
+ * Compares listing games through managed entities with listing them through constructor expression projections.
+ * Needs the database from the {@code .env} file.  Run with the GC profiler to compare the allocated bytes per
+ * operation: {@code ./gradlew :backend-benchmarks:jmh -Pjmh.include=GameListBenchmark -Pjmh.profilers=gc}
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 5 )
+@Fork( value = 1, jvmArgs = "-Xmx4g" )
+public class GameListBenchmark {
+
+  @Param( { "100000", "1000000" } )
+  private int rows;
+
+  private ConfigurableApplicationContext context;
+  private GameRepository repository;
+  private TransactionTemplate readOnly;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start();
+    BenchmarkApplication.seedClosedGames( context, rows );
+    repository = context.getBean( GameRepository.class );
+    readOnly = new TransactionTemplate( context.getBean( PlatformTransactionManager.class ) );
+    readOnly.setReadOnly( true );
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkApplication.stop( context );
+  }
+
+  /* How the closed games were listed before the projections */
+  @Benchmark
+  public List<GameDetails> closedEntities() {
+    return readOnly.execute( status -> repository.findByStateEquals( CLOSED )
+      .stream()
+      .map( game -> new GameDetails( game.getCode(), game.getPlayer1(), game.getPlayer2(), game.getOutcome(), game.getState() ) )
+      .collect( Collectors.toList() ) );
+  }
+
+  @Benchmark
+  public List<GameDetails> closedProjection() {
+    return readOnly.execute( status -> repository.findGameDetailsByState( CLOSED ) );
+  }
+
+  /* How the active games were listed before the projections */
+  @Benchmark
+  public List<ActiveGame> activeEntities() {
+    return readOnly.execute( status -> repository.findByStateEquals( ACTIVE )
+      .stream()
+      .map( game -> new ActiveGame( game.getCode() ) )
+      .collect( Collectors.toList() ) );
+  }
+
+  @Benchmark
+  public List<ActiveGame> activeProjection() {
+    return readOnly.execute( status -> repository.findActiveGamesByState( ACTIVE ) );
+  }
+}
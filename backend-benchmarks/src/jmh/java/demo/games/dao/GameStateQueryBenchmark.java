@@ -0,0 +1,98 @@
+package demo.games.dao;
+
+import demo.games.BenchmarkApplication;
+import demo.games.model.ActiveGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static demo.games.model.GameState.ACTIVE;
+
+/**
+ * Looks up the few active games among many closed games, with and without the partial index on the active games.  The
+ * query plans are logged on setup.  Runs in the benchmark schema of the database from the {@code .env} file, where
+ * dropping the index does not affect the application:
+ * {@code ./gradlew :backend-benchmarks:jmh -Pjmh.include=GameStateQueryBenchmark}
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 5 )
+@Fork( value = 1, jvmArgs = "-Xmx4g" )
+public class GameStateQueryBenchmark {
+
+  private static final Logger LOG = LoggerFactory.getLogger( GameStateQueryBenchmark.class );
+
+  private static final String CREATE_INDEX = "CREATE INDEX IF NOT EXISTS games_active_idx ON games (code) WHERE state = 0";
+  private static final String DROP_INDEX = "DROP INDEX IF EXISTS games_active_idx";
+
+  /* Together with the active games close to 10 million rows, the seeded codes have room for 7 digits */
+  @Param( { "9999000" } )
+  private int rows;
+
+  @Param( { "1000" } )
+  private int activeRows;
+
+  @Param( { "true", "false" } )
+  private boolean partialIndex;
+
+  private ConfigurableApplicationContext context;
+  private GameRepository repository;
+  private JdbcTemplate jdbc;
+  private TransactionTemplate readOnly;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start();
+    BenchmarkApplication.seedClosedGames( context, rows );
+    BenchmarkApplication.seedActiveGames( context, activeRows );
+    repository = context.getBean( GameRepository.class );
+    jdbc = context.getBean( JdbcTemplate.class );
+    readOnly = new TransactionTemplate( context.getBean( PlatformTransactionManager.class ) );
+    readOnly.setReadOnly( true );
+
+    jdbc.execute( partialIndex ? CREATE_INDEX : DROP_INDEX );
+    explain( "SELECT code FROM games WHERE state = 0" );
+    explain( "SELECT code FROM games WHERE state = 0 AND code > '' ORDER BY code LIMIT 100" );
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkApplication.stop( context );
+  }
+
+  @Benchmark
+  public List<ActiveGame> listActive() {
+    return readOnly.execute( status -> repository.findActiveGamesByState( ACTIVE ) );
+  }
+
+  @Benchmark
+  public List<ActiveGame> pageActive() {
+    return readOnly.execute( status -> repository.findActiveGamesByStateAfter( ACTIVE, "", PageRequest.of( 0, 100 ) ) );
+  }
+
+  private void explain( final String query ) {
+    final List<String> plan = jdbc.queryForList( "EXPLAIN (ANALYZE, BUFFERS) " + query, String.class );
+    LOG.info( "Plan with partial index {}: {}\n{}", partialIndex, query, String.join( "\n", plan ) );
+  }
+}
@@ -0,0 +1,33 @@
+package demo.games.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+public class HandBenchmark {
+
+  @Param( { "ROCK", "PAPER", "SCISSORS" } )
+  private Hand hand;
+
+  @Benchmark
+  @Threads( 1 )
+  public Hand beatenBy() {
+    return hand.beatenBy();
+  }
+
+  @Benchmark
+  @Threads( Threads.MAX )
+  public Hand beatenByContended() {
+    return hand.beatenBy();
+  }
+}
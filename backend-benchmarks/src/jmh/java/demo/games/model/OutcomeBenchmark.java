@@ -0,0 +1,99 @@
+package demo.games.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+public class OutcomeBenchmark {
+
+  /* Power of two so that the index can be wrapped with a mask */
+  private static final int ROUNDS = 1 << 10;
+
+  private final Hand[] first = new Hand[ROUNDS];
+  private final Hand[] second = new Hand[ROUNDS];
+  private final byte[] firstOrdinals = new byte[ROUNDS];
+  private final byte[] secondOrdinals = new byte[ROUNDS];
+  private final byte[] outcomes = new byte[ROUNDS];
+  private int index;
+
+  @Setup
+  public void setUp() {
+    /* Fixed seed so that every run resolves the same mix of rounds */
+    final SplittableRandom random = new SplittableRandom( 42 );
+    final Hand[] hands = Hand.values();
+    for ( int i = 0; i < ROUNDS; i++ ) {
+      first[i] = hands[random.nextInt( hands.length )];
+      second[i] = hands[random.nextInt( hands.length )];
+      firstOrdinals[i] = (byte) first[i].ordinal();
+      secondOrdinals[i] = (byte) second[i].ordinal();
+    }
+  }
+
+  @Benchmark
+  @Threads( 1 )
+  public PvcOutcome pvcOutcome() {
+    final int i = next();
+    return PvcOutcome.of( first[i], second[i] );
+  }
+
+  @Benchmark
+  @Threads( Threads.MAX )
+  public PvcOutcome pvcOutcomeContended() {
+    final int i = next();
+    return PvcOutcome.of( first[i], second[i] );
+  }
+
+  @Benchmark
+  @Threads( 1 )
+  public PvpOutcome pvpOutcome() {
+    final int i = next();
+    return PvpOutcome.of( first[i], second[i] );
+  }
+
+  @Benchmark
+  @Threads( Threads.MAX )
+  public PvpOutcome pvpOutcomeContended() {
+    final int i = next();
+    return PvpOutcome.of( first[i], second[i] );
+  }
+
+  @Benchmark
+  @Threads( 1 )
+  @OperationsPerInvocation( ROUNDS )
+  public byte[] pvcResolveBulk() {
+    PvcOutcome.resolve( firstOrdinals, secondOrdinals, outcomes );
+    return outcomes;
+  }
+
+  @Benchmark
+  @Threads( 1 )
+  @OperationsPerInvocation( ROUNDS )
+  public byte[] pvpResolveBulk() {
+    PvpOutcome.resolve( firstOrdinals, secondOrdinals, outcomes );
+    return outcomes;
+  }
+
+  @Benchmark
+  @Threads( Threads.MAX )
+  @OperationsPerInvocation( ROUNDS )
+  public byte[] pvpResolveBulkContended() {
+    PvpOutcome.resolve( firstOrdinals, secondOrdinals, outcomes );
+    return outcomes;
+  }
+
+  private int next() {
+    return index++ & ( ROUNDS - 1 );
+  }
+}
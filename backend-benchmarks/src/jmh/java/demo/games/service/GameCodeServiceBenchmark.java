@@ -0,0 +1,59 @@
+package demo.games.service;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates codes with each strategy, against {@link RandomStringUtils} as used before.  The contended benchmarks show
+ * whether the threads wait on each other for the generator.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+public class GameCodeServiceBenchmark {
+
+  @Param( { "SECURE_RANDOM", "SNOWFLAKE" } )
+  private GameCodeStrategy strategy;
+
+  private GameCodeService service;
+
+  @Setup
+  public void setUp() {
+    service = new GameCodeService( strategy.create( 0 ) );
+  }
+
+  @Benchmark
+  @Threads( 1 )
+  public String nextCode() {
+    return service.nextCode( 8 );
+  }
+
+  @Benchmark
+  @Threads( Threads.MAX )
+  public String nextCodeContended() {
+    return service.nextCode( 8 );
+  }
+
+  /* The previous implementation, kept as the baseline */
+  @Benchmark
+  @Threads( 1 )
+  public String randomStringUtils() {
+    return RandomStringUtils.randomAlphanumeric( 8 );
+  }
+
+  @Benchmark
+  @Threads( Threads.MAX )
+  public String randomStringUtilsContended() {
+    return RandomStringUtils.randomAlphanumeric( 8 );
+  }
+}
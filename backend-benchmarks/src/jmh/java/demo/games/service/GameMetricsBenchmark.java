@@ -0,0 +1,79 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+import demo.games.model.PvcBatchResult;
+import demo.games.model.PvcGameResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The overhead of counting the games against the computer, compared with the counters doing nothing.  The contended
+ * benchmark shows whether the threads slow each other down while incrementing the same counters.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+public class GameMetricsBenchmark {
+
+  public enum Registry {
+    NONE( CompositeMeterRegistry::new ),
+    SIMPLE( SimpleMeterRegistry::new ),
+    PROMETHEUS( () -> new PrometheusMeterRegistry( PrometheusConfig.DEFAULT ) );
+
+    private final Supplier<MeterRegistry> factory;
+
+    Registry( final Supplier<MeterRegistry> factory ) {
+      this.factory = factory;
+    }
+  }
+
+  @Param( { "NONE", "SIMPLE", "PROMETHEUS" } )
+  private Registry registry;
+
+  private final List<Hand> batch = Collections.nCopies( 100, Hand.ROCK );
+
+  private GameService service;
+
+  @Setup
+  public void setUp() {
+    service = new GameService( new GameCodeService( new SecureRandomCodeGenerator() ), null,
+      new RandomService( RandomSourceType.THREAD_LOCAL.create( 42 ) ), event -> { },
+      new GameMetrics( registry.factory.get() ), null, Optional.empty() );
+  }
+
+  @Benchmark
+  @Threads( 1 )
+  public PvcGameResult playAgainstComputer() {
+    return service.playAgainstComputer( Hand.ROCK );
+  }
+
+  @Benchmark
+  @Threads( Threads.MAX )
+  public PvcGameResult playAgainstComputerContended() {
+    return service.playAgainstComputer( Hand.ROCK );
+  }
+
+  @Benchmark
+  @Threads( 1 )
+  public PvcBatchResult playBatchAgainstComputer() {
+    return service.playBatchAgainstComputer( batch );
+  }
+}
@@ -0,0 +1,53 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+import demo.games.model.PvcGameResult;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays a hand against the computer with each random source, without a database, so that only the game and the draw
+ * are measured.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+public class GameServiceBenchmark {
+
+  @Param( { "ROCK", "PAPER", "SCISSORS" } )
+  private Hand player;
+
+  @Param( { "THREAD_LOCAL", "SPLITTABLE", "SEEDED" } )
+  private RandomSourceType source;
+
+  private GameService service;
+
+  @Setup
+  public void setUp() {
+    /* Playing against the computer never touches the database, and the counters of an empty composite registry do nothing */
+    service = new GameService( new GameCodeService( new SecureRandomCodeGenerator() ), null, new RandomService( source.create( 42 ) ), event -> { }, new GameMetrics( new CompositeMeterRegistry() ), null, Optional.empty() );
+  }
+
+  @Benchmark
+  @Threads( 1 )
+  public PvcGameResult playAgainstComputer() {
+    return service.playAgainstComputer( player );
+  }
+
+  @Benchmark
+  @Threads( Threads.MAX )
+  public PvcGameResult playAgainstComputerContended() {
+    return service.playAgainstComputer( player );
+  }
+}
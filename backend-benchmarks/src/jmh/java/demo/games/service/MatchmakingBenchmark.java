@@ -0,0 +1,142 @@
+package demo.games.service;
+
+import demo.games.dao.Game;
+import demo.games.dao.GameStore;
+import demo.games.model.ActiveGame;
+import demo.games.model.GameDetails;
+import demo.games.model.Hand;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Players arriving on many threads at once, while one thread keeps storing the matched games as the scheduler does.
+ * The arriving threads contend on the single waiting slot and on the queue of games to store, and the flushing thread
+ * on the same queue.  The store takes every game without keeping it, so only the matchmaking is measured.
+ */
+@State( Scope.Group )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+public class MatchmakingBenchmark {
+
+  private MatchmakingService service;
+
+  @Setup
+  public void setUp() {
+    service = new MatchmakingService( new GameCodeService( new SecureRandomCodeGenerator() ), new DiscardingGameStore(),
+      new GameMetrics( new CompositeMeterRegistry() ), TimeUnit.MINUTES.toMillis( 1 ), 100_000, 1_000 );
+  }
+
+  @TearDown
+  public void tearDown() {
+    service.shutdown();
+  }
+
+  @Benchmark
+  @Group( "matchOneThread" )
+  @GroupThreads( 1 )
+  public CompletableFuture<Optional<GameDetails>> matchOneThread() {
+    return service.match( Hand.ROCK );
+  }
+
+  @Benchmark
+  @Group( "matchOneThread" )
+  @GroupThreads( 1 )
+  public void flushOneThread() {
+    service.flush();
+  }
+
+  @Benchmark
+  @Group( "matchContended" )
+  @GroupThreads( 8 )
+  public CompletableFuture<Optional<GameDetails>> matchContended() {
+    return service.match( Hand.ROCK );
+  }
+
+  @Benchmark
+  @Group( "matchContended" )
+  @GroupThreads( 1 )
+  public void flushContended() {
+    service.flush();
+  }
+
+  private static class DiscardingGameStore implements GameStore {
+
+    @Override
+    public Set<String> insertAll( final List<Game> games ) {
+      return games.stream().map( Game::getCode ).collect( Collectors.toSet() );
+    }
+
+    @Override
+    public boolean insert( final Game game ) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<Game> close( final String code, final Hand player2 ) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<Game> find( final String code ) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int archiveClosed( final Instant before, final int limit ) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<ActiveGame> findActive() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long countActive() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<GameDetails> findClosed() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<ActiveGame> findActiveAfter( final String after, final int limit ) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<GameDetails> findClosedAfter( final String after, final int limit ) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Stream<ActiveGame> streamActive() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Stream<GameDetails> streamClosed() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+import demo.games.model.PvcGameResult;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays against the computer with an increasing number of threads sharing one service, like the request threads
+ * share the singleton bean.  With a contention free random source the throughput should grow with the number of
+ * cores, while the shared seeded source flattens out.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+public class PvcScalingBenchmark {
+
+  @Param( { "THREAD_LOCAL", "SPLITTABLE", "SEEDED" } )
+  private RandomSourceType source;
+
+  private GameService service;
+
+  @Setup
+  public void setUp() {
+    /* Playing against the computer never touches the database, and the counters of an empty composite registry do nothing */
+    service = new GameService( new GameCodeService( new SecureRandomCodeGenerator() ), null, new RandomService( source.create( 42 ) ), event -> { }, new GameMetrics( new CompositeMeterRegistry() ), null, Optional.empty() );
+  }
+
+  @Benchmark
+  @Threads( 1 )
+  public PvcGameResult threads1() {
+    return service.playAgainstComputer( Hand.ROCK );
+  }
+
+  @Benchmark
+  @Threads( 2 )
+  public PvcGameResult threads2() {
+    return service.playAgainstComputer( Hand.ROCK );
+  }
+
+  @Benchmark
+  @Threads( 4 )
+  public PvcGameResult threads4() {
+    return service.playAgainstComputer( Hand.ROCK );
+  }
+
+  @Benchmark
+  @Threads( 8 )
+  public PvcGameResult threads8() {
+    return service.playAgainstComputer( Hand.ROCK );
+  }
+
+  @Benchmark
+  @Threads( Threads.MAX )
+  public PvcGameResult threadsMax() {
+    return service.playAgainstComputer( Hand.ROCK );
+  }
+}
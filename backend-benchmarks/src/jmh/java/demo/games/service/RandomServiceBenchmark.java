@@ -0,0 +1,45 @@
+package demo.games.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Draws the hand of the computer with each random source.  The contended benchmark shows the cost of the lock of the
+ * seeded source, which all threads share.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+public class RandomServiceBenchmark {
+
+  @Param( { "THREAD_LOCAL", "SPLITTABLE", "SEEDED" } )
+  private RandomSourceType source;
+
+  private RandomService service;
+
+  @Setup
+  public void setUp() {
+    service = new RandomService( source.create( 42 ) );
+  }
+
+  @Benchmark
+  @Threads( 1 )
+  public int nextInt() {
+    return service.nextInt( 3 );
+  }
+
+  @Benchmark
+  @Threads( Threads.MAX )
+  public int nextIntContended() {
+    return service.nextInt( 3 );
+  }
+}
@@ -0,0 +1,57 @@
+package demo.games.service;
+
+import demo.games.model.SimulationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a hundred million rounds between two strategies, on one thread against the common pool, to show how the
+ * simulation scales with the cores.  Divide the rounds by the time for the rounds per second.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+public class SimulationBenchmark {
+
+  @Param( { "100000" } )
+  private long matches;
+
+  @Param( { "1000" } )
+  private int rounds;
+
+  @Param( { "RANDOM", "MARKOV" } )
+  private ComputerStrategyType strategy;
+
+  /* 0 simulates on all processors */
+  @Param( { "1", "0" } )
+  private int parallelism;
+
+  private SimulationService service;
+
+  @Setup( Level.Trial )
+  public void setUp() {
+    service = new SimulationService( parallelism );
+  }
+
+  @TearDown( Level.Trial )
+  public void tearDown() {
+    service.close();
+  }
+
+  @Benchmark
+  public SimulationResult simulate() {
+    return service.simulate(
+      strategy.create( ComputerStrategyType.DEFAULT_ORDER, ComputerStrategyType.DEFAULT_RANDOM_PERCENT ),
+      new FrequencyStrategy(), matches, rounds, 42 );
+  }
+}
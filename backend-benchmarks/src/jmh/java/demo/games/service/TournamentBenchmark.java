@@ -0,0 +1,92 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+import demo.games.model.TournamentFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Plays a whole bracket of a million entrants, where every entrant still in plays a random hand in every round, and
+ * every round is resolved at once.  Resolving with a pool of one thread against the common pool shows how the rounds
+ * scale with the cores.  The rounds are not written anywhere, so only the bracket itself is measured.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+public class TournamentBenchmark {
+
+  private static final ObjIntConsumer<byte[]> NO_WRITER = ( hands, round ) -> { };
+
+  @Param( { "1048576" } )
+  private int entrants;
+
+  @Param( { "SINGLE_ELIMINATION", "SWISS" } )
+  private TournamentFormat format;
+
+  /* 0 resolves on the common pool */
+  @Param( { "1", "0" } )
+  private int parallelism;
+
+  private ForkJoinPool pool;
+  private Hand[] hands;
+  private int[] playing;
+
+  @Setup( Level.Trial )
+  public void setUp() {
+    pool = parallelism == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool( parallelism );
+
+    final SplittableRandom random = new SplittableRandom( 42 );
+    hands = new Hand[entrants];
+    playing = new int[entrants];
+    for ( int i = 0; i < entrants; i++ ) {
+      hands[i] = Hand.fromOrdinal( random.nextInt( Hand.values().length ) );
+    }
+  }
+
+  @TearDown( Level.Trial )
+  public void tearDown() {
+    if ( pool != ForkJoinPool.commonPool() ) {
+      pool.shutdown();
+    }
+  }
+
+  @Benchmark
+  public int playBracket() {
+    final Bracket bracket = new Bracket( "00000000", format, entrants, 0, pool );
+    final int[] scores = new int[entrants];
+    final int[] opponents = new int[entrants];
+    while ( !bracket.isClosed() ) {
+      final int round = bracket.getRound();
+      bracket.copyState( scores, opponents );
+
+      /* Every round plays other hands, as if the entrants changed their minds */
+      int count = 0;
+      final Hand[] played = new Hand[entrants];
+      for ( int entrant = 0; entrant < entrants; entrant++ ) {
+        if ( opponents[entrant] != Bracket.NONE ) {
+          playing[count] = entrant;
+          played[count++] = hands[( entrant + round ) % entrants];
+        }
+      }
+
+      final int[] entrantsPlaying = new int[count];
+      System.arraycopy( playing, 0, entrantsPlaying, 0, count );
+      bracket.play( round, entrantsPlaying, played );
+      bracket.resolve( round, NO_WRITER );
+    }
+    return bracket.getWinner();
+  }
+}
@@ -1,43 +1,34 @@
 package db.migration;
 
+import demo.games.migration.BackfillMigration;
 import demo.games.model.Hand;
 import demo.games.model.PvpOutcome;
-import org.flywaydb.core.api.migration.BaseJavaMigration;
-import org.flywaydb.core.api.migration.Context;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 
-public class V3__add_outcome_to_game extends BaseJavaMigration {
+public class V3__add_outcome_to_game extends BackfillMigration {
 
-  private static final String ADD_COLUMN = "ALTER TABLE games ADD COLUMN outcome CHAR(12) DEFAULT NULL";
+  private static final String ADD_COLUMN = "ALTER TABLE games ADD COLUMN IF NOT EXISTS outcome CHAR(12) DEFAULT NULL";
 
-  private static final String SELECT_CLOSED = "SELECT * FROM games WHERE state = 'CLOSED'";
-
-  private static final String SET_OUTCOME = "UPDATE games SET outcome = ? WHERE code = ?";
+  public V3__add_outcome_to_game() {
+    super( "games", "code", "outcome = " + outcomeCase(), "state = 'CLOSED' AND outcome IS NULL", 10_000 );
+  }
 
   @Override
-  public void migrate( final Context context ) throws Exception {
-    try ( final Statement statement = context.getConnection().createStatement();
-      final PreparedStatement update = context.getConnection().prepareStatement( SET_OUTCOME ) ) {
-      statement.execute( ADD_COLUMN );
-
-      try ( final ResultSet rows = statement.executeQuery( SELECT_CLOSED ) ) {
-        while ( rows.next() ) {
-
-          final String code = rows.getString( "code" );
-          /* Char is being used and this the db value will have trailing spaces */
-          final Hand player1 = Hand.valueOf( rows.getString( "player_1" ).stripTrailing() );
-          final Hand player2 = Hand.valueOf( rows.getString( "player_2" ).stripTrailing() );
-          final PvpOutcome outcome = PvpOutcome.of( player1, player2 );
+  protected void prepare( final Statement statement ) throws SQLException {
+    statement.execute( ADD_COLUMN );
+  }
 
-          update.clearParameters();
-          update.setString( 1, outcome.name() );
-          update.setString( 2, code );
-          update.execute();
-        }
+  /* One branch for every combination of hands, so the rules stay with PvpOutcome.  CHAR comparisons ignore the padding */
+  private static String outcomeCase() {
+    final StringBuilder sql = new StringBuilder( "CASE" );
+    for ( final Hand player1 : Hand.values() ) {
+      for ( final Hand player2 : Hand.values() ) {
+        sql.append( String.format( " WHEN player_1 = '%s' AND player_2 = '%s' THEN '%s'",
+          player1, player2, PvpOutcome.of( player1, player2 ) ) );
       }
     }
+    return sql.append( " END" ).toString();
   }
 }
@@ -0,0 +1,11 @@
+package db.migration;
+
+import demo.games.migration.BackfillMigration;
+
+/* Games closed before V4 have no closing time, these are taken to be closed when they were created */
+public class V6__set_closed_at_of_old_games extends BackfillMigration {
+
+  public V6__set_closed_at_of_old_games() {
+    super( "games", "code", "closed_at = created_at", "state = 1 AND closed_at IS NULL", 10_000 );
+  }
+}
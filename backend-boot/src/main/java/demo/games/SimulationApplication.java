@@ -0,0 +1,99 @@
+package demo.games;
+
+import demo.games.model.SimulationRate;
+import demo.games.model.SimulationResult;
+import demo.games.service.ComputerStrategyType;
+import demo.games.service.SimulationService;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static demo.games.service.ComputerStrategyType.DEFAULT_ORDER;
+import static demo.games.service.ComputerStrategyType.DEFAULT_RANDOM_PERCENT;
+
+/**
+ * Simulates matches between two computer strategies on all cores, without starting the application or connecting to
+ * the database, for example:
+ * <pre>
+ * ./gradlew :backend-boot:simulate --args='--strategy1=markov --strategy2=frequency --matches=100000 --rounds=10000'
+ * </pre>
+ * The options are those of the simulation endpoint, with random-percent written with a dash, and parallelism, the
+ * threads to simulate on, where 0 uses all processors.
+ */
+public class SimulationApplication {
+
+  private static final Set<String> OPTIONS =
+    Set.of( "strategy1", "strategy2", "matches", "rounds", "order", "random-percent", "seed", "parallelism" );
+
+  public static void main( final String[] args ) {
+    final Map<String, String> options;
+    final ComputerStrategyType strategy1;
+    final ComputerStrategyType strategy2;
+    final SimulationResult result;
+    try {
+      options = parse( args );
+      strategy1 = strategy( options.getOrDefault( "strategy1", "markov" ) );
+      strategy2 = strategy( options.getOrDefault( "strategy2", "random" ) );
+      final int order = Integer.parseInt( options.getOrDefault( "order", String.valueOf( DEFAULT_ORDER ) ) );
+      final int randomPercent =
+        Integer.parseInt( options.getOrDefault( "random-percent", String.valueOf( DEFAULT_RANDOM_PERCENT ) ) );
+      final long seed = options.containsKey( "seed" )
+        ? Long.parseLong( options.get( "seed" ) )
+        : ThreadLocalRandom.current().nextLong();
+
+      final int parallelism = Integer.parseInt( options.getOrDefault( "parallelism", "0" ) );
+
+      result = new SimulationService( parallelism ).simulate(
+        strategy1.create( order, randomPercent ),
+        strategy2.create( order, randomPercent ),
+        Long.parseLong( options.getOrDefault( "matches", "10000" ) ),
+        Integer.parseInt( options.getOrDefault( "rounds", "1000" ) ),
+        seed );
+    } catch ( final IllegalArgumentException e ) {
+      System.err.println( e.getMessage() );
+      System.err.printf( "Usage: %s [--strategy1=markov] [--strategy2=random] [--matches=10000] [--rounds=1000] "
+        + "[--order=%d] [--random-percent=%d] [--seed=...] [--parallelism=0]%n",
+        SimulationApplication.class.getSimpleName(), DEFAULT_ORDER, DEFAULT_RANDOM_PERCENT );
+      System.exit( 1 );
+      return;
+    }
+
+    final String name1 = strategy1 == strategy2 ? name( strategy1 ) + " 1" : name( strategy1 );
+    final String name2 = strategy1 == strategy2 ? name( strategy2 ) + " 2" : name( strategy2 );
+    System.out.printf( Locale.ROOT, "%s v %s: %d matches of %d rounds in %d ms (seed %d)%n",
+      name1, name2, result.getMatches(), result.getRounds(), result.getMillis(), result.getSeed() );
+    print( name1 + " wins", result.getStrategy1() );
+    print( name2 + " wins", result.getStrategy2() );
+    print( "draws", result.getDraws() );
+  }
+
+  private static Map<String, String> parse( final String[] args ) {
+    final Map<String, String> options = new HashMap<>();
+    for ( final String arg : args ) {
+      final int equals = arg.indexOf( '=' );
+      final String key = arg.startsWith( "--" ) && equals > 2 ? arg.substring( 2, equals ) : null;
+      /* Set.of rejects null even to look it up */
+      if ( key == null || !OPTIONS.contains( key ) ) {
+        throw new IllegalArgumentException( String.format( "Unknown option %s", arg ) );
+      }
+      options.put( key, arg.substring( equals + 1 ) );
+    }
+    return options;
+  }
+
+  private static ComputerStrategyType strategy( final String name ) {
+    return ComputerStrategyType.valueOf( name.toUpperCase( Locale.ROOT ) );
+  }
+
+  private static String name( final ComputerStrategyType strategy ) {
+    return strategy.name().toLowerCase( Locale.ROOT );
+  }
+
+  private static void print( final String label, final SimulationRate rate ) {
+    System.out.printf( Locale.ROOT, "%-24s %14d  %.4f (%.4f to %.4f)%n",
+      label, rate.getCount(), rate.getRate(), rate.getLow(), rate.getHigh() );
+  }
+}
@@ -0,0 +1,14 @@
+package demo.games.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/* Caching wraps the transaction, so a closed game is only cached once it is committed */
+@Configuration
+@EnableCaching( order = Ordered.LOWEST_PRECEDENCE - 1 )
+public class CacheConfiguration {
+
+  /* Closed games never change, so these can be served from memory */
+  public static final String CLOSED_GAMES = "closedGames";
+}
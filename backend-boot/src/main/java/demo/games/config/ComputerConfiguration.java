@@ -0,0 +1,19 @@
+package demo.games.config;
+
+import demo.games.service.ComputerStrategy;
+import demo.games.service.ComputerStrategyType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ComputerConfiguration {
+
+  @Bean
+  public ComputerStrategy computerStrategy(
+    final @Value( "${game.computer.strategy:random}" ) ComputerStrategyType type,
+    final @Value( "${game.computer.order:2}" ) int order,
+    final @Value( "${game.computer.random-percent:20}" ) int randomPercent ) {
+    return type.create( order, randomPercent );
+  }
+}
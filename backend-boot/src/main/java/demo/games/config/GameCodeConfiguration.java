@@ -0,0 +1,18 @@
+package demo.games.config;
+
+import demo.games.service.GameCodeGenerator;
+import demo.games.service.GameCodeStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GameCodeConfiguration {
+
+  @Bean
+  public GameCodeGenerator gameCodeGenerator(
+    final @Value( "${game.code.strategy:secure-random}" ) GameCodeStrategy strategy,
+    final @Value( "${game.code.node:0}" ) int node ) {
+    return strategy.create( node );
+  }
+}
@@ -0,0 +1,16 @@
+package demo.games.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/* Times the methods annotated with @Timed outside of the web layer, which actuator already times */
+@Configuration
+public class MetricsConfiguration {
+
+  @Bean
+  public TimedAspect timedAspect( final MeterRegistry registry ) {
+    return new TimedAspect( registry );
+  }
+}
@@ -0,0 +1,18 @@
+package demo.games.config;
+
+import demo.games.service.RandomSource;
+import demo.games.service.RandomSourceType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RandomConfiguration {
+
+  @Bean
+  public RandomSource randomSource(
+    final @Value( "${game.random.source:thread-local}" ) RandomSourceType type,
+    final @Value( "${game.random.seed:0}" ) long seed ) {
+    return type.create( seed );
+  }
+}
@@ -0,0 +1,289 @@
+package demo.games.dao;
+
+import demo.games.model.ActiveGame;
+import demo.games.model.GameDetails;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static demo.games.model.GameState.ACTIVE;
+import static demo.games.model.GameState.CLOSED;
+
+/**
+ * Keeps all games in memory, sorted by code, and every change in a {@link GameLog} that is replayed on startup.  Meant
+ * for single node deployments and tests, as the file cannot be shared between nodes.
+ * <p>
+ * Changes are written one at a time, while reads never wait.  The log is forced to disk every
+ * {@code game.store.embedded.flush-interval} milliseconds, so a power loss may lose the changes of the last interval.
+ * Once the log holds many outdated records it is compacted to the current state of every game, which is written while
+ * the changes go on.
+ * <p>
+ * Archived games are appended to a second log next to the first one, which is only ever written, and are no longer
+ * kept in memory or found.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty( name = "game.store", havingValue = "embedded" )
+public class EmbeddedGameStore implements GameStore {
+
+  /* Compact once the log holds this many records more than there are games */
+  private static final int MIN_OUTDATED_RECORDS = 100_000;
+
+  private final ConcurrentNavigableMap<String, Game> games = new ConcurrentSkipListMap<>();
+  private final GameLog gameLog;
+  private final GameLog archive;
+  private final Clock clock;
+  /* Every change is appended and applied under this lock, a lock rather than a monitor so waiting does not pin */
+  private final Lock lock = new ReentrantLock();
+  /* The closed games in the order these were closed, guarded by lock */
+  private final Deque<Game> closed = new ArrayDeque<>();
+  private final AtomicLong activeGames = new AtomicLong();
+
+  @Autowired
+  public EmbeddedGameStore( final @Value( "${game.store.embedded.path:data/games.log}" ) String path,
+    final @Value( "${game.store.embedded.records-per-region:131072}" ) int recordsPerRegion ) {
+    this( new GameLog( Paths.get( path ), recordsPerRegion ),
+      new GameLog( Paths.get( path + ".archive" ), recordsPerRegion ), Clock.systemUTC() );
+  }
+
+  EmbeddedGameStore( final GameLog gameLog, final GameLog archive, final Clock clock ) {
+    this.gameLog = gameLog;
+    this.archive = archive;
+    this.clock = clock;
+  }
+
+  @PostConstruct
+  public void open() throws IOException {
+    gameLog.open( game -> games.put( game.getCode(), game ), games::remove );
+    archive.open( game -> { } );
+
+    games.values()
+      .stream()
+      .filter( game -> game.getState() == CLOSED )
+      .sorted( Comparator.comparing( Game::getClosedAt, Comparator.nullsFirst( Comparator.naturalOrder() ) ) )
+      .forEach( closed::add );
+    activeGames.set( games.size() - closed.size() );
+    log.info( "Loaded {} games from {} records", games.size(), gameLog.records() );
+  }
+
+  @Scheduled( fixedDelayString = "${game.store.embedded.flush-interval:50}" )
+  public void flush() {
+    gameLog.force();
+    archive.force();
+  }
+
+  @Scheduled( fixedDelayString = "${game.store.embedded.compaction-interval:60000}" )
+  public void compact() throws IOException {
+    final long records = gameLog.records();
+    if ( records - games.size() < MIN_OUTDATED_RECORDS ) {
+      return;
+    }
+
+    /* The changes of all records before this one are in the games by then, and the later ones are copied after these */
+    final long from;
+    lock.lock();
+    try {
+      from = gameLog.records();
+    } finally {
+      lock.unlock();
+    }
+
+    gameLog.compact( games.values(), from );
+    log.info( "Compacted {} records into {} games", records, games.size() );
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    gameLog.close();
+    archive.close();
+  }
+
+  @Override
+  public boolean insert( final Game game ) {
+    lock.lock();
+    try {
+      if ( games.containsKey( game.getCode() ) ) {
+        return false;
+      }
+
+      final Instant now = clock.instant();
+      final Game inserted = new Game()
+        .setCode( game.getCode() )
+        .setPlayer1( game.getPlayer1() )
+        .setPlayer2( game.getPlayer2() )
+        .setOutcome( game.getOutcome() )
+        .setState( game.getState() )
+        .setCreatedAt( now )
+        .setClosedAt( game.getState() == CLOSED ? now : null );
+      gameLog.append( inserted );
+      games.put( inserted.getCode(), inserted );
+      if ( inserted.getState() == CLOSED ) {
+        closed.add( inserted );
+      } else {
+        activeGames.incrementAndGet();
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Set<String> insertAll( final List<Game> created ) {
+    final Set<String> inserted = new HashSet<>();
+    lock.lock();
+    try {
+      for ( final Game game : created ) {
+        if ( insert( game ) ) {
+          inserted.add( game.getCode() );
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    return inserted;
+  }
+
+  @Override
+  public Optional<Game> close( final String code, final Hand player2 ) {
+    lock.lock();
+    try {
+      final Game active = games.get( code );
+      if ( active == null || active.getState() != ACTIVE ) {
+        return Optional.empty();
+      }
+
+      final Game game = new Game()
+        .setCode( code )
+        .setPlayer1( active.getPlayer1() )
+        .setPlayer2( player2 )
+        .setOutcome( PvpOutcome.of( active.getPlayer1(), player2 ) )
+        .setState( CLOSED )
+        .setCreatedAt( active.getCreatedAt() )
+        .setClosedAt( clock.instant() );
+      gameLog.append( game );
+      games.put( code, game );
+      closed.add( game );
+      activeGames.decrementAndGet();
+      return Optional.of( game );
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Optional<Game> find( final String code ) {
+    return Optional.ofNullable( games.get( code ) );
+  }
+
+  @Override
+  public int archiveClosed( final Instant before, final int limit ) {
+    int archived = 0;
+    lock.lock();
+    try {
+      while ( archived < limit && !closed.isEmpty() ) {
+        final Game oldest = closed.peek();
+        if ( oldest.getClosedAt() != null && !oldest.getClosedAt().isBefore( before ) ) {
+          break;
+        }
+
+        archive.append( oldest );
+        gameLog.appendArchived( oldest.getCode() );
+        games.remove( oldest.getCode() );
+        closed.poll();
+        archived++;
+      }
+    } finally {
+      lock.unlock();
+    }
+    return archived;
+  }
+
+  @Override
+  public List<ActiveGame> findActive() {
+    try ( final Stream<ActiveGame> active = streamActive() ) {
+      return active.collect( Collectors.toList() );
+    }
+  }
+
+  @Override
+  public long countActive() {
+    return activeGames.get();
+  }
+
+  @Override
+  public List<GameDetails> findClosed() {
+    try ( final Stream<GameDetails> closed = streamClosed() ) {
+      return closed.collect( Collectors.toList() );
+    }
+  }
+
+  @Override
+  public List<ActiveGame> findActiveAfter( final String after, final int limit ) {
+    return after( after, ACTIVE )
+      .limit( limit )
+      .map( EmbeddedGameStore::toActiveGame )
+      .collect( Collectors.toCollection( ArrayList::new ) );
+  }
+
+  @Override
+  public List<GameDetails> findClosedAfter( final String after, final int limit ) {
+    return after( after, CLOSED )
+      .limit( limit )
+      .map( EmbeddedGameStore::toGameDetails )
+      .collect( Collectors.toCollection( ArrayList::new ) );
+  }
+
+  @Override
+  public Stream<ActiveGame> streamActive() {
+    return after( "", ACTIVE ).map( EmbeddedGameStore::toActiveGame );
+  }
+
+  @Override
+  public Stream<GameDetails> streamClosed() {
+    return after( "", CLOSED ).map( EmbeddedGameStore::toGameDetails );
+  }
+
+  private Stream<Game> after( final String after, final GameState state ) {
+    return games.tailMap( after, false )
+      .values()
+      .stream()
+      .filter( game -> game.getState() == state );
+  }
+
+  private static ActiveGame toActiveGame( final Game game ) {
+    return new ActiveGame( game.getCode() );
+  }
+
+  private static GameDetails toGameDetails( final Game game ) {
+    return new GameDetails( game.getCode(), game.getPlayer1(), game.getPlayer2(), game.getOutcome(), game.getState() );
+  }
+}
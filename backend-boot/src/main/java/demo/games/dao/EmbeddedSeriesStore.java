@@ -0,0 +1,67 @@
+package demo.games.dao;
+
+import demo.games.model.Hand;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the series in memory only, unlike the games these are not written to the {@link GameLog} and are lost when the
+ * application stops.  Copies are handed out, so a series only changes while its entry is locked by the map.
+ */
+@Component
+@ConditionalOnProperty( name = "game.store", havingValue = "embedded" )
+public class EmbeddedSeriesStore implements SeriesStore {
+
+  private final ConcurrentMap<String, Series> series = new ConcurrentHashMap<>();
+  private final Clock clock;
+
+  public EmbeddedSeriesStore() {
+    this( Clock.systemUTC() );
+  }
+
+  EmbeddedSeriesStore( final Clock clock ) {
+    this.clock = clock;
+  }
+
+  @Override
+  public boolean insert( final Series created ) {
+    return series.putIfAbsent( created.getCode(), copyOf( created ).setCreatedAt( clock.instant() ) ) == null;
+  }
+
+  @Override
+  public Optional<Series> find( final String code ) {
+    return Optional.ofNullable( series.get( code ) ).map( EmbeddedSeriesStore::copyOf );
+  }
+
+  @Override
+  public Optional<Series> play( final String code, final int round, final int player, final Hand hand ) {
+    final Series[] played = new Series[1];
+    series.computeIfPresent( code, ( key, current ) -> {
+      if ( current.play( round, player, hand, clock.instant() ) ) {
+        played[0] = copyOf( current );
+      }
+      return current;
+    } );
+    return Optional.ofNullable( played[0] );
+  }
+
+  private static Series copyOf( final Series series ) {
+    return new Series()
+      .setCode( series.getCode() )
+      .setBestOf( series.getBestOf() )
+      .setHands1( series.getHands1() )
+      .setHands2( series.getHands2() )
+      .setRound( series.getRound() )
+      .setWins1( series.getWins1() )
+      .setWins2( series.getWins2() )
+      .setState( series.getState() )
+      .setOutcome( series.getOutcome() )
+      .setCreatedAt( series.getCreatedAt() )
+      .setClosedAt( series.getClosedAt() );
+  }
+}
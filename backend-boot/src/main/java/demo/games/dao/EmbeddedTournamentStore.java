@@ -0,0 +1,73 @@
+package demo.games.dao;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the tournaments in memory only, unlike the games these are not written to the {@link GameLog} and are lost when
+ * the application stops.  The rounds of a tournament are dropped once it is closed, and only its final scores are kept.
+ */
+@Component
+@ConditionalOnProperty( name = "game.store", havingValue = "embedded" )
+public class EmbeddedTournamentStore implements TournamentStore {
+
+  private final Map<String, Tournament> tournaments = new ConcurrentHashMap<>();
+  private final Map<String, List<byte[]>> rounds = new ConcurrentHashMap<>();
+  private final Map<String, byte[]> scores = new ConcurrentHashMap<>();
+
+  @Override
+  public boolean insert( final Tournament tournament ) {
+    return tournaments.putIfAbsent( tournament.getCode(), tournament ) == null;
+  }
+
+  @Override
+  public Optional<Tournament> find( final String code ) {
+    return Optional.ofNullable( tournaments.get( code ) );
+  }
+
+  @Override
+  public void insertRound( final String code, final int round, final byte[] hands ) {
+    final List<byte[]> played = rounds.computeIfAbsent( code, key -> new CopyOnWriteArrayList<>() );
+    if ( played.size() != round ) {
+      throw new IllegalStateException( String.format( "Round %d of tournament %s is already stored", round, code ) );
+    }
+    played.add( hands.clone() );
+  }
+
+  @Override
+  public List<byte[]> findRounds( final String code ) {
+    return List.copyOf( rounds.getOrDefault( code, List.of() ) );
+  }
+
+  @Override
+  public void close( final String code, final int winner, final byte[] scores ) {
+    if ( !tournaments.containsKey( code ) ) {
+      return;
+    }
+
+    /* The scores go first, so a tournament that reads as closed always has these */
+    this.scores.putIfAbsent( code, scores.clone() );
+    /* The stored tournament is replaced rather than changed, as it may be read meanwhile */
+    tournaments.computeIfPresent( code, ( key, tournament ) -> tournament.getWinner() != null
+      ? tournament
+      : new Tournament()
+        .setCode( tournament.getCode() )
+        .setFormat( tournament.getFormat() )
+        .setEntrants( tournament.getEntrants() )
+        .setRounds( tournament.getRounds() )
+        .setCreatedAt( tournament.getCreatedAt() )
+        .setWinner( winner ) );
+    rounds.remove( code );
+  }
+
+  @Override
+  public Optional<byte[]> findScores( final String code ) {
+    return Optional.ofNullable( scores.get( code ) ).map( byte[]::clone );
+  }
+}
@@ -3,15 +3,16 @@ package demo.games.dao;
 import demo.games.model.GameState;
 import demo.games.model.Hand;
 import demo.games.model.PvpOutcome;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.experimental.Accessors;
 
-import javax.persistence.Column;
-import javax.persistence.Entity;
-import javax.persistence.EnumType;
-import javax.persistence.Enumerated;
-import javax.persistence.Id;
-import javax.persistence.Table;
+import java.time.Instant;
 
 @Data
 @Entity
@@ -22,17 +23,25 @@ public class Game {
   @Id
   private String code;
 
-  @Enumerated( EnumType.STRING )
+  /* The enums are stored as their ordinal, so new constants may only be added at the end */
+  @Enumerated( EnumType.ORDINAL )
   @Column( name = "player_1" )
   private Hand player1;
 
-  @Enumerated( EnumType.STRING )
+  @Enumerated( EnumType.ORDINAL )
   @Column( name = "player_2" )
   private Hand player2;
 
-  @Enumerated( EnumType.STRING )
+  @Enumerated( EnumType.ORDINAL )
   private GameState state;
 
-  @Enumerated( EnumType.STRING )
+  @Enumerated( EnumType.ORDINAL )
   private PvpOutcome outcome;
+
+  /* Set by the database when the game is inserted */
+  @Column( name = "created_at", insertable = false, updatable = false )
+  private Instant createdAt;
+
+  @Column( name = "closed_at" )
+  private Instant closedAt;
 }
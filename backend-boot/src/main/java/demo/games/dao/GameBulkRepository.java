@@ -0,0 +1,12 @@
+package demo.games.dao;
+
+import java.util.List;
+import java.util.Set;
+
+public interface GameBulkRepository {
+
+  /**
+   * Inserts the games that do not collide with an existing game and returns the codes of the inserted games
+   */
+  Set<String> insertGames( final List<Game> games );
+}
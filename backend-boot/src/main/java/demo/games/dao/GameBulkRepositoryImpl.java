@@ -0,0 +1,65 @@
+package demo.games.dao;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates all games with one INSERT, with the columns passed as arrays, where {@code saveAll()} issues a SELECT and an
+ * INSERT for every game.  Games inserted closed are closed at the time of the INSERT.  Games whose code is already
+ * taken, also by an archived game, are skipped and left out of the returned codes.
+ */
+public class GameBulkRepositoryImpl implements GameBulkRepository {
+
+  private static final String INSERT_GAMES = "INSERT INTO games (code, player_1, player_2, state, outcome, closed_at)"
+    + " SELECT g.code, g.player_1, g.player_2, g.state, g.outcome, CASE WHEN g.state = 1 THEN now() END"
+    + " FROM unnest(?::varchar[], ?::smallint[], ?::smallint[], ?::smallint[], ?::smallint[])"
+    + " AS g (code, player_1, player_2, state, outcome)"
+    + " WHERE NOT EXISTS (SELECT 1 FROM games_archive a WHERE a.code = g.code)"
+    + " ON CONFLICT DO NOTHING"
+    + " RETURNING code";
+
+  private final JdbcTemplate jdbc;
+
+  public GameBulkRepositoryImpl( final JdbcTemplate jdbc ) {
+    this.jdbc = jdbc;
+  }
+
+  @Override
+  public Set<String> insertGames( final List<Game> games ) {
+    if ( games.isEmpty() ) {
+      return Set.of();
+    }
+
+    final String[] codes = new String[games.size()];
+    final Short[] players1 = new Short[games.size()];
+    final Short[] players2 = new Short[games.size()];
+    final Short[] states = new Short[games.size()];
+    final Short[] outcomes = new Short[games.size()];
+    for ( int i = 0; i < codes.length; i++ ) {
+      final Game game = games.get( i );
+      codes[i] = game.getCode();
+      players1[i] = (short) game.getPlayer1().ordinal();
+      players2[i] = ordinal( game.getPlayer2() );
+      states[i] = (short) game.getState().ordinal();
+      outcomes[i] = ordinal( game.getOutcome() );
+    }
+
+    return new HashSet<>( jdbc.query( connection -> {
+      final PreparedStatement statement = connection.prepareStatement( INSERT_GAMES );
+      statement.setArray( 1, connection.createArrayOf( "varchar", codes ) );
+      statement.setArray( 2, connection.createArrayOf( "int2", players1 ) );
+      statement.setArray( 3, connection.createArrayOf( "int2", players2 ) );
+      statement.setArray( 4, connection.createArrayOf( "int2", states ) );
+      statement.setArray( 5, connection.createArrayOf( "int2", outcomes ) );
+      return statement;
+    }, ( row, number ) -> row.getString( 1 ) ) );
+  }
+
+  private static Short ordinal( final Enum<?> value ) {
+    return value == null ? null : (short) value.ordinal();
+  }
+}
@@ -0,0 +1,300 @@
+package demo.games.dao;
+
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of games, memory-mapped in regions.  Every change appends the whole game as one fixed-size record, so
+ * the last record of a code holds the current state of that game.  Records written to the mapped memory survive the
+ * application crashing, and are written to disk by {@link #force()}, so many changes share one fsync.
+ * <p>
+ * Record layout (32 bytes): present marker, code (8 ASCII characters), player 1, player 2, state and outcome ordinals
+ * ({@code -1} when missing), 3 bytes padding, created at and closed at in epoch milliseconds ({@link Long#MIN_VALUE}
+ * when missing).  The marker is written last, so a record that was only partly written is ignored.  A record with the
+ * state {@code -2} only holds the code, of a game that was moved to the archive since.
+ * <p>
+ * Guarded by a lock rather than a monitor, so a virtual thread waiting to append does not hold on to its carrier.
+ */
+class GameLog implements Closeable {
+
+  static final int RECORD_SIZE = 32;
+  static final int CODE_LENGTH = 8;
+
+  private static final byte PRESENT = 1;
+  private static final byte MISSING = -1;
+  private static final byte ARCHIVED = -2;
+  private static final long NO_TIME = Long.MIN_VALUE;
+
+  private static final Hand[] HANDS = Hand.values();
+  private static final GameState[] STATES = GameState.values();
+  private static final PvpOutcome[] OUTCOMES = PvpOutcome.values();
+
+  private final Path path;
+  private final long regionSize;
+  private final List<MappedByteBuffer> regions = new ArrayList<>();
+  private final Lock lock = new ReentrantLock();
+
+  private FileChannel channel;
+  private long position;
+  private long forced;
+  /* Counts the times the log was opened, compacting reopens it with other regions and a smaller position */
+  private long generation;
+
+  GameLog( final Path path, final int recordsPerRegion ) {
+    this.path = path;
+    this.regionSize = (long) recordsPerRegion * RECORD_SIZE;
+  }
+
+  void open( final Consumer<Game> replay ) throws IOException {
+    open( replay, code -> { } );
+  }
+
+  /**
+   * Replays all records, in the order these were written, and appends after the last one.  The codes of the archived
+   * games are passed to the second consumer.
+   */
+  void open( final Consumer<Game> replay, final Consumer<String> archived ) throws IOException {
+    lock.lock();
+    try {
+      final Path parent = path.toAbsolutePath().getParent();
+      if ( parent != null ) {
+        Files.createDirectories( parent );
+      }
+
+      channel = FileChannel.open( path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE );
+      position = 0;
+      while ( true ) {
+        final MappedByteBuffer region = region( position );
+        final int offset = (int) ( position % regionSize );
+        if ( region.get( offset ) != PRESENT ) {
+          break;
+        }
+
+        if ( isArchived( region, offset ) ) {
+          archived.accept( code( region, offset ) );
+        } else {
+          replay.accept( read( region, offset ) );
+        }
+        position += RECORD_SIZE;
+      }
+      forced = position;
+      generation++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void append( final Game game ) {
+    write( game.getCode(), ordinal( game.getPlayer1() ), ordinal( game.getPlayer2() ), ordinal( game.getState() ),
+      ordinal( game.getOutcome() ), millis( game.getCreatedAt() ), millis( game.getClosedAt() ) );
+  }
+
+  /* Records that the game was moved to the archive, so it is left out when the log is replayed */
+  void appendArchived( final String code ) {
+    write( code, MISSING, MISSING, ARCHIVED, MISSING, NO_TIME, NO_TIME );
+  }
+
+  private void write( final String code, final byte player1, final byte player2, final byte state, final byte outcome,
+    final long createdAt, final long closedAt ) {
+    final byte[] bytes = code.getBytes( StandardCharsets.US_ASCII );
+    if ( bytes.length != CODE_LENGTH || code.length() != CODE_LENGTH ) {
+      throw new IllegalArgumentException( String.format( "Only codes of %d ASCII characters can be stored", CODE_LENGTH ) );
+    }
+
+    lock.lock();
+    try {
+      final MappedByteBuffer region = region( position );
+      final int offset = (int) ( position % regionSize );
+      region.put( offset + 1, bytes );
+      region.put( offset + 9, player1 );
+      region.put( offset + 10, player2 );
+      region.put( offset + 11, state );
+      region.put( offset + 12, outcome );
+      region.putLong( offset + 16, createdAt );
+      region.putLong( offset + 24, closedAt );
+      region.put( offset, PRESENT );
+      position += RECORD_SIZE;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes the records appended since the previous call to disk.  Appending carries on while the regions are forced.
+   * When the log was compacted in the meantime the forced regions belong to the replaced log, and the compacted log was
+   * already forced when it was written, so nothing is recorded.
+   */
+  void force() {
+    final List<MappedByteBuffer> dirty;
+    final long until;
+    final long forcing;
+    lock.lock();
+    try {
+      if ( position == forced ) {
+        return;
+      }
+
+      until = position;
+      forcing = generation;
+      dirty = new ArrayList<>( regions.subList( (int) ( forced / regionSize ), (int) ( ( until - 1 ) / regionSize ) + 1 ) );
+    } finally {
+      lock.unlock();
+    }
+
+    dirty.forEach( MappedByteBuffer::force );
+
+    lock.lock();
+    try {
+      if ( generation == forcing ) {
+        forced = Math.max( forced, until );
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long records() {
+    lock.lock();
+    try {
+      return position / RECORD_SIZE;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Replaces the log with one that only holds the given games
+   */
+  void compact( final Collection<Game> games ) throws IOException {
+    compact( games, records() );
+  }
+
+  /**
+   * Replaces the log with one that holds the given games followed by the records appended from the given one on, so
+   * the games can be gathered while appending goes on.  The games are written and forced before the log is locked,
+   * which only copies the later records and swaps the files.  The new log is written next to the current one and then
+   * moved over it, so a crash leaves either of the two complete logs behind.
+   */
+  void compact( final Collection<Game> games, final long from ) throws IOException {
+    final Path compacted = path.resolveSibling( path.getFileName() + ".compact" );
+    Files.deleteIfExists( compacted );
+    try ( final GameLog target = new GameLog( compacted, (int) ( regionSize / RECORD_SIZE ) ) ) {
+      target.open( game -> { } );
+      games.forEach( target::append );
+      target.force();
+
+      lock.lock();
+      try {
+        for ( long copied = from * RECORD_SIZE; copied < position; copied += RECORD_SIZE ) {
+          final MappedByteBuffer region = region( copied );
+          final int offset = (int) ( copied % regionSize );
+          if ( isArchived( region, offset ) ) {
+            target.appendArchived( code( region, offset ) );
+          } else {
+            target.append( read( region, offset ) );
+          }
+        }
+        final long records = target.records();
+        target.close();
+
+        close();
+        Files.move( compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        reopen( records );
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /* Appends after the given number of records, which the caller knows are there, without reading these again */
+  private void reopen( final long records ) throws IOException {
+    channel = FileChannel.open( path, StandardOpenOption.READ, StandardOpenOption.WRITE );
+    position = records * RECORD_SIZE;
+    forced = position;
+    generation++;
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.lock();
+    try {
+      if ( channel == null ) {
+        return;
+      }
+
+      force();
+      regions.clear();
+      channel.close();
+      channel = null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /* Maps the region that holds the given position, which grows the file when needed */
+  private MappedByteBuffer region( final long position ) {
+    final int index = (int) ( position / regionSize );
+    while ( regions.size() <= index ) {
+      try {
+        regions.add( channel.map( FileChannel.MapMode.READ_WRITE, regions.size() * regionSize, regionSize ) );
+      } catch ( final IOException e ) {
+        throw new UncheckedIOException( e );
+      }
+    }
+    return regions.get( index );
+  }
+
+  private static boolean isArchived( final MappedByteBuffer region, final int offset ) {
+    return region.get( offset + 11 ) == ARCHIVED;
+  }
+
+  private static String code( final MappedByteBuffer region, final int offset ) {
+    final byte[] code = new byte[CODE_LENGTH];
+    region.get( offset + 1, code );
+    return new String( code, StandardCharsets.US_ASCII );
+  }
+
+  private static Game read( final MappedByteBuffer region, final int offset ) {
+    final byte player2 = region.get( offset + 10 );
+    final byte outcome = region.get( offset + 12 );
+    return new Game()
+      .setCode( code( region, offset ) )
+      .setPlayer1( HANDS[region.get( offset + 9 )] )
+      .setPlayer2( player2 == MISSING ? null : HANDS[player2] )
+      .setState( STATES[region.get( offset + 11 )] )
+      .setOutcome( outcome == MISSING ? null : OUTCOMES[outcome] )
+      .setCreatedAt( instant( region.getLong( offset + 16 ) ) )
+      .setClosedAt( instant( region.getLong( offset + 24 ) ) );
+  }
+
+  private static byte ordinal( final Enum<?> value ) {
+    return value == null ? MISSING : (byte) value.ordinal();
+  }
+
+  private static long millis( final Instant instant ) {
+    return instant == null ? NO_TIME : instant.toEpochMilli();
+  }
+
+  private static Instant instant( final long millis ) {
+    return millis == NO_TIME ? null : Instant.ofEpochMilli( millis );
+  }
+}
@@ -1,16 +1,108 @@
 package demo.games.dao;
 
+import demo.games.model.ActiveGame;
+import demo.games.model.GameDetails;
 import demo.games.model.GameState;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * The queries returning {@link ActiveGame} and {@link GameDetails} use constructor expressions, so the rows are
+ * mapped straight into these types without creating managed {@link Game} entities.
+ */
 @Repository
-public interface GameRepository extends JpaRepository<Game, String> {
+public interface GameRepository extends JpaRepository<Game, String>, GameBulkRepository {
 
   List<Game> findByStateEquals( final GameState state );
 
-  Optional<Game> findByCodeAndStateEquals( final String code, final GameState state );
+  /* Counted from the partial index on the active games */
+  long countByState( final GameState state );
+
+  /**
+   * Creates the game with a single INSERT, where {@link #save(Object)} first selects the row as the code is assigned
+   * and then overwrites any game that has the same code.  Returns 0 when the code is already taken, also by an archived
+   * game.  The hand and the state are given as the ordinal of their enum.
+   */
+  @Modifying
+  @Transactional
+  @Query( value = "INSERT INTO games (code, player_1, state)"
+    + " SELECT :code, :player1, :state WHERE NOT EXISTS (SELECT 1 FROM games_archive WHERE code = :code)"
+    + " ON CONFLICT DO NOTHING", nativeQuery = true )
+  int insertGame( final @Param( "code" ) String code, final @Param( "player1" ) int player1,
+    final @Param( "state" ) int state );
+
+  /**
+   * Closes the active game with a single conditional UPDATE, so when many players join the same game at the same time
+   * only one of them gets the closed game back.  The outcome depends on player 1, which is only known to the database,
+   * so the outcome for each hand player 1 may have played is given.  Hands and outcomes are given as the ordinal of
+   * their enum and the states are {@code 0} (active) and {@code 1} (closed).
+   */
+  @Transactional
+  @Query( value = "UPDATE games SET player_2 = :player2, state = 1, closed_at = now(),"
+    + " outcome = CASE player_1 WHEN 0 THEN :ifRock WHEN 1 THEN :ifPaper ELSE :ifScissors END"
+    + " WHERE code = :code AND state = 0"
+    + " RETURNING *", nativeQuery = true )
+  Optional<Game> closeGame( final @Param( "code" ) String code, final @Param( "player2" ) int player2,
+    final @Param( "ifRock" ) int ifRock, final @Param( "ifPaper" ) int ifPaper,
+    final @Param( "ifScissors" ) int ifScissors );
+
+  /* Archived games are read only, these are never changed again */
+  @Query( value = "SELECT * FROM games_archive WHERE code = :code", nativeQuery = true )
+  Optional<Game> findArchivedById( final @Param( "code" ) String code );
+
+  /**
+   * Moves up to {@code limit} games closed before the given time to the archive, oldest first, and returns the number
+   * of games moved.  The games are deleted and archived in one statement.
+   */
+  @Modifying
+  @Transactional
+  @Query( value = "WITH moved AS ("
+    + " DELETE FROM games WHERE code IN ("
+    + "  SELECT code FROM games WHERE state = 1 AND closed_at < :before ORDER BY closed_at LIMIT :limit"
+    + " ) RETURNING code, player_1, player_2, state, outcome, created_at, closed_at"
+    + ") INSERT INTO games_archive (code, player_1, player_2, state, outcome, created_at, closed_at)"
+    + " SELECT code, player_1, player_2, state, outcome, created_at, closed_at FROM moved", nativeQuery = true )
+  int archiveClosedGames( final @Param( "before" ) Instant before, final @Param( "limit" ) int limit );
+
+  @Query( "SELECT new demo.games.model.ActiveGame( g.code ) FROM Game g WHERE g.state = :state" )
+  List<ActiveGame> findActiveGamesByState( final @Param( "state" ) GameState state );
+
+  @Query( "SELECT new demo.games.model.GameDetails( g.code, g.player1, g.player2, g.outcome, g.state )"
+    + " FROM Game g WHERE g.state = :state" )
+  List<GameDetails> findGameDetailsByState( final @Param( "state" ) GameState state );
+
+  /* Keyset pagination, only the page size is taken from the pageable */
+  @Query( "SELECT new demo.games.model.ActiveGame( g.code ) FROM Game g"
+    + " WHERE g.state = :state AND g.code > :after ORDER BY g.code" )
+  List<ActiveGame> findActiveGamesByStateAfter( final @Param( "state" ) GameState state,
+    final @Param( "after" ) String after, final Pageable page );
+
+  @Query( "SELECT new demo.games.model.GameDetails( g.code, g.player1, g.player2, g.outcome, g.state )"
+    + " FROM Game g WHERE g.state = :state AND g.code > :after ORDER BY g.code" )
+  List<GameDetails> findGameDetailsByStateAfter( final @Param( "state" ) GameState state,
+    final @Param( "after" ) String after, final Pageable page );
+
+  /* The streams read through a database cursor, which the PostgreSQL driver only uses within a transaction */
+  @QueryHints( @QueryHint( name = HINT_FETCH_SIZE, value = "500" ) )
+  @Query( "SELECT new demo.games.model.ActiveGame( g.code ) FROM Game g WHERE g.state = :state ORDER BY g.code" )
+  Stream<ActiveGame> streamActiveGamesByState( final @Param( "state" ) GameState state );
+
+  @QueryHints( @QueryHint( name = HINT_FETCH_SIZE, value = "500" ) )
+  @Query( "SELECT new demo.games.model.GameDetails( g.code, g.player1, g.player2, g.outcome, g.state )"
+    + " FROM Game g WHERE g.state = :state ORDER BY g.code" )
+  Stream<GameDetails> streamGameDetailsByState( final @Param( "state" ) GameState state );
 }
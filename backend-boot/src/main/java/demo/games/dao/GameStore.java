@@ -0,0 +1,58 @@
+package demo.games.dao;
+
+import demo.games.model.ActiveGame;
+import demo.games.model.GameDetails;
+import demo.games.model.Hand;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Where the PvP games are kept.  The JPA store keeps the games in the database and is the default, the embedded store
+ * keeps them in a file next to the application and is enabled with {@code game.store=embedded}.
+ */
+public interface GameStore {
+
+  /**
+   * Returns {@code false}, without overwriting the other game, when the code is already taken
+   */
+  boolean insert( final Game game );
+
+  /**
+   * Inserts the games whose code is not yet taken and returns the codes of the inserted games.  Closed games are closed
+   * at the time these are inserted.
+   */
+  Set<String> insertAll( final List<Game> games );
+
+  /**
+   * Closes the game only when it is still active, and returns the closed game
+   */
+  Optional<Game> close( final String code, final Hand player2 );
+
+  Optional<Game> find( final String code );
+
+  /**
+   * Moves up to {@code limit} games closed before the given time to the archive, oldest first, and returns the number
+   * of games moved
+   */
+  int archiveClosed( final Instant before, final int limit );
+
+  List<ActiveGame> findActive();
+
+  long countActive();
+
+  List<GameDetails> findClosed();
+
+  /* Keyset pagination, the games with a code after the given one in the order of their code */
+  List<ActiveGame> findActiveAfter( final String after, final int limit );
+
+  List<GameDetails> findClosedAfter( final String after, final int limit );
+
+  /* The caller must close the returned streams */
+  Stream<ActiveGame> streamActive();
+
+  Stream<GameDetails> streamClosed();
+}
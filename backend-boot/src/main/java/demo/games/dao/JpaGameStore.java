@@ -0,0 +1,93 @@
+package demo.games.dao;
+
+import demo.games.model.ActiveGame;
+import demo.games.model.GameDetails;
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static demo.games.model.GameState.ACTIVE;
+import static demo.games.model.GameState.CLOSED;
+
+@Component
+@ConditionalOnProperty( name = "game.store", havingValue = "jpa", matchIfMissing = true )
+public class JpaGameStore implements GameStore {
+
+  private final GameRepository repository;
+
+  public JpaGameStore( final GameRepository repository ) {
+    this.repository = repository;
+  }
+
+  @Override
+  public boolean insert( final Game game ) {
+    return repository.insertGame( game.getCode(), game.getPlayer1().ordinal(), game.getState().ordinal() ) == 1;
+  }
+
+  @Override
+  public Set<String> insertAll( final List<Game> games ) {
+    return repository.insertGames( games );
+  }
+
+  @Override
+  public Optional<Game> close( final String code, final Hand player2 ) {
+    return repository.closeGame( code, player2.ordinal(),
+      PvpOutcome.of( Hand.ROCK, player2 ).ordinal(),
+      PvpOutcome.of( Hand.PAPER, player2 ).ordinal(),
+      PvpOutcome.of( Hand.SCISSORS, player2 ).ordinal() );
+  }
+
+  @Override
+  public Optional<Game> find( final String code ) {
+    return repository.findById( code )
+      .or( () -> repository.findArchivedById( code ) );
+  }
+
+  @Override
+  public int archiveClosed( final Instant before, final int limit ) {
+    return repository.archiveClosedGames( before, limit );
+  }
+
+  @Override
+  public List<ActiveGame> findActive() {
+    return repository.findActiveGamesByState( ACTIVE );
+  }
+
+  @Override
+  public long countActive() {
+    return repository.countByState( ACTIVE );
+  }
+
+  @Override
+  public List<GameDetails> findClosed() {
+    return repository.findGameDetailsByState( CLOSED );
+  }
+
+  @Override
+  public List<ActiveGame> findActiveAfter( final String after, final int limit ) {
+    return repository.findActiveGamesByStateAfter( ACTIVE, after, PageRequest.of( 0, limit ) );
+  }
+
+  @Override
+  public List<GameDetails> findClosedAfter( final String after, final int limit ) {
+    return repository.findGameDetailsByStateAfter( CLOSED, after, PageRequest.of( 0, limit ) );
+  }
+
+  @Override
+  public Stream<ActiveGame> streamActive() {
+    return repository.streamActiveGamesByState( ACTIVE );
+  }
+
+  @Override
+  public Stream<GameDetails> streamClosed() {
+    return repository.streamGameDetailsByState( CLOSED );
+  }
+}
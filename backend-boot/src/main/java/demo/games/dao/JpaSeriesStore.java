@@ -0,0 +1,51 @@
+package demo.games.dao;
+
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty( name = "game.store", havingValue = "jpa", matchIfMissing = true )
+public class JpaSeriesStore implements SeriesStore {
+
+  private final SeriesRepository repository;
+
+  public JpaSeriesStore( final SeriesRepository repository ) {
+    this.repository = repository;
+  }
+
+  @Override
+  public boolean insert( final Series series ) {
+    return repository.insertSeries( series.getCode(), series.getBestOf() ) == 1;
+  }
+
+  @Override
+  public Optional<Series> find( final String code ) {
+    return repository.findById( code );
+  }
+
+  /* The round is played and decided by the database, see SeriesRepository#playRound */
+  @Override
+  public Optional<Series> play( final String code, final int round, final int player, final Hand hand ) {
+    if ( round < 0 || round >= Series.MAX_ROUNDS ) {
+      return Optional.empty();
+    }
+
+    int wins1 = 0;
+    int wins2 = 0;
+    for ( final Hand other : Hand.values() ) {
+      final PvpOutcome outcome = player == 1 ? PvpOutcome.of( hand, other ) : PvpOutcome.of( other, hand );
+      if ( outcome == PvpOutcome.PLAYER_1_WIN ) {
+        wins1 |= 1 << ( other.ordinal() + 1 );
+      } else if ( outcome == PvpOutcome.PLAYER_2_WIN ) {
+        wins2 |= 1 << ( other.ordinal() + 1 );
+      }
+    }
+
+    final int shift = 2 * round;
+    return repository.playRound( code, round, player, shift, (long) ( hand.ordinal() + 1 ) << shift, wins1, wins2 );
+  }
+}
@@ -0,0 +1,49 @@
+package demo.games.dao;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty( name = "game.store", havingValue = "jpa", matchIfMissing = true )
+public class JpaTournamentStore implements TournamentStore {
+
+  private final TournamentRepository repository;
+
+  public JpaTournamentStore( final TournamentRepository repository ) {
+    this.repository = repository;
+  }
+
+  @Override
+  public boolean insert( final Tournament tournament ) {
+    return repository.insertTournament( tournament.getCode(), tournament.getFormat().ordinal(),
+      tournament.getEntrants(), tournament.getRounds() ) == 1;
+  }
+
+  @Override
+  public Optional<Tournament> find( final String code ) {
+    return repository.findById( code );
+  }
+
+  @Override
+  public void insertRound( final String code, final int round, final byte[] hands ) {
+    repository.insertRound( code, round, hands );
+  }
+
+  @Override
+  public List<byte[]> findRounds( final String code ) {
+    return repository.findRounds( code );
+  }
+
+  @Override
+  public void close( final String code, final int winner, final byte[] scores ) {
+    repository.closeTournament( code, winner, scores );
+  }
+
+  @Override
+  public Optional<byte[]> findScores( final String code ) {
+    return Optional.ofNullable( repository.findScores( code ) );
+  }
+}
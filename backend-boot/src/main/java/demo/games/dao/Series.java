@@ -0,0 +1,131 @@
+package demo.games.dao;
+
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
+
+/**
+ * A best-of-N series between two players.  The hands of every round are packed two bits per round into one number per
+ * player, and the score is kept as the rounds are decided, so playing a round only changes the bits of that round and
+ * the score, never the rounds played before.  Only the changed columns are updated.
+ */
+@Data
+@Entity
+@DynamicUpdate
+@Table( name = "series" )
+@Accessors( chain = true )
+public class Series {
+
+  /* Two bits per round fit this many rounds in a long, a series that is still undecided after these is closed */
+  public static final int MAX_ROUNDS = Long.SIZE / 2;
+
+  private static final int BITS_PER_ROUND = 2;
+  private static final long ROUND_MASK = 0b11;
+
+  @Id
+  private String code;
+
+  @Column( name = "best_of" )
+  private int bestOf;
+
+  /* Round r is at bit 2r, 0 while not played and the hand ordinal plus 1 once played */
+  @Column( name = "hands_1" )
+  private long hands1;
+
+  @Column( name = "hands_2" )
+  private long hands2;
+
+  /* The number of decided rounds, which is also the round being played */
+  private int round;
+
+  @Column( name = "wins_1" )
+  private int wins1;
+
+  @Column( name = "wins_2" )
+  private int wins2;
+
+  @Enumerated( EnumType.ORDINAL )
+  private GameState state;
+
+  @Enumerated( EnumType.ORDINAL )
+  private PvpOutcome outcome;
+
+  /* Set by the database when the series is inserted */
+  @Column( name = "created_at", insertable = false, updatable = false )
+  private Instant createdAt;
+
+  @Column( name = "closed_at" )
+  private Instant closedAt;
+
+  /**
+   * Returns the hand player 1 or 2 played in the given round, or {@code null} when the player did not play it yet
+   */
+  public Hand hand( final int player, final int round ) {
+    final int bits = bits( player == 1 ? hands1 : hands2, round );
+    return bits == 0 ? null : Hand.fromOrdinal( bits - 1 );
+  }
+
+  /**
+   * Plays the hand of player 1 or 2 in the given round, and returns {@code false} when the series is closed, the round
+   * is not the one being played or the player already played it.  The round is decided once both players played it,
+   * and the series is closed once one of the players won the majority of the best-of rounds.
+   */
+  public boolean play( final int round, final int player, final Hand hand, final Instant now ) {
+    if ( state != GameState.ACTIVE || round != this.round || hand( player, round ) != null ) {
+      return false;
+    }
+
+    final long bits = (long) ( hand.ordinal() + 1 ) << ( BITS_PER_ROUND * round );
+    if ( player == 1 ) {
+      hands1 |= bits;
+    } else {
+      hands2 |= bits;
+    }
+
+    final int player1 = bits( hands1, round );
+    final int player2 = bits( hands2, round );
+    if ( player1 != 0 && player2 != 0 ) {
+      decide( PvpOutcome.fromOrdinal( PvpOutcome.resolve( player1 - 1, player2 - 1 ) ), now );
+    }
+    return true;
+  }
+
+  private void decide( final PvpOutcome roundOutcome, final Instant now ) {
+    if ( roundOutcome == PvpOutcome.PLAYER_1_WIN ) {
+      wins1++;
+    } else if ( roundOutcome == PvpOutcome.PLAYER_2_WIN ) {
+      wins2++;
+    }
+    round++;
+
+    final int majority = bestOf / 2 + 1;
+    if ( wins1 >= majority ) {
+      close( PvpOutcome.PLAYER_1_WIN, now );
+    } else if ( wins2 >= majority ) {
+      close( PvpOutcome.PLAYER_2_WIN, now );
+    } else if ( round == MAX_ROUNDS ) {
+      close( wins1 > wins2 ? PvpOutcome.PLAYER_1_WIN : wins2 > wins1 ? PvpOutcome.PLAYER_2_WIN : PvpOutcome.DRAW, now );
+    }
+  }
+
+  private void close( final PvpOutcome outcome, final Instant now ) {
+    this.outcome = outcome;
+    this.state = GameState.CLOSED;
+    this.closedAt = now;
+  }
+
+  private static int bits( final long hands, final int round ) {
+    return (int) ( ( hands >>> ( BITS_PER_ROUND * round ) ) & ROUND_MASK );
+  }
+}
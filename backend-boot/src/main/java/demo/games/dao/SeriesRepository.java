@@ -0,0 +1,62 @@
+package demo.games.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface SeriesRepository extends JpaRepository<Series, String> {
+
+  /**
+   * Creates the series with a single INSERT, and returns 0 when the code is already taken.  The other columns start
+   * with their defaults: no rounds played, and active.
+   */
+  @Modifying
+  @Transactional
+  @Query( value = "INSERT INTO series (code, best_of) VALUES (:code, :bestOf) ON CONFLICT DO NOTHING",
+    nativeQuery = true )
+  int insertSeries( final @Param( "code" ) String code, final @Param( "bestOf" ) int bestOf );
+
+  /* The bits of the round the other player played, 0 while not played */
+  String OTHER_HAND = "CAST((CASE :player WHEN 1 THEN hands_2 ELSE hands_1 END >> :shift) & 3 AS INTEGER)";
+  String WINS_1 = "(wins_1 + ((:wins1 >> " + OTHER_HAND + ") & 1))";
+  String WINS_2 = "(wins_2 + ((:wins2 >> " + OTHER_HAND + ") & 1))";
+  String ROUND = "(round + LEAST(" + OTHER_HAND + ", 1))";
+  String MAJORITY = "(best_of / 2 + 1)";
+  String CLOSES = WINS_1 + " >= " + MAJORITY + " OR " + WINS_2 + " >= " + MAJORITY
+    + " OR " + ROUND + " = " + Series.MAX_ROUNDS;
+
+  /**
+   * Plays the hand of player 1 or 2 with a single UPDATE, which does what {@link Series#play} does, and returns nothing
+   * when the series is closed, the round is not the one being played or the player already played it.  The hand is
+   * given as its bits at {@code shift}.  Bit {@code b} of {@code wins1} and {@code wins2} is set when player 1 or 2
+   * wins the round against the other player's bits {@code b}, so bit 0 is never set.  The outcomes are given as the
+   * ordinal of {@link demo.games.model.PvpOutcome} and the states are {@code 0} (active) and {@code 1} (closed).
+   * <p>
+   * The hands of the same round wait for the row lock, after which the UPDATE is evaluated again against the row with
+   * the hand played before, so the round is decided by whichever hand comes second.
+   */
+  @Transactional
+  @Query( value = "UPDATE series SET"
+    + " hands_1 = CASE :player WHEN 1 THEN hands_1 | :bits ELSE hands_1 END,"
+    + " hands_2 = CASE :player WHEN 1 THEN hands_2 ELSE hands_2 | :bits END,"
+    + " wins_1 = " + WINS_1 + ", wins_2 = " + WINS_2 + ", round = " + ROUND + ","
+    + " state = CASE WHEN " + CLOSES + " THEN 1 ELSE 0 END,"
+    + " outcome = CASE WHEN " + WINS_1 + " >= " + MAJORITY + " THEN 0"
+    + " WHEN " + WINS_2 + " >= " + MAJORITY + " THEN 1"
+    + " WHEN " + ROUND + " = " + Series.MAX_ROUNDS
+    + " THEN CASE WHEN " + WINS_1 + " > " + WINS_2 + " THEN 0 WHEN " + WINS_2 + " > " + WINS_1 + " THEN 1 ELSE 2 END"
+    + " END,"
+    + " closed_at = CASE WHEN " + CLOSES + " THEN now() END"
+    + " WHERE code = :code AND state = 0 AND round = :round"
+    + " AND (CASE :player WHEN 1 THEN hands_1 ELSE hands_2 END >> :shift) & 3 = 0"
+    + " RETURNING *", nativeQuery = true )
+  Optional<Series> playRound( final @Param( "code" ) String code, final @Param( "round" ) int round,
+    final @Param( "player" ) int player, final @Param( "shift" ) int shift, final @Param( "bits" ) long bits,
+    final @Param( "wins1" ) int wins1, final @Param( "wins2" ) int wins2 );
+}
@@ -0,0 +1,25 @@
+package demo.games.dao;
+
+import demo.games.model.Hand;
+
+import java.util.Optional;
+
+/**
+ * Where the best-of-N series are kept, next to the games of the {@link GameStore}
+ */
+public interface SeriesStore {
+
+  /**
+   * Returns {@code false}, without overwriting the other series, when the code is already taken
+   */
+  boolean insert( final Series series );
+
+  Optional<Series> find( final String code );
+
+  /**
+   * Plays the hand of player 1 or 2 in the given round, and returns the series once the hand is played.  Returns
+   * nothing when there is no such series, or when the hand could not be played (see {@link Series#play}).  The two
+   * players of the same round are played one after the other.
+   */
+  Optional<Series> play( final String code, final int round, final int player, final Hand hand );
+}
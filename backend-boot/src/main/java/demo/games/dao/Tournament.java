@@ -0,0 +1,38 @@
+package demo.games.dao;
+
+import demo.games.model.TournamentFormat;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/* The rounds are kept in the tournament_rounds table, one row per decided round */
+@Data
+@Entity
+@Table( name = "tournaments" )
+@Accessors( chain = true )
+public class Tournament {
+
+  @Id
+  private String code;
+
+  @Enumerated( EnumType.ORDINAL )
+  private TournamentFormat format;
+
+  private int entrants;
+
+  private int rounds;
+
+  /* The seed of the winner, null until the tournament is closed.  The final scores are only read when asked for. */
+  private Integer winner;
+
+  /* Set by the database when the tournament is inserted */
+  @Column( name = "created_at", insertable = false, updatable = false )
+  private Instant createdAt;
+}
@@ -0,0 +1,48 @@
+package demo.games.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface TournamentRepository extends JpaRepository<Tournament, String> {
+
+  /**
+   * Creates the tournament with a single INSERT, and returns 0 when the code is already taken.  The format is given as
+   * the ordinal of its enum.
+   */
+  @Modifying
+  @Transactional
+  @Query( value = "INSERT INTO tournaments (code, format, entrants, rounds) VALUES (:code, :format, :entrants, :rounds)"
+    + " ON CONFLICT DO NOTHING", nativeQuery = true )
+  int insertTournament( final @Param( "code" ) String code, final @Param( "format" ) int format,
+    final @Param( "entrants" ) int entrants, final @Param( "rounds" ) int rounds );
+
+  /* The whole round is written as one row, however many entrants played it */
+  @Modifying
+  @Transactional
+  @Query( value = "INSERT INTO tournament_rounds (code, round, hands) VALUES (:code, :round, :hands)",
+    nativeQuery = true )
+  int insertRound( final @Param( "code" ) String code, final @Param( "round" ) int round,
+    final @Param( "hands" ) byte[] hands );
+
+  @Query( value = "SELECT hands FROM tournament_rounds WHERE code = :code ORDER BY round", nativeQuery = true )
+  List<byte[]> findRounds( final @Param( "code" ) String code );
+
+  /* Only the first close counts, so a tournament closed again after a restart keeps its results */
+  @Modifying
+  @Transactional
+  @Query( value = "UPDATE tournaments SET winner = :winner, scores = :scores WHERE code = :code AND winner IS NULL",
+    nativeQuery = true )
+  int closeTournament( final @Param( "code" ) String code, final @Param( "winner" ) int winner,
+    final @Param( "scores" ) byte[] scores );
+
+  /* Null when there is no such tournament or it is not closed yet */
+  @Query( value = "SELECT scores FROM tournaments WHERE code = :code", nativeQuery = true )
+  byte[] findScores( final @Param( "code" ) String code );
+}
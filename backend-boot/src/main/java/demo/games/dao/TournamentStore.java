@@ -0,0 +1,37 @@
+package demo.games.dao;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where the tournaments and their decided rounds are kept, next to the games of the {@link GameStore}
+ */
+public interface TournamentStore {
+
+  /**
+   * Returns {@code false}, without overwriting the other tournament, when the code is already taken
+   */
+  boolean insert( final Tournament tournament );
+
+  Optional<Tournament> find( final String code );
+
+  /**
+   * Writes the hands of all entrants in the given round at once, one byte per entrant in seed order
+   */
+  void insertRound( final String code, final int round, final byte[] hands );
+
+  /**
+   * Returns the hands of the decided rounds, in the order these were played
+   */
+  List<byte[]> findRounds( final String code );
+
+  /**
+   * Records the winner and the final scores, one unsigned byte per entrant in seed order, once the last round is decided
+   */
+  void close( final String code, final int winner, final byte[] scores );
+
+  /**
+   * Returns the final scores of a closed tournament
+   */
+  Optional<byte[]> findScores( final String code );
+}
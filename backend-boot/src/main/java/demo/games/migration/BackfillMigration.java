@@ -0,0 +1,104 @@
+package demo.games.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Base for Java migrations that fill in columns of existing rows.  The pending rows are updated in chunks, in the order
+ * of their key, each chunk with one set-based UPDATE that is committed on its own, so a large table is never held in a
+ * single transaction and the database never sends a row to the application.
+ * <p>
+ * Only rows that match the pending condition are updated.  When the migration fails part way, repair it with Flyway and
+ * run it again: the rows already updated no longer match the pending condition and are skipped.
+ */
+@Slf4j
+public abstract class BackfillMigration extends BaseJavaMigration {
+
+  private final String table;
+  private final String key;
+  private final String assignments;
+  private final String pending;
+  private final int chunkSize;
+
+  /**
+   * @param assignments the SET clause of the UPDATE, without the {@code SET}
+   * @param pending     the condition matching the rows that still need to be updated
+   */
+  protected BackfillMigration( final String table, final String key, final String assignments, final String pending,
+    final int chunkSize ) {
+    this.table = table;
+    this.key = key;
+    this.assignments = assignments;
+    this.pending = pending;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Runs before the rows are updated, for example to add the column being filled.  Runs again when the migration is
+   * resumed, so the statements must be safe to repeat.
+   */
+  protected void prepare( final Statement statement ) throws SQLException {
+  }
+
+  /* Every chunk is committed on its own */
+  @Override
+  public boolean canExecuteInTransaction() {
+    return false;
+  }
+
+  @Override
+  public void migrate( final Context context ) throws Exception {
+    final Connection connection = context.getConnection();
+    try ( final Statement statement = connection.createStatement() ) {
+      prepare( statement );
+    }
+
+    final long total = countPending( connection );
+    log.info( "{}: {} rows to update in chunks of {}", getDescription(), total, chunkSize );
+
+    /* The key of the last row updated, so every chunk continues from where the previous one stopped */
+    String after = "";
+    long updated = 0;
+    try ( final PreparedStatement update = connection.prepareStatement( updateChunk() ) ) {
+      while ( true ) {
+        update.setString( 1, after );
+        try ( final ResultSet chunk = update.executeQuery() ) {
+          chunk.next();
+          final long rows = chunk.getLong( 1 );
+          if ( rows == 0 ) {
+            break;
+          }
+
+          after = chunk.getString( 2 );
+          updated += rows;
+        }
+
+        log.info( "{}: updated {} of {} rows", getDescription(), updated, total );
+      }
+    }
+  }
+
+  private long countPending( final Connection connection ) throws SQLException {
+    try ( final Statement statement = connection.createStatement();
+      final ResultSet count = statement.executeQuery( String.format( "SELECT count(*) FROM %s WHERE %s", table, pending ) ) ) {
+      count.next();
+      return count.getLong( 1 );
+    }
+  }
+
+  /* The largest key is taken by the database, so that it follows the same ordering as the key condition */
+  private String updateChunk() {
+    return String.format( "WITH updated AS ("
+      + " UPDATE %1$s SET %2$s"
+      + " WHERE %3$s IN (SELECT %3$s FROM %1$s WHERE (%4$s) AND %3$s > ? ORDER BY %3$s LIMIT %5$d)"
+      + " RETURNING %3$s"
+      + ") SELECT count(*), max(%3$s) FROM updated", table, assignments, key, pending, chunkSize );
+  }
+}
@@ -0,0 +1,6 @@
+package demo.games.model;
+
+public enum BatchStrategy {
+  RANDOM,
+  CYCLE;
+}
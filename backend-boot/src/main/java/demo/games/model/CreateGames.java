@@ -0,0 +1,17 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One game is created for every hand played by player 1
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateGames {
+  private List<Hand> player1;
+}
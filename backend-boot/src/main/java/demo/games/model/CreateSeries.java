@@ -0,0 +1,12 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateSeries {
+  private int bestOf;
+}
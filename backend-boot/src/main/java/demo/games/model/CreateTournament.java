@@ -0,0 +1,16 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* The entrants are numbered by their seed, starting from 0 for the highest seed */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateTournament {
+  private TournamentFormat format;
+  private int entrants;
+  /* Swiss only, 0 plays as many rounds as single elimination would */
+  private int rounds;
+}
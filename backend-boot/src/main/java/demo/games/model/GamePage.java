@@ -0,0 +1,19 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of games ordered by code.  The next page is fetched by passing {@code next} as the {@code after} code,
+ * and {@code next} is {@code null} once the last page is reached.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GamePage<T> {
+  private List<T> games;
+  private String next;
+}
@@ -5,8 +5,21 @@ public enum Hand {
   PAPER,
   SCISSORS;
 
+  /* Hand.values() returns a new copy on every call */
+  private static final Hand[] VALUES = values();
+  private static final Hand[] BEATEN_BY = new Hand[VALUES.length];
+
+  static {
+    for ( final Hand hand : VALUES ) {
+      BEATEN_BY[hand.ordinal()] = VALUES[( hand.ordinal() + 1 ) % VALUES.length];
+    }
+  }
+
   public Hand beatenBy() {
-    final Hand[] hands = Hand.values();
-    return hands[( ordinal() + 1 ) % hands.length];
+    return BEATEN_BY[ordinal()];
+  }
+
+  public static Hand fromOrdinal( final int ordinal ) {
+    return VALUES[ordinal];
   }
 }
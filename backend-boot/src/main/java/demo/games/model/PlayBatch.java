@@ -0,0 +1,19 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Either the list of hands to play, or the number of rounds and the strategy used to pick the player hands
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayBatch {
+  private List<Hand> hands;
+  private int rounds;
+  private BatchStrategy strategy;
+}
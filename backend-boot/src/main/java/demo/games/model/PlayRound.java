@@ -0,0 +1,14 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* Only one of the players plays at a time */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayRound {
+  private Hand player1;
+  private Hand player2;
+}
@@ -0,0 +1,15 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/* The hands by the seed of the entrant playing these */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayTournamentRound {
+  private Map<Integer, Hand> hands;
+}
@@ -0,0 +1,19 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PvcBatchResult {
+  private List<Hand> computer;
+  private List<Hand> player;
+  private List<PvcOutcome> outcomes;
+  private int playerWins;
+  private int computerWins;
+  private int draws;
+}
@@ -5,9 +5,51 @@ public enum PvcOutcome {
   COMPUTER_WIN,
   DRAW;
 
+  private static final PvcOutcome[] VALUES = values();
+  private static final int HANDS = Hand.values().length;
+
+  /* Outcome ordinals indexed by the computer hand ordinal times the number of hands plus the player hand ordinal */
+  private static final byte[] TABLE = new byte[HANDS * HANDS];
+
+  static {
+    for ( final Hand computer : Hand.values() ) {
+      for ( final Hand player : Hand.values() ) {
+        final PvcOutcome outcome = computer == player ? DRAW :
+          computer.beatenBy() == player ? PLAYER_WIN :
+            COMPUTER_WIN;
+        TABLE[computer.ordinal() * HANDS + player.ordinal()] = (byte) outcome.ordinal();
+      }
+    }
+  }
+
   public static PvcOutcome of( final Hand computer, final Hand player ) {
-    return computer == player ? PvcOutcome.DRAW :
-      computer.beatenBy() == player ? PvcOutcome.PLAYER_WIN :
-        PvcOutcome.COMPUTER_WIN;
+    return VALUES[TABLE[computer.ordinal() * HANDS + player.ordinal()]];
+  }
+
+  public static PvcOutcome fromOrdinal( final int ordinal ) {
+    return VALUES[ordinal];
+  }
+
+  /**
+   * Resolves a single round using the hand ordinals and returns the outcome ordinal
+   */
+  public static byte resolve( final int computer, final int player ) {
+    return TABLE[computer * HANDS + player];
+  }
+
+  /**
+   * Resolves all rounds in one pass, writing the outcome ordinal of round {@code i} into {@code outcomes[i]}.  Nothing
+   * is allocated, which makes this suitable for simulations and replays of many rounds.
+   */
+  public static void resolve( final byte[] computer, final byte[] player, final byte[] outcomes ) {
+    if ( computer.length != player.length || outcomes.length < computer.length ) {
+      throw new IllegalArgumentException(
+        String.format( "Cannot resolve %d computer hands against %d player hands into %d outcomes",
+          computer.length, player.length, outcomes.length ) );
+    }
+
+    for ( int i = 0; i < computer.length; i++ ) {
+      outcomes[i] = TABLE[computer[i] * HANDS + player[i]];
+    }
   }
 }
@@ -5,9 +5,51 @@ public enum PvpOutcome {
   PLAYER_2_WIN,
   DRAW;
 
+  private static final PvpOutcome[] VALUES = values();
+  private static final int HANDS = Hand.values().length;
+
+  /* Outcome ordinals indexed by the player 1 hand ordinal times the number of hands plus the player 2 hand ordinal */
+  private static final byte[] TABLE = new byte[HANDS * HANDS];
+
+  static {
+    for ( final Hand player1 : Hand.values() ) {
+      for ( final Hand player2 : Hand.values() ) {
+        final PvpOutcome outcome = player1 == player2 ? DRAW :
+          player1.beatenBy() == player2 ? PLAYER_2_WIN :
+            PLAYER_1_WIN;
+        TABLE[player1.ordinal() * HANDS + player2.ordinal()] = (byte) outcome.ordinal();
+      }
+    }
+  }
+
   public static PvpOutcome of( final Hand player1, final Hand player2 ) {
-    return player1 == player2 ? PvpOutcome.DRAW :
-      player1.beatenBy() == player2 ? PvpOutcome.PLAYER_2_WIN :
-        PvpOutcome.PLAYER_1_WIN;
+    return VALUES[TABLE[player1.ordinal() * HANDS + player2.ordinal()]];
+  }
+
+  public static PvpOutcome fromOrdinal( final int ordinal ) {
+    return VALUES[ordinal];
+  }
+
+  /**
+   * Resolves a single round using the hand ordinals and returns the outcome ordinal
+   */
+  public static byte resolve( final int player1, final int player2 ) {
+    return TABLE[player1 * HANDS + player2];
+  }
+
+  /**
+   * Resolves all rounds in one pass, writing the outcome ordinal of round {@code i} into {@code outcomes[i]}.  Nothing
+   * is allocated, which makes this suitable for simulations and replays of many rounds.
+   */
+  public static void resolve( final byte[] player1, final byte[] player2, final byte[] outcomes ) {
+    if ( player1.length != player2.length || outcomes.length < player1.length ) {
+      throw new IllegalArgumentException(
+        String.format( "Cannot resolve %d player 1 hands against %d player 2 hands into %d outcomes",
+          player1.length, player2.length, outcomes.length ) );
+    }
+
+    for ( int i = 0; i < player1.length; i++ ) {
+      outcomes[i] = TABLE[player1[i] * HANDS + player2[i]];
+    }
   }
 }
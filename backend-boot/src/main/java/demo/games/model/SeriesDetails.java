@@ -0,0 +1,25 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/* The hands of the decided rounds only, the hand already played in the current round is not shown to the other player */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors( chain = true )
+public class SeriesDetails {
+  private String code;
+  private int bestOf;
+  private int round;
+  private int player1Wins;
+  private int player2Wins;
+  private List<Hand> player1;
+  private List<Hand> player2;
+  private PvpOutcome outcome;
+  private GameState state;
+}
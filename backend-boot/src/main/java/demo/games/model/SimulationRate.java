@@ -0,0 +1,16 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* How many rounds ended this way, and their share of all rounds with its 95% confidence interval */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationRate {
+  private long count;
+  private double rate;
+  private double low;
+  private double high;
+}
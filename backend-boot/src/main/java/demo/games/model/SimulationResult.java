@@ -0,0 +1,23 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors( chain = true )
+public class SimulationResult {
+  private long matches;
+  /* Per match */
+  private int rounds;
+  /* Simulating again with the same seed gives the same rates */
+  private long seed;
+  private long millis;
+  /* The rounds won by the first strategy, by the second one, and drawn */
+  private SimulationRate strategy1;
+  private SimulationRate strategy2;
+  private SimulationRate draws;
+}
@@ -0,0 +1,22 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors( chain = true )
+public class TournamentDetails {
+  private String code;
+  private TournamentFormat format;
+  private int entrants;
+  private int rounds;
+  /* The round being played, or the number of rounds once closed */
+  private int round;
+  private GameState state;
+  /* The seed of the winner, once closed */
+  private Integer winner;
+}
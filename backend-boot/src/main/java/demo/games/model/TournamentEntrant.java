@@ -0,0 +1,19 @@
+package demo.games.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The score is the number of rounds won in single elimination (an entrant is still in when it won every round so far),
+ * and the points in Swiss (2 for a win or a bye, 1 for a draw).  The opponent is the seed of the entrant played in the
+ * current round, and {@code null} for a bye or an entrant that is out.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TournamentEntrant {
+  private int seed;
+  private int score;
+  private Integer opponent;
+}
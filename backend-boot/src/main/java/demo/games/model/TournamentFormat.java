@@ -0,0 +1,7 @@
+package demo.games.model;
+
+/* Stored as the ordinal, so new constants may only be added at the end */
+public enum TournamentFormat {
+  SINGLE_ELIMINATION,
+  SWISS
+}
@@ -1,33 +1,72 @@
 package demo.games.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import demo.games.model.ActiveGame;
 import demo.games.model.AllGames;
 import demo.games.model.CreateGame;
+import demo.games.model.CreateGames;
+import demo.games.model.CreateSeries;
+import demo.games.model.FindMatch;
 import demo.games.model.GameDetails;
+import demo.games.model.GamePage;
+import demo.games.model.GameState;
 import demo.games.model.Hand;
+import demo.games.model.PlayBatch;
 import demo.games.model.PlayGame;
+import demo.games.model.PlayRound;
+import demo.games.model.PvcBatchResult;
 import demo.games.model.PvcGameResult;
 import demo.games.model.RandomHand;
+import demo.games.model.SeriesDetails;
+import demo.games.service.ComputerOpponent;
+import demo.games.service.GameClosedNotifier;
 import demo.games.service.GameService;
+import demo.games.service.MatchmakingService;
+import demo.games.service.SeriesService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 public class GameController {
 
+  public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
   private final GameService service;
+  private final MatchmakingService matchmaking;
+  private final SeriesService series;
+  private final GameClosedNotifier notifier;
+  private final ObjectMapper mapper;
+  private final long eventsTimeout;
 
-  public GameController( final GameService service ) {
+  public GameController( final GameService service, final MatchmakingService matchmaking,
+    final SeriesService series, final GameClosedNotifier notifier, final ObjectMapper mapper,
+    final @Value( "${game.events.timeout:300000}" ) long eventsTimeout ) {
     this.service = service;
+    this.matchmaking = matchmaking;
+    this.series = series;
+    this.notifier = notifier;
+    this.mapper = mapper;
+    this.eventsTimeout = eventsTimeout;
   }
 
   @GetMapping( "/randomHand" )
@@ -36,9 +75,31 @@ public class GameController {
     return new RandomHand( hand );
   }
 
+  /* Players that give their id play against a computer that learns their habits */
   @GetMapping( "/pvc/{player}" )
-  public PvcGameResult playAgainstComputer( final @PathVariable( "player" ) Hand player ) {
-    return service.playAgainstComputer( player );
+  public ResponseEntity<PvcGameResult> playAgainstComputer( final @PathVariable( "player" ) Hand player,
+    final @RequestParam( name = "playerId", required = false ) String playerId ) {
+    if ( playerId == null ) {
+      return ResponseEntity.ok( service.playAgainstComputer( player ) );
+    }
+
+    return ComputerOpponent.isValidPlayer( playerId )
+      ? ResponseEntity.ok( service.playAgainstComputer( player, playerId ) )
+      : ResponseEntity.badRequest().build();
+  }
+
+  @PostMapping( "/pvc/batch" )
+  public ResponseEntity<PvcBatchResult> playBatchAgainstComputer( final @RequestBody PlayBatch batch ) {
+    final List<Hand> hands = batch.getHands();
+    if ( hands != null && !hands.isEmpty() ) {
+      return isValidBatchSize( hands.size() ) && !hands.contains( null )
+        ? ResponseEntity.ok( service.playBatchAgainstComputer( hands ) )
+        : ResponseEntity.badRequest().build();
+    }
+
+    return isValidBatchSize( batch.getRounds() ) && batch.getStrategy() != null
+      ? ResponseEntity.ok( service.playBatchAgainstComputer( batch.getRounds(), batch.getStrategy() ) )
+      : ResponseEntity.badRequest().build();
   }
 
   @PostMapping( "/pvp" )
@@ -48,6 +109,31 @@ public class GameController {
     return ResponseEntity.created( uri ).body( response );
   }
 
+  @PostMapping( "/pvp/bulk" )
+  public ResponseEntity<List<ActiveGame>> createPvpGames( final @RequestBody CreateGames games ) {
+    final List<Hand> hands = games.getPlayer1();
+    return hands != null && isValidBatchSize( hands.size() ) && !hands.contains( null )
+      ? ResponseEntity.ok( service.createPvpGames( hands ) )
+      : ResponseEntity.badRequest().build();
+  }
+
+  /**
+   * Pairs the player with the next (or the waiting) player, and answers with the closed game.  Answers with 408 when no
+   * other player arrived in time, and with 503 when the game could not be stored.
+   */
+  @PostMapping( "/pvp/match" )
+  public CompletableFuture<ResponseEntity<GameDetails>> matchPvpGame( final @RequestBody FindMatch match ) {
+    if ( match.getPlayer() == null ) {
+      return CompletableFuture.completedFuture( ResponseEntity.badRequest().build() );
+    }
+
+    return matchmaking.match( match.getPlayer() )
+      .thenApply( game -> game
+        .map( ResponseEntity::ok )
+        .orElseGet( () -> ResponseEntity.status( HttpStatus.REQUEST_TIMEOUT ).build() ) )
+      .exceptionally( e -> ResponseEntity.status( HttpStatus.SERVICE_UNAVAILABLE ).build() );
+  }
+
   @PutMapping( "/pvp/{code}" )
   public ResponseEntity<GameDetails> playAgainstPlayer( final @PathVariable( "code" ) String code,
     final @RequestBody PlayGame game ) {
@@ -63,6 +149,71 @@ public class GameController {
       .orElse( ResponseEntity.notFound().build() );
   }
 
+  /* Pushes the game details once the game is closed, without holding a request thread while waiting */
+  @GetMapping( value = "/pvp/{code}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE )
+  public ResponseEntity<SseEmitter> pvpGameEvents( final @PathVariable( "code" ) String code ) {
+    /* Wait before looking up the game, so that a game closed in between is not missed */
+    final CompletableFuture<GameDetails> closed = notifier.await( code );
+
+    final Optional<GameDetails> game = service.findPvpGame( code );
+    if ( game.isEmpty() ) {
+      closed.cancel( false );
+      return ResponseEntity.notFound().build();
+    }
+
+    final SseEmitter emitter = new SseEmitter( eventsTimeout );
+    emitter.onCompletion( () -> closed.cancel( false ) );
+    emitter.onTimeout( () -> closed.cancel( false ) );
+    emitter.onError( e -> closed.cancel( false ) );
+    closed.thenAccept( details -> sendClosed( emitter, details ) );
+
+    game.filter( details -> details.getState() == GameState.CLOSED )
+      .ifPresent( closed::complete );
+
+    return ResponseEntity.ok()
+      .contentType( MediaType.TEXT_EVENT_STREAM )
+      .body( emitter );
+  }
+
+  @PostMapping( "/pvp/series" )
+  public ResponseEntity<SeriesDetails> createPvpSeries( final @RequestBody CreateSeries create )
+    throws URISyntaxException {
+    if ( !SeriesService.isValidBestOf( create.getBestOf() ) ) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    final SeriesDetails response = series.createSeries( create.getBestOf() );
+    final URI uri = new URI( String.format( "/pvp/series/%s", response.getCode() ) );
+    return ResponseEntity.created( uri ).body( response );
+  }
+
+  /**
+   * Plays the hand of one of the players in the given round.  Answers with 409, and the series as it is, when the round
+   * is not the one being played, the player already played it or the series is closed.
+   */
+  @PutMapping( "/pvp/series/{code}/rounds/{round}" )
+  public ResponseEntity<SeriesDetails> playPvpSeriesRound( final @PathVariable( "code" ) String code,
+    final @PathVariable( "round" ) int round, final @RequestBody PlayRound play ) {
+    if ( ( play.getPlayer1() == null ) == ( play.getPlayer2() == null ) ) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    final int player = play.getPlayer1() != null ? 1 : 2;
+    final Hand hand = play.getPlayer1() != null ? play.getPlayer1() : play.getPlayer2();
+    return series.playRound( code, round, player, hand )
+      .map( ResponseEntity::ok )
+      .orElseGet( () -> series.findSeries( code )
+        .map( current -> ResponseEntity.status( HttpStatus.CONFLICT ).body( current ) )
+        .orElse( ResponseEntity.notFound().build() ) );
+  }
+
+  @GetMapping( "/pvp/series/{code}" )
+  public ResponseEntity<SeriesDetails> findPvpSeries( final @PathVariable( "code" ) String code ) {
+    return series.findSeries( code )
+      .map( ResponseEntity::ok )
+      .orElse( ResponseEntity.notFound().build() );
+  }
+
   @GetMapping( "/pvp/list/all" )
   public AllGames listAllPvpGames() {
     return new AllGames( service.listActivePvpGames(), service.listClosedPvpGames() );
@@ -72,4 +223,56 @@ public class GameController {
   public List<ActiveGame> listActivePvpGames() {
     return service.listActivePvpGames();
   }
+
+  @GetMapping( "/pvp/page/active" )
+  public GamePage<ActiveGame> pageActivePvpGames(
+    final @RequestParam( name = "after", defaultValue = "" ) String after,
+    final @RequestParam( name = "limit", defaultValue = "100" ) int limit ) {
+    return service.pageActivePvpGames( after, limit );
+  }
+
+  @GetMapping( "/pvp/page/closed" )
+  public GamePage<GameDetails> pageClosedPvpGames(
+    final @RequestParam( name = "after", defaultValue = "" ) String after,
+    final @RequestParam( name = "limit", defaultValue = "100" ) int limit ) {
+    return service.pageClosedPvpGames( after, limit );
+  }
+
+  @GetMapping( value = "/pvp/stream/active", produces = APPLICATION_NDJSON )
+  public ResponseEntity<StreamingResponseBody> streamActivePvpGames() {
+    return ndjson( out -> service.streamActivePvpGames( game -> writeLine( out, game ) ) );
+  }
+
+  @GetMapping( value = "/pvp/stream/closed", produces = APPLICATION_NDJSON )
+  public ResponseEntity<StreamingResponseBody> streamClosedPvpGames() {
+    return ndjson( out -> service.streamClosedPvpGames( game -> writeLine( out, game ) ) );
+  }
+
+  private static ResponseEntity<StreamingResponseBody> ndjson( final StreamingResponseBody body ) {
+    return ResponseEntity.ok()
+      .contentType( MediaType.parseMediaType( APPLICATION_NDJSON ) )
+      .body( body );
+  }
+
+  private void writeLine( final OutputStream out, final Object value ) {
+    try {
+      out.write( mapper.writeValueAsBytes( value ) );
+      out.write( '\n' );
+    } catch ( final IOException e ) {
+      throw new UncheckedIOException( e );
+    }
+  }
+
+  private static void sendClosed( final SseEmitter emitter, final GameDetails details ) {
+    try {
+      emitter.send( SseEmitter.event().name( "closed" ).data( details, MediaType.APPLICATION_JSON ) );
+      emitter.complete();
+    } catch ( final IOException e ) {
+      emitter.completeWithError( e );
+    }
+  }
+
+  private static boolean isValidBatchSize( final int rounds ) {
+    return rounds > 0 && rounds <= GameService.MAX_BATCH_SIZE;
+  }
 }
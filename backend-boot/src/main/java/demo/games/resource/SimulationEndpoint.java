@@ -0,0 +1,65 @@
+package demo.games.resource;
+
+import demo.games.model.SimulationResult;
+import demo.games.service.ComputerStrategy;
+import demo.games.service.ComputerStrategyType;
+import demo.games.service.SimulationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static demo.games.service.ComputerStrategyType.DEFAULT_ORDER;
+import static demo.games.service.ComputerStrategyType.DEFAULT_RANDOM_PERCENT;
+
+/**
+ * Simulates matches between two computer strategies with a POST to /actuator/simulation, for example
+ * {@code {"strategy1": "markov", "strategy2": "frequency", "matches": 10000, "rounds": 1000}}.  The endpoint is off
+ * unless management.endpoint.simulation.enabled is set, as a large simulation keeps every core busy until it is done.
+ * The request waits for the result, so the rounds in all are capped by game.simulation.max-total-rounds, far below
+ * what the command line simulation allows.
+ */
+@Component
+@Endpoint( id = "simulation", enableByDefault = false )
+public class SimulationEndpoint {
+
+  private final SimulationService service;
+  private final long maxTotalRounds;
+
+  public SimulationEndpoint( final SimulationService service,
+    final @Value( "${game.simulation.max-total-rounds:100000000}" ) long maxTotalRounds ) {
+    this.service = service;
+    this.maxTotalRounds = maxTotalRounds;
+  }
+
+  /* The order and random percent apply to both strategies, and a random seed is picked when none is given */
+  @WriteOperation
+  public SimulationResult simulate( final ComputerStrategyType strategy1, final ComputerStrategyType strategy2,
+    final long matches, final int rounds, final @Nullable Integer order, final @Nullable Integer randomPercent,
+    final @Nullable Long seed ) {
+    if ( !SimulationService.isValid( matches, rounds, maxTotalRounds ) ) {
+      throw new InvalidEndpointRequestException(
+        String.format( "Cannot simulate %d matches of %d rounds", matches, rounds ),
+        String.format( "At least 2 matches, of 1 to %d rounds and %d rounds in all",
+          SimulationService.MAX_ROUNDS, Math.min( maxTotalRounds, SimulationService.MAX_TOTAL_ROUNDS ) ) );
+    }
+
+    final int k = order == null ? DEFAULT_ORDER : order;
+    final int percent = randomPercent == null ? DEFAULT_RANDOM_PERCENT : randomPercent;
+    final ComputerStrategy first;
+    final ComputerStrategy second;
+    try {
+      first = strategy1.create( k, percent );
+      second = strategy2.create( k, percent );
+    } catch ( final IllegalArgumentException e ) {
+      throw new InvalidEndpointRequestException( e.getMessage(), e.getMessage() );
+    }
+
+    return service.simulate( first, second, matches, rounds,
+      seed == null ? ThreadLocalRandom.current().nextLong() : seed );
+  }
+}
@@ -0,0 +1,116 @@
+package demo.games.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import demo.games.model.CreateTournament;
+import demo.games.model.PlayTournamentRound;
+import demo.games.model.TournamentDetails;
+import demo.games.service.TournamentService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static demo.games.resource.GameController.APPLICATION_NDJSON;
+
+/**
+ * Brackets for many entrants, where the entrants play their hands and the round is then resolved for all pairings at
+ * once.  The entrants are numbered by their seed.
+ */
+@RestController
+public class TournamentController {
+
+  private final TournamentService service;
+  private final ObjectMapper mapper;
+
+  public TournamentController( final TournamentService service, final ObjectMapper mapper ) {
+    this.service = service;
+    this.mapper = mapper;
+  }
+
+  /* Answers with 503 when there is no room in memory for the entrants until other tournaments close */
+  @PostMapping( "/pvp/tournaments" )
+  public ResponseEntity<TournamentDetails> createTournament( final @RequestBody CreateTournament create )
+    throws URISyntaxException {
+    if ( !TournamentService.isValid( create.getFormat(), create.getEntrants(), create.getRounds() ) ) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    final TournamentDetails response;
+    try {
+      response = service.createTournament( create.getFormat(), create.getEntrants(), create.getRounds() );
+    } catch ( final RejectedExecutionException e ) {
+      return ResponseEntity.status( HttpStatus.SERVICE_UNAVAILABLE ).build();
+    }
+
+    final URI uri = new URI( String.format( "/pvp/tournaments/%s", response.getCode() ) );
+    return ResponseEntity.created( uri ).body( response );
+  }
+
+  @GetMapping( "/pvp/tournaments/{code}" )
+  public ResponseEntity<TournamentDetails> findTournament( final @PathVariable( "code" ) String code ) {
+    return service.findTournament( code )
+      .map( ResponseEntity::ok )
+      .orElse( ResponseEntity.notFound().build() );
+  }
+
+  /**
+   * Plays the hands of some of the entrants.  Answers with 409 when the round is not the one being played or one of the
+   * entrants has no opponent in it, in which case none of the hands are played.
+   */
+  @PutMapping( "/pvp/tournaments/{code}/rounds/{round}" )
+  public ResponseEntity<Void> playTournamentRound( final @PathVariable( "code" ) String code,
+    final @PathVariable( "round" ) int round, final @RequestBody PlayTournamentRound play ) {
+    if ( play.getHands() == null || play.getHands().isEmpty() || play.getHands().containsValue( null ) ) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    return toResponse( service.playRound( code, round, play.getHands() ) );
+  }
+
+  /* Answers with 409 when the round is not the one being played */
+  @PostMapping( "/pvp/tournaments/{code}/rounds/{round}/resolve" )
+  public ResponseEntity<Void> resolveTournamentRound( final @PathVariable( "code" ) String code,
+    final @PathVariable( "round" ) int round ) {
+    return toResponse( service.resolveRound( code, round ) );
+  }
+
+  @GetMapping( value = "/pvp/tournaments/{code}/entrants", produces = APPLICATION_NDJSON )
+  public ResponseEntity<StreamingResponseBody> streamTournamentEntrants( final @PathVariable( "code" ) String code ) {
+    return service.findEntrants( code )
+      .map( entrants -> ResponseEntity.ok()
+        .contentType( MediaType.parseMediaType( APPLICATION_NDJSON ) )
+        .<StreamingResponseBody>body( out -> entrants.forEach( entrant -> writeLine( out, entrant ) ) ) )
+      .orElse( ResponseEntity.notFound().build() );
+  }
+
+  private static ResponseEntity<Void> toResponse( final Optional<Boolean> done ) {
+    return done
+      .map( accepted -> accepted
+        ? ResponseEntity.noContent().<Void>build()
+        : ResponseEntity.status( HttpStatus.CONFLICT ).<Void>build() )
+      .orElse( ResponseEntity.notFound().build() );
+  }
+
+  private void writeLine( final OutputStream out, final Object value ) {
+    try {
+      out.write( mapper.writeValueAsBytes( value ) );
+      out.write( '\n' );
+    } catch ( final IOException e ) {
+      throw new UncheckedIOException( e );
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package demo.games.service;
+
+import demo.games.dao.Game;
+import demo.games.dao.GameRepository;
+import demo.games.dao.GameStore;
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import static demo.games.model.GameState.ACTIVE;
+import static demo.games.model.GameState.CLOSED;
+
+/**
+ * Keeps the active games in memory and writes the closed games to the database in batches, in the background.  A new
+ * game is only added once it was inserted, so its code is reserved by the database before a player is given it.  A
+ * closed game stays in memory until it is written, so reads never see an older state than the one returned to the
+ * players.
+ * <p>
+ * Closed games are written with the same conditional UPDATE as without the registry, so the registry never overwrites
+ * a game in the database.  When writing fails, the next flush waits twice as long as the previous one did, up to
+ * {@link #MAX_BACKOFF}, and the games are kept until these are written.
+ * <p>
+ * Closes that were not yet written are lost if the application crashes.  On startup the registry is rebuilt from the
+ * active games in the database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty( name = "game.registry.enabled", havingValue = "true" )
+public class ActiveGameRegistry {
+
+  static final Duration MIN_BACKOFF = Duration.ofMillis( 100 );
+  static final Duration MAX_BACKOFF = Duration.ofMinutes( 1 );
+
+  private final GameRepository repository;
+  private final GameStore store;
+  private final int batchSize;
+  private final Clock clock;
+
+  private final ConcurrentMap<String, Game> games = new ConcurrentHashMap<>();
+  /* The closed games that still have to be written */
+  private final BlockingQueue<Game> pending = new LinkedBlockingQueue<>();
+
+  /* Not synchronized, which would pin the carrier thread of a virtual thread while writing to the database */
+  private final Lock flushing = new ReentrantLock();
+  /* Guarded by flushing */
+  private int failures;
+  private Instant retryAt = Instant.MIN;
+
+  @Autowired
+  public ActiveGameRegistry( final GameRepository repository, final GameStore store,
+    final @Value( "${game.registry.batch-size:500}" ) int batchSize ) {
+    this( repository, store, batchSize, Clock.systemUTC() );
+  }
+
+  ActiveGameRegistry( final GameRepository repository, final GameStore store, final int batchSize,
+    final Clock clock ) {
+    this.repository = repository;
+    this.store = store;
+    this.batchSize = batchSize;
+    this.clock = clock;
+  }
+
+  @PostConstruct
+  public void load() {
+    repository.findByStateEquals( ACTIVE ).forEach( game -> games.put( game.getCode(), game ) );
+    log.info( "Loaded {} active games", games.size() );
+  }
+
+  /**
+   * Adds a game that was inserted in the database, and so has a code no other game has
+   */
+  public void add( final Game game ) {
+    games.put( game.getCode(), game );
+  }
+
+  public Optional<Game> find( final String code ) {
+    return Optional.ofNullable( games.get( code ) );
+  }
+
+  public List<Game> findActive() {
+    return games.values()
+      .stream()
+      .filter( game -> game.getState() == ACTIVE )
+      .collect( Collectors.toList() );
+  }
+
+  public long countActive() {
+    return games.values()
+      .stream()
+      .filter( game -> game.getState() == ACTIVE )
+      .count();
+  }
+
+  /**
+   * Closes the active game with a single compare-and-set, so when many players join the same game at the same time
+   * only one of them succeeds
+   */
+  public Optional<Game> close( final String code, final Hand player2 ) {
+    final Game active = games.get( code );
+    if ( active == null || active.getState() != ACTIVE ) {
+      return Optional.empty();
+    }
+
+    final Game closed = new Game()
+      .setCode( code )
+      .setPlayer1( active.getPlayer1() )
+      .setPlayer2( player2 )
+      .setOutcome( PvpOutcome.of( active.getPlayer1(), player2 ) )
+      .setState( CLOSED )
+      .setCreatedAt( active.getCreatedAt() )
+      .setClosedAt( Instant.now() );
+    if ( !games.replace( code, active, closed ) ) {
+      return Optional.empty();
+    }
+
+    pending.add( closed );
+    return Optional.of( closed );
+  }
+
+  @Scheduled( fixedDelayString = "${game.registry.flush-interval:100}" )
+  public void flush() {
+    flushing.lock();
+    try {
+      if ( clock.instant().isBefore( retryAt ) ) {
+        return;
+      }
+
+      final List<Game> drained = new ArrayList<>( batchSize );
+      while ( pending.drainTo( drained, batchSize ) > 0 ) {
+        try {
+          write( drained );
+        } catch ( final RuntimeException e ) {
+          failures++;
+          final Duration backoff = backoff( failures );
+          retryAt = clock.instant().plus( backoff );
+          log.error( "Failed to write {} closed games ({} failures in a row), will try again in {} ms",
+            drained.size(), failures, backoff.toMillis(), e );
+          pending.addAll( drained );
+          return;
+        }
+
+        failures = 0;
+        drained.forEach( game -> games.remove( game.getCode(), game ) );
+        drained.clear();
+      }
+    } finally {
+      flushing.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flush();
+  }
+
+  /* Closes every game with the conditional update, which finds nothing when the game was closed elsewhere */
+  private void write( final List<Game> closed ) {
+    for ( final Game game : closed ) {
+      if ( store.close( game.getCode(), game.getPlayer2() ).isEmpty() ) {
+        log.error( "The game {} was no longer active in the database when it was closed", game.getCode() );
+      }
+    }
+  }
+
+  private static Duration backoff( final int failures ) {
+    final Duration backoff = MIN_BACKOFF.multipliedBy( 1L << Math.min( failures - 1, 20 ) );
+    return backoff.compareTo( MAX_BACKOFF ) > 0 ? MAX_BACKOFF : backoff;
+  }
+}
@@ -0,0 +1,23 @@
+package demo.games.service;
+
+/* Writes numbers using the same letters and digits as the game codes */
+final class Base62 {
+
+  static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+  /* 62^8, the number of different codes with eight characters */
+  static final long EIGHT_CHARACTERS = 218_340_105_584_896L;
+
+  private Base62() {
+  }
+
+  /**
+   * Writes the lowest {@code count} digits of the given value into {@code code}, most significant digit first
+   */
+  static void encode( long value, final char[] code, final int offset, final int count ) {
+    for ( int i = offset + count - 1; i >= offset; i-- ) {
+      code[i] = ALPHABET[(int) ( value % ALPHABET.length )];
+      value /= ALPHABET.length;
+    }
+  }
+}
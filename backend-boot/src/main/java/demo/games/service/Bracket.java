@@ -0,0 +1,353 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import demo.games.model.TournamentFormat;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * The state of one tournament, kept in arrays indexed by the seed of the entrant so that a bracket of millions of
+ * entrants takes a few bytes per entrant and no object per entrant or pairing.
+ * <p>
+ * Single elimination pairs the highest seed still in with the lowest one, and gives the highest seed a bye when an odd
+ * number of entrants is still in.  Swiss ranks all entrants by their points (ties broken by seed) and pairs each with
+ * the next one, and gives the last one a bye when the number of entrants is odd.  Rematches are not avoided.
+ * <p>
+ * Hands are played concurrently.  A round is resolved at once, with the pairings split over a fork-join pool as each
+ * pairing only touches its own two entrants.  An entrant that did not play loses against one that did.  In single
+ * elimination a draw, or a pairing where neither entrant played, goes to the higher seed.
+ */
+public class Bracket {
+
+  public static final int NONE = -1;
+
+  /* Below this many pairings a task resolves these itself rather than splitting them further */
+  private static final int THRESHOLD = 8_192;
+
+  private static final byte NOT_PLAYED = 0;
+  private static final int WIN_POINTS = 2;
+  private static final int DRAW_POINTS = 1;
+
+  private final String code;
+  private final TournamentFormat format;
+  private final int entrants;
+  private final int rounds;
+  private final ForkJoinPool pool;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /* Rounds won in single elimination, points in Swiss */
+  private final int[] scores;
+  /* The opponent in the current round, NONE for a bye or an entrant that is out */
+  private final int[] opponents;
+  /* The hand ordinal plus 1, NOT_PLAYED until the entrant played the current round */
+  private final byte[] hands;
+  /* The two entrants of pairing i are at 2i and 2i + 1, the higher ranked one first */
+  private final int[] pairs;
+  private int pairings;
+  private int bye = NONE;
+  private int round;
+  private int winner = NONE;
+
+  public Bracket( final String code, final TournamentFormat format, final int entrants, final int rounds,
+    final ForkJoinPool pool ) {
+    if ( entrants < 2 ) {
+      throw new IllegalArgumentException( String.format( "A tournament needs at least 2 entrants, not %d", entrants ) );
+    }
+
+    this.code = code;
+    this.format = format;
+    this.entrants = entrants;
+    this.rounds = rounds( format, entrants, rounds );
+    this.pool = pool;
+    this.scores = new int[entrants];
+    this.opponents = new int[entrants];
+    this.hands = new byte[entrants];
+    this.pairs = new int[entrants];
+    pair();
+  }
+
+  /* The rounds played, where 0 rounds of Swiss takes as many as single elimination */
+  public static int rounds( final TournamentFormat format, final int entrants, final int rounds ) {
+    return format == TournamentFormat.SINGLE_ELIMINATION || rounds == 0 ? eliminationRounds( entrants ) : rounds;
+  }
+
+  /* The rounds it takes to halve the entrants down to one */
+  public static int eliminationRounds( final int entrants ) {
+    return Integer.SIZE - Integer.numberOfLeadingZeros( entrants - 1 );
+  }
+
+  public String getCode() {
+    return code;
+  }
+
+  public TournamentFormat getFormat() {
+    return format;
+  }
+
+  public int getEntrants() {
+    return entrants;
+  }
+
+  public int getRounds() {
+    return rounds;
+  }
+
+  public int getRound() {
+    lock.readLock().lock();
+    try {
+      return round;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /* The seed of the winner, or NONE while the tournament is played */
+  public int getWinner() {
+    lock.readLock().lock();
+    try {
+      return winner;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public boolean isClosed() {
+    return getRound() == rounds;
+  }
+
+  /**
+   * Plays the hands of the given entrants in the given round, and returns {@code false}, without playing any of these,
+   * when the round is not the one being played or one of the entrants has no opponent in it.  A hand played again
+   * replaces the one played before.
+   */
+  public boolean play( final int round, final int[] entrants, final Hand[] played ) {
+    lock.readLock().lock();
+    try {
+      if ( round != this.round || this.round == rounds ) {
+        return false;
+      }
+      for ( final int entrant : entrants ) {
+        if ( entrant < 0 || entrant >= this.entrants || opponents[entrant] == NONE ) {
+          return false;
+        }
+      }
+
+      /* Every entrant writes its own byte, so the hands of different requests never overwrite each other */
+      for ( int i = 0; i < entrants.length; i++ ) {
+        hands[entrants[i]] = (byte) ( played[i].ordinal() + 1 );
+      }
+      return true;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Resolves all pairings of the given round and pairs the next round, and returns {@code false} when the round is not
+   * the one being played.  The hands are written before anything changes, so a round that could not be written can be
+   * resolved again.
+   */
+  public boolean resolve( final int round, final ObjIntConsumer<byte[]> writer ) {
+    lock.writeLock().lock();
+    try {
+      if ( round != this.round || this.round == rounds ) {
+        return false;
+      }
+
+      writer.accept( hands.clone(), round );
+      decide();
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Plays a round again from its stored hands, when the bracket is rebuilt
+   */
+  public void replay( final byte[] played ) {
+    lock.writeLock().lock();
+    try {
+      if ( round == rounds || played.length != entrants ) {
+        throw new IllegalStateException( String.format( "Cannot replay round %d of tournament %s", round, code ) );
+      }
+
+      System.arraycopy( played, 0, hands, 0, entrants );
+      decide();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Copies the scores and the opponents of all entrants at once, so these can be read while the tournament goes on
+   */
+  public void copyState( final int[] scores, final int[] opponents ) {
+    lock.readLock().lock();
+    try {
+      System.arraycopy( this.scores, 0, scores, 0, entrants );
+      System.arraycopy( this.opponents, 0, opponents, 0, entrants );
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Copies the scores of all entrants at once, for a closed tournament where no entrant has an opponent
+   */
+  public void copyScores( final int[] scores ) {
+    lock.readLock().lock();
+    try {
+      System.arraycopy( this.scores, 0, scores, 0, entrants );
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void decide() {
+    pool.invoke( new Resolve( 0, pairings ) );
+    if ( bye != NONE ) {
+      scores[bye] += format == TournamentFormat.SINGLE_ELIMINATION ? 1 : WIN_POINTS;
+    }
+
+    Arrays.fill( hands, NOT_PLAYED );
+    round++;
+    if ( round == rounds ) {
+      Arrays.fill( opponents, NONE );
+      pairings = 0;
+      bye = NONE;
+      winner = rank()[0];
+    } else {
+      pair();
+    }
+  }
+
+  private void decide( final int player1, final int player2 ) {
+    final int hand1 = hands[player1];
+    final int hand2 = hands[player2];
+    final int outcome;
+    if ( hand1 != NOT_PLAYED && hand2 != NOT_PLAYED ) {
+      outcome = PvpOutcome.resolve( hand1 - 1, hand2 - 1 );
+    } else if ( hand1 != NOT_PLAYED ) {
+      outcome = PvpOutcome.PLAYER_1_WIN.ordinal();
+    } else if ( hand2 != NOT_PLAYED ) {
+      outcome = PvpOutcome.PLAYER_2_WIN.ordinal();
+    } else {
+      outcome = NONE;
+    }
+
+    if ( format == TournamentFormat.SINGLE_ELIMINATION ) {
+      scores[outcome == PvpOutcome.PLAYER_2_WIN.ordinal() ? player2 : player1]++;
+    } else if ( outcome == PvpOutcome.PLAYER_1_WIN.ordinal() ) {
+      scores[player1] += WIN_POINTS;
+    } else if ( outcome == PvpOutcome.PLAYER_2_WIN.ordinal() ) {
+      scores[player2] += WIN_POINTS;
+    } else if ( outcome == PvpOutcome.DRAW.ordinal() ) {
+      scores[player1] += DRAW_POINTS;
+      scores[player2] += DRAW_POINTS;
+    }
+  }
+
+  private void pair() {
+    final int[] ranked = rank();
+    Arrays.fill( opponents, NONE );
+    bye = NONE;
+
+    int first = 0;
+    int last = ranked.length - 1;
+    if ( ranked.length % 2 == 1 ) {
+      if ( format == TournamentFormat.SINGLE_ELIMINATION ) {
+        bye = ranked[first++];
+      } else {
+        bye = ranked[last--];
+      }
+    }
+
+    pairings = ( last - first + 1 ) / 2;
+    for ( int i = 0; i < pairings; i++ ) {
+      final int player1;
+      final int player2;
+      if ( format == TournamentFormat.SINGLE_ELIMINATION ) {
+        player1 = ranked[first + i];
+        player2 = ranked[last - i];
+      } else {
+        player1 = ranked[first + 2 * i];
+        player2 = ranked[first + 2 * i + 1];
+      }
+
+      pairs[2 * i] = player1;
+      pairs[2 * i + 1] = player2;
+      opponents[player1] = player2;
+      opponents[player2] = player1;
+    }
+  }
+
+  /**
+   * Single elimination ranks the entrants still in by seed.  Swiss ranks all entrants by points and then by seed, with a
+   * counting sort as the points are small numbers.
+   */
+  private int[] rank() {
+    if ( format == TournamentFormat.SINGLE_ELIMINATION ) {
+      int in = 0;
+      for ( int entrant = 0; entrant < entrants; entrant++ ) {
+        if ( scores[entrant] == round ) {
+          in++;
+        }
+      }
+
+      final int[] ranked = new int[in];
+      for ( int entrant = 0, i = 0; entrant < entrants; entrant++ ) {
+        if ( scores[entrant] == round ) {
+          ranked[i++] = entrant;
+        }
+      }
+      return ranked;
+    }
+
+    final int max = WIN_POINTS * round;
+    final int[] starts = new int[max + 2];
+    for ( int entrant = 0; entrant < entrants; entrant++ ) {
+      starts[max - scores[entrant] + 1]++;
+    }
+    for ( int i = 1; i < starts.length; i++ ) {
+      starts[i] += starts[i - 1];
+    }
+
+    final int[] ranked = new int[entrants];
+    for ( int entrant = 0; entrant < entrants; entrant++ ) {
+      ranked[starts[max - scores[entrant]]++] = entrant;
+    }
+    return ranked;
+  }
+
+  /* Each pairing only changes the scores of its own two entrants, so the pairings are resolved without locking */
+  private class Resolve extends RecursiveAction {
+
+    private final int from;
+    private final int to;
+
+    private Resolve( final int from, final int to ) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if ( to - from <= THRESHOLD ) {
+        for ( int i = from; i < to; i++ ) {
+          decide( pairs[2 * i], pairs[2 * i + 1] );
+        }
+        return;
+      }
+
+      final int middle = ( from + to ) >>> 1;
+      invokeAll( new Resolve( from, middle ), new Resolve( middle, to ) );
+    }
+  }
+}
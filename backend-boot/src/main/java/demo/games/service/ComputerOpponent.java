@@ -0,0 +1,68 @@
+package demo.games.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import demo.games.model.Hand;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Function;
+
+/**
+ * Plays against the players who say who they are, with what the strategy learned of each of them.  The state of at
+ * most {@code game.computer.max-players} players is kept, and the players that played least recently and least often
+ * are forgotten first, so the memory stays the same however many players come by.  A strategy that learns nothing
+ * keeps no players at all.
+ */
+@Service
+public class ComputerOpponent {
+
+  public static final int MAX_PLAYER_ID_LENGTH = 64;
+
+  private static final int[] NO_STATE = new int[0];
+
+  private final ComputerStrategy strategy;
+  private final RandomService random;
+  private final Cache<String, int[]> players;
+  /* Created once, so that finding a player allocates nothing */
+  private final Function<String, int[]> newPlayer;
+
+  public ComputerOpponent( final ComputerStrategy strategy, final RandomService random,
+    final @Value( "${game.computer.max-players:100000}" ) long maxPlayers ) {
+    this.strategy = strategy;
+    this.random = random;
+    this.players = Caffeine.newBuilder()
+      .maximumSize( maxPlayers )
+      .build();
+    this.newPlayer = player -> new int[strategy.stateSize()];
+  }
+
+  public static boolean isValidPlayer( final String player ) {
+    return !player.isBlank() && player.length() <= MAX_PLAYER_ID_LENGTH;
+  }
+
+  /**
+   * Picks the hand of the computer from what was learned of the player before this hand, and then learns the hand
+   */
+  public Hand play( final String player, final Hand hand ) {
+    if ( strategy.stateSize() == 0 ) {
+      return Hand.fromOrdinal( strategy.play( NO_STATE, random ) );
+    }
+
+    final int[] state = players.get( player, newPlayer );
+    synchronized ( state ) {
+      final int computer = strategy.play( state, random );
+      strategy.learn( state, hand.ordinal() );
+      return Hand.fromOrdinal( computer );
+    }
+  }
+
+  public long countPlayers() {
+    return players.estimatedSize();
+  }
+
+  /* Evictions happen in the background, this applies these now */
+  void cleanUp() {
+    players.cleanUp();
+  }
+}
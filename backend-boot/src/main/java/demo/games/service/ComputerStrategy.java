@@ -0,0 +1,18 @@
+package demo.games.service;
+
+/**
+ * Picks the hand of the computer from what it learned of the player so far.  What is learned of a player is kept in an
+ * array of {@link #stateSize()} ints, created once per player, so that playing and learning a hand takes the same time
+ * however many hands the player played, and allocates nothing.
+ * <p>
+ * Implementations are shared by all request threads and keep nothing themselves, the caller makes sure that the state
+ * of a player is only used by one thread at a time.  Hands are given and returned as their ordinal.
+ */
+public interface ComputerStrategy {
+
+  int stateSize();
+
+  int play( final int[] state, final RandomService random );
+
+  void learn( final int[] state, final int player );
+}
@@ -0,0 +1,26 @@
+package demo.games.service;
+
+public enum ComputerStrategyType {
+  RANDOM,
+  FREQUENCY,
+  MARKOV,
+  /* Markov, with some of the hands played at random */
+  MIXED;
+
+  /* As configured when game.computer.order and game.computer.random-percent are not set */
+  public static final int DEFAULT_ORDER = 2;
+  public static final int DEFAULT_RANDOM_PERCENT = 20;
+
+  public ComputerStrategy create( final int order, final int randomPercent ) {
+    switch ( this ) {
+      case FREQUENCY:
+        return new FrequencyStrategy();
+      case MARKOV:
+        return new MarkovStrategy( order );
+      case MIXED:
+        return new MixedStrategy( new MarkovStrategy( order ), randomPercent );
+      default:
+        return new RandomStrategy();
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+
+/**
+ * Plays the hand that beats the hand the player played most.  The counts are halved once one of them reaches a limit,
+ * so the recent hands weigh more and a player that changes habits is followed.
+ */
+public class FrequencyStrategy implements ComputerStrategy {
+
+  static final int NONE = -1;
+  static final int LIMIT = 1 << 10;
+
+  private static final int HANDS = Hand.values().length;
+
+  @Override
+  public int stateSize() {
+    return HANDS;
+  }
+
+  @Override
+  public int play( final int[] state, final RandomService random ) {
+    final int predicted = mostFrequent( state, 0, random );
+    return predicted == NONE ? random.nextInt( HANDS ) : beat( predicted );
+  }
+
+  @Override
+  public void learn( final int[] state, final int player ) {
+    count( state, 0, player );
+  }
+
+  /* Returns NONE when nothing was counted yet, and one of the most frequent hands at random on a tie */
+  static int mostFrequent( final int[] counts, final int from, final RandomService random ) {
+    int best = NONE;
+    int max = 0;
+    int ties = 0;
+    for ( int hand = 0; hand < HANDS; hand++ ) {
+      final int count = counts[from + hand];
+      if ( count > max ) {
+        best = hand;
+        max = count;
+        ties = 1;
+      } else if ( count == max && count > 0 && random.nextInt( ++ties ) == 0 ) {
+        best = hand;
+      }
+    }
+    return best;
+  }
+
+  static void count( final int[] counts, final int from, final int hand ) {
+    if ( ++counts[from + hand] == LIMIT ) {
+      for ( int i = from; i < from + HANDS; i++ ) {
+        counts[i] >>>= 1;
+      }
+    }
+  }
+
+  static int beat( final int hand ) {
+    return Hand.fromOrdinal( hand ).beatenBy().ordinal();
+  }
+}
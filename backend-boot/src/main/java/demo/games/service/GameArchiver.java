@@ -0,0 +1,58 @@
+package demo.games.service;
+
+import demo.games.dao.GameStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Moves the games that were closed longer ago than the configured age to the archive of the store, in batches.  The
+ * database moves every batch with a single statement, so a game is always in exactly one of the two tables.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty( name = "game.archive.enabled", havingValue = "true" )
+public class GameArchiver {
+
+  private final GameStore store;
+  private final Duration age;
+  private final int batchSize;
+  private final Clock clock;
+
+  @Autowired
+  public GameArchiver( final GameStore store,
+    final @Value( "${game.archive.age:P7D}" ) Duration age,
+    final @Value( "${game.archive.batch-size:5000}" ) int batchSize ) {
+    this( store, age, batchSize, Clock.systemUTC() );
+  }
+
+  GameArchiver( final GameStore store, final Duration age, final int batchSize, final Clock clock ) {
+    this.store = store;
+    this.age = age;
+    this.batchSize = batchSize;
+    this.clock = clock;
+  }
+
+  @Scheduled( fixedDelayString = "${game.archive.interval:60000}" )
+  public void archive() {
+    final Instant before = clock.instant().minus( age );
+
+    long archived = 0;
+    int moved;
+    do {
+      moved = store.archiveClosed( before, batchSize );
+      archived += moved;
+    } while ( moved == batchSize );
+
+    if ( archived > 0 ) {
+      log.info( "Archived {} games closed before {}", archived, before );
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package demo.games.service;
+
+import demo.games.model.GameDetails;
+import lombok.Value;
+
+/* Published by the game service whenever a PvP game is closed */
+@Value
+public class GameClosedEvent {
+  GameDetails game;
+}
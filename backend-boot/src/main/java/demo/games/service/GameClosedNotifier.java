@@ -0,0 +1,56 @@
+package demo.games.service;
+
+import demo.games.model.GameDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps track of the players waiting for a PvP game to close.  A waiting player is just a future, so no thread is
+ * blocked while waiting, and all waiting players are notified once the game is closed and committed.
+ */
+@Component
+public class GameClosedNotifier {
+
+  /* Sets are added and removed within compute(), so a future is never added to a set that was already notified */
+  private final ConcurrentMap<String, Set<CompletableFuture<GameDetails>>> waiting = new ConcurrentHashMap<>();
+
+  /**
+   * The returned future is completed when the game is closed.  Cancel the future to stop waiting.
+   */
+  public CompletableFuture<GameDetails> await( final String code ) {
+    final CompletableFuture<GameDetails> future = new CompletableFuture<>();
+    waiting.compute( code, ( c, futures ) -> {
+      final Set<CompletableFuture<GameDetails>> set = futures == null ? ConcurrentHashMap.newKeySet() : futures;
+      set.add( future );
+      return set;
+    } );
+    future.whenComplete( ( details, e ) -> remove( code, future ) );
+    return future;
+  }
+
+  public int countWaiting( final String code ) {
+    final Set<CompletableFuture<GameDetails>> futures = waiting.get( code );
+    return futures == null ? 0 : futures.size();
+  }
+
+  @TransactionalEventListener( fallbackExecution = true )
+  public void onGameClosed( final GameClosedEvent event ) {
+    final GameDetails game = event.getGame();
+    final Set<CompletableFuture<GameDetails>> futures = waiting.remove( game.getCode() );
+    if ( futures != null ) {
+      futures.forEach( future -> future.complete( game ) );
+    }
+  }
+
+  private void remove( final String code, final CompletableFuture<GameDetails> future ) {
+    waiting.computeIfPresent( code, ( c, futures ) -> {
+      futures.remove( future );
+      return futures.isEmpty() ? null : futures;
+    } );
+  }
+}
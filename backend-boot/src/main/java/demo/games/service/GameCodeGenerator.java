@@ -0,0 +1,10 @@
+package demo.games.service;
+
+/**
+ * Generates the codes used as the primary key of the PvP games.  Implementations are shared by all request threads and
+ * must be thread-safe.
+ */
+public interface GameCodeGenerator {
+
+  String nextCode( int length );
+}
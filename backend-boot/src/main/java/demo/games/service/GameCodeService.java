@@ -1,12 +1,17 @@
 package demo.games.service;
 
-import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.stereotype.Service;
 
 @Service
 public class GameCodeService {
 
+  private final GameCodeGenerator generator;
+
+  public GameCodeService( final GameCodeGenerator generator ) {
+    this.generator = generator;
+  }
+
   public String nextCode( int length ) {
-    return RandomStringUtils.randomAlphanumeric( length );
+    return generator.nextCode( length );
   }
 }
@@ -0,0 +1,15 @@
+package demo.games.service;
+
+public enum GameCodeStrategy {
+  SECURE_RANDOM,
+  SNOWFLAKE;
+
+  public GameCodeGenerator create( final int node ) {
+    switch ( this ) {
+      case SNOWFLAKE:
+        return new SnowflakeCodeGenerator( node );
+      default:
+        return new SecureRandomCodeGenerator();
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+import demo.games.model.PvcOutcome;
+import demo.games.model.PvpOutcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Supplier;
+
+/**
+ * Counts the games played by outcome and the hands played by the players.  The counters are registered once and kept
+ * in arrays indexed by ordinal, so counting a game is a couple of array reads and adds, with no lookup by name and
+ * tags.
+ */
+@Component
+public class GameMetrics {
+
+  public static final String PVC_GAMES = "game.pvc.games";
+  public static final String PVP_GAMES = "game.pvp.games";
+  public static final String HANDS = "game.hands";
+  public static final String ACTIVE_GAMES = "game.pvp.active";
+
+  private static final Hand[] HAND_VALUES = Hand.values();
+  private static final PvcOutcome[] PVC_OUTCOMES = PvcOutcome.values();
+  private static final PvpOutcome[] PVP_OUTCOMES = PvpOutcome.values();
+
+  private final MeterRegistry registry;
+  private final Counter[] pvcOutcomes;
+  private final Counter[] pvpOutcomes;
+  private final Counter[] pvcHands;
+  private final Counter[] pvpHands;
+
+  public GameMetrics( final MeterRegistry registry ) {
+    this.registry = registry;
+    this.pvcOutcomes = new Counter[PVC_OUTCOMES.length];
+    for ( final PvcOutcome outcome : PVC_OUTCOMES ) {
+      pvcOutcomes[outcome.ordinal()] = Counter.builder( PVC_GAMES )
+        .description( "Games played against the computer" )
+        .tag( "outcome", outcome.name() )
+        .register( registry );
+    }
+
+    this.pvpOutcomes = new Counter[PVP_OUTCOMES.length];
+    for ( final PvpOutcome outcome : PVP_OUTCOMES ) {
+      pvpOutcomes[outcome.ordinal()] = Counter.builder( PVP_GAMES )
+        .description( "Games closed between two players" )
+        .tag( "outcome", outcome.name() )
+        .register( registry );
+    }
+
+    this.pvcHands = hands( registry, "pvc" );
+    this.pvpHands = hands( registry, "pvp" );
+  }
+
+  void pvcPlayed( final Hand player, final PvcOutcome outcome ) {
+    pvcHands[player.ordinal()].increment();
+    pvcOutcomes[outcome.ordinal()].increment();
+  }
+
+  /* Both arrays hold the number of rounds, indexed by hand and by outcome ordinal */
+  void pvcBatchPlayed( final int[] hands, final int[] outcomes ) {
+    add( pvcHands, hands );
+    add( pvcOutcomes, outcomes );
+  }
+
+  void pvpCreated( final Hand player1 ) {
+    pvpHands[player1.ordinal()].increment();
+  }
+
+  void pvpClosed( final Hand player2, final PvpOutcome outcome ) {
+    pvpHands[player2.ordinal()].increment();
+    pvpOutcomes[outcome.ordinal()].increment();
+  }
+
+  /* Counted once the close is committed, so a close that is rolled back is not counted */
+  @TransactionalEventListener( fallbackExecution = true )
+  public void onGameClosed( final GameClosedEvent event ) {
+    pvpClosed( event.getGame().getPlayer2(), event.getGame().getOutcome() );
+  }
+
+  /* The gauge reads the number when the metrics are published, not when games are created or closed */
+  void activeGames( final Supplier<Number> count ) {
+    Gauge.builder( ACTIVE_GAMES, count )
+      .description( "PvP games waiting for a second player" )
+      .register( registry );
+  }
+
+  private static Counter[] hands( final MeterRegistry registry, final String game ) {
+    final Counter[] counters = new Counter[HAND_VALUES.length];
+    for ( final Hand hand : HAND_VALUES ) {
+      counters[hand.ordinal()] = Counter.builder( HANDS )
+        .description( "Hands played by the players" )
+        .tag( "game", game )
+        .tag( "hand", hand.name() )
+        .register( registry );
+    }
+    return counters;
+  }
+
+  private static void add( final Counter[] counters, final int[] counts ) {
+    for ( int i = 0; i < counts.length; i++ ) {
+      if ( counts[i] > 0 ) {
+        counters[i].increment( counts[i] );
+      }
+    }
+  }
+}
@@ -1,87 +1,314 @@
 package demo.games.service;
 
 import demo.games.dao.Game;
-import demo.games.dao.GameRepository;
+import demo.games.dao.GameStore;
 import demo.games.model.ActiveGame;
+import demo.games.model.BatchStrategy;
 import demo.games.model.GameDetails;
+import demo.games.model.GamePage;
 import demo.games.model.GameState;
 import demo.games.model.Hand;
+import demo.games.model.PvcBatchResult;
 import demo.games.model.PvcGameResult;
 import demo.games.model.PvcOutcome;
-import demo.games.model.PvpOutcome;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static demo.games.config.CacheConfiguration.CLOSED_GAMES;
 import static demo.games.model.GameState.ACTIVE;
 import static demo.games.model.GameState.CLOSED;
 
+@Slf4j
 @Service
 public class GameService {
 
+  public static final int MAX_BATCH_SIZE = 10_000;
+  public static final int MAX_PAGE_SIZE = 1_000;
+  public static final int MAX_CODE_ATTEMPTS = 5;
+
+  /* Tagged with the method, and published with a percentile histogram */
+  public static final String TIMER = "game.service";
+
+  /* Hand.values() returns a new copy on every call */
+  private static final Hand[] HANDS = Hand.values();
+  private static final PvcOutcome[] PVC_OUTCOMES = PvcOutcome.values();
+
   private final GameCodeService codeService;
-  private final GameRepository repository;
+  private final GameStore store;
   private final RandomService randomService;
+  private final ApplicationEventPublisher events;
+  private final GameMetrics metrics;
+  private final ComputerOpponent computer;
+  private final Optional<ActiveGameRegistry> registry;
 
-  public GameService( final GameCodeService codeService, final GameRepository repository, final RandomService randomService ) {
+  public GameService( final GameCodeService codeService, final GameStore store, final RandomService randomService,
+    final ApplicationEventPublisher events, final GameMetrics metrics, final ComputerOpponent computer,
+    final Optional<ActiveGameRegistry> registry ) {
     this.codeService = codeService;
-    this.repository = repository;
+    this.store = store;
     this.randomService = randomService;
+    this.events = events;
+    this.metrics = metrics;
+    this.computer = computer;
+    this.registry = registry;
+    metrics.activeGames( this::countActivePvpGames );
   }
 
   public Hand randomHand() {
-    final Hand[] candidates = Hand.values();
-    return candidates[randomService.nextInt( candidates.length )];
+    return HANDS[randomService.nextInt( HANDS.length )];
   }
 
   public PvcGameResult playAgainstComputer( final Hand player ) {
     final Hand computer = randomHand();
     final PvcOutcome outcome = PvcOutcome.of( computer, player );
+    metrics.pvcPlayed( player, outcome );
     return new PvcGameResult( computer, player, outcome );
   }
 
+  /**
+   * Plays against the computer opponent, which learns from the hands the player with this id played before
+   */
+  public PvcGameResult playAgainstComputer( final Hand player, final String playerId ) {
+    final Hand hand = computer.play( playerId, player );
+    final PvcOutcome outcome = PvcOutcome.of( hand, player );
+    metrics.pvcPlayed( player, outcome );
+    return new PvcGameResult( hand, player, outcome );
+  }
+
+  public PvcBatchResult playBatchAgainstComputer( final List<Hand> players ) {
+    final byte[] hands = new byte[players.size()];
+    for ( int i = 0; i < hands.length; i++ ) {
+      hands[i] = (byte) players.get( i ).ordinal();
+    }
+    return playBatchAgainstComputer( hands );
+  }
+
+  public PvcBatchResult playBatchAgainstComputer( final int rounds, final BatchStrategy strategy ) {
+    final byte[] hands = new byte[rounds];
+    for ( int i = 0; i < rounds; i++ ) {
+      hands[i] = (byte) ( strategy == BatchStrategy.CYCLE ? i % HANDS.length : randomService.nextInt( HANDS.length ) );
+    }
+    return playBatchAgainstComputer( hands );
+  }
+
+  private PvcBatchResult playBatchAgainstComputer( final byte[] players ) {
+    final int rounds = players.length;
+    final byte[] computer = new byte[rounds];
+    for ( int i = 0; i < rounds; i++ ) {
+      computer[i] = (byte) randomService.nextInt( HANDS.length );
+    }
+
+    final byte[] outcomes = new byte[rounds];
+    PvcOutcome.resolve( computer, players, outcomes );
+
+    final int[] counts = new int[PVC_OUTCOMES.length];
+    final int[] hands = new int[HANDS.length];
+    final List<Hand> computerHands = new ArrayList<>( rounds );
+    final List<Hand> playerHands = new ArrayList<>( rounds );
+    final List<PvcOutcome> roundOutcomes = new ArrayList<>( rounds );
+    for ( int i = 0; i < rounds; i++ ) {
+      counts[outcomes[i]]++;
+      hands[players[i]]++;
+      computerHands.add( HANDS[computer[i]] );
+      playerHands.add( HANDS[players[i]] );
+      roundOutcomes.add( PVC_OUTCOMES[outcomes[i]] );
+    }
+    metrics.pvcBatchPlayed( hands, counts );
+
+    return new PvcBatchResult( computerHands, playerHands, roundOutcomes,
+      counts[PvcOutcome.PLAYER_WIN.ordinal()],
+      counts[PvcOutcome.COMPUTER_WIN.ordinal()],
+      counts[PvcOutcome.DRAW.ordinal()] );
+  }
+
+  @Timed( value = TIMER, histogram = true )
   public ActiveGame createPvpGame( final Hand player1 ) {
-    final String code = codeService.nextCode( 8 );
+    final Game game = insertWithFreeCode( codeService, "game",
+      code -> new Game().setCode( code ).setPlayer1( player1 ).setState( ACTIVE ), this::insertPvpGame );
+    metrics.pvpCreated( player1 );
+    return new ActiveGame( game.getCode() );
+  }
+
+  /**
+   * Inserts what is created for a new code, with another code each time the insert finds the code taken, and returns
+   * what was inserted.  Throws an {@link IllegalStateException} once {@link #MAX_CODE_ATTEMPTS} codes were taken.
+   */
+  static <T> T insertWithFreeCode( final GameCodeService codeService, final String kind,
+    final Function<String, T> create, final Predicate<T> insert ) {
+    for ( int attempt = 1; attempt <= MAX_CODE_ATTEMPTS; attempt++ ) {
+      final String code = codeService.nextCode( 8 );
+      final T created = create.apply( code );
+      if ( insert.test( created ) ) {
+        return created;
+      }
+
+      log.warn( "The {} code {} is already taken (attempt {} of {})", kind, code, attempt, MAX_CODE_ATTEMPTS );
+    }
+
+    throw new IllegalStateException(
+      String.format( "Failed to find a free %s code after %d attempts", kind, MAX_CODE_ATTEMPTS ) );
+  }
+
+  /* Returns false, without overwriting the other game, when the code is taken */
+  private boolean insertPvpGame( final Game game ) {
+    if ( !store.insert( game ) ) {
+      return false;
+    }
+
+    registry.ifPresent( r -> r.add( game ) );
+    return true;
+  }
+
+  /**
+   * Creates one game for every hand, with the games created in bulk.  Codes that are already taken are replaced and
+   * only these games are tried again.  All attempts are one transaction, so when one fails the games inserted by the
+   * earlier attempts, whose codes the caller never gets, are rolled back with it.
+   */
+  @Transactional
+  @Timed( value = TIMER, histogram = true )
+  public List<ActiveGame> createPvpGames( final List<Hand> players1 ) {
+    final String[] codes = new String[players1.size()];
+    List<Integer> pending = IntStream.range( 0, codes.length ).boxed().collect( Collectors.toList() );
+    final List<Game> created = new ArrayList<>( codes.length );
+
+    for ( int attempt = 1; attempt <= MAX_CODE_ATTEMPTS && !pending.isEmpty(); attempt++ ) {
+      final List<Integer> retry = new ArrayList<>();
+      final Map<String, Integer> indices = new LinkedHashMap<>();
+      final List<Game> games = new ArrayList<>( pending.size() );
+      for ( final int index : pending ) {
+        final String code = codeService.nextCode( 8 );
+        if ( indices.putIfAbsent( code, index ) != null ) {
+          retry.add( index );
+          continue;
+        }
+
+        games.add( new Game()
+          .setCode( code )
+          .setPlayer1( players1.get( index ) )
+          .setState( ACTIVE ) );
+      }
+
+      final Set<String> inserted = store.insertAll( games );
+      games.stream()
+        .filter( game -> inserted.contains( game.getCode() ) )
+        .forEach( created::add );
+      indices.forEach( ( code, index ) -> {
+        if ( inserted.contains( code ) ) {
+          codes[index] = code;
+        } else {
+          retry.add( index );
+        }
+      } );
 
-    final Game game = new Game()
-      .setCode( code )
-      .setPlayer1( player1 )
-      .setState( ACTIVE );
-    repository.save( game );
+      if ( !retry.isEmpty() ) {
+        log.warn( "{} game codes were already taken (attempt {} of {})", retry.size(), attempt, MAX_CODE_ATTEMPTS );
+      }
+      pending = retry;
+    }
 
-    return new ActiveGame( code );
+    if ( !pending.isEmpty() ) {
+      throw new IllegalStateException( String.format( "Failed to find a free code for %d games after %d attempts",
+        pending.size(), MAX_CODE_ATTEMPTS ) );
+    }
+
+    /* The registry only holds games whose code the database reserved */
+    registry.ifPresent( r -> created.forEach( r::add ) );
+    players1.forEach( metrics::pvpCreated );
+    return Arrays.stream( codes )
+      .map( ActiveGame::new )
+      .collect( Collectors.toList() );
   }
 
   @Transactional
+  @Timed( value = TIMER, histogram = true )
+  @CachePut( cacheNames = CLOSED_GAMES, key = "#code", unless = "#result == null" )
   public Optional<GameDetails> playAgainstPlayer( final String code, final Hand player2 ) {
-    return repository.findByCodeAndStateEquals( code, ACTIVE )
-      .map( game -> repository.save(
-        game.setPlayer2( player2 )
-          .setOutcome( PvpOutcome.of( game.getPlayer1(), player2 ) )
-          .setState( CLOSED ) )
-      )
+    final Optional<GameDetails> closed = registry
+      .map( r -> r.close( code, player2 ) )
+      .orElseGet( () -> store.close( code, player2 ) )
       .map( GameService::toGameDetails );
+
+    /* Listeners, the metrics among these, are only notified once the transaction commits */
+    closed.ifPresent( details -> events.publishEvent( new GameClosedEvent( details ) ) );
+    return closed;
   }
 
+  @Transactional( readOnly = true )
+  @Timed( value = TIMER, histogram = true )
   public List<ActiveGame> listActivePvpGames() {
-    return repository.findByStateEquals( ACTIVE )
-      .stream()
-      .map( r -> new ActiveGame( r.getCode() ) )
-      .collect( Collectors.toList() );
+    return registry
+      .map( r -> r.findActive()
+        .stream()
+        .map( game -> new ActiveGame( game.getCode() ) )
+        .collect( Collectors.toList() ) )
+      .orElseGet( store::findActive );
   }
 
+  @Transactional( readOnly = true )
+  @Timed( value = TIMER, histogram = true )
   public List<GameDetails> listClosedPvpGames() {
-    return repository.findByStateEquals( CLOSED )
-      .stream()
-      .map( GameService::toGameDetails )
-      .collect( Collectors.toList() );
+    return store.findClosed();
+  }
+
+  @Transactional( readOnly = true )
+  @Timed( value = TIMER, histogram = true )
+  public GamePage<ActiveGame> pageActivePvpGames( final String after, final int limit ) {
+    final int size = pageSizeOf( limit );
+    return toPage( store.findActiveAfter( nullToEmpty( after ), size ), size, ActiveGame::getCode );
+  }
+
+  @Transactional( readOnly = true )
+  @Timed( value = TIMER, histogram = true )
+  public GamePage<GameDetails> pageClosedPvpGames( final String after, final int limit ) {
+    final int size = pageSizeOf( limit );
+    return toPage( store.findClosedAfter( nullToEmpty( after ), size ), size, GameDetails::getCode );
   }
 
+  @Transactional( readOnly = true )
+  public void streamActivePvpGames( final Consumer<ActiveGame> consumer ) {
+    try ( final Stream<ActiveGame> games = store.streamActive() ) {
+      games.forEach( consumer );
+    }
+  }
+
+  @Transactional( readOnly = true )
+  public void streamClosedPvpGames( final Consumer<GameDetails> consumer ) {
+    try ( final Stream<GameDetails> games = store.streamClosed() ) {
+      games.forEach( consumer );
+    }
+  }
+
+  public long countActivePvpGames() {
+    return registry
+      .map( ActiveGameRegistry::countActive )
+      .orElseGet( store::countActive );
+  }
+
+  @Timed( value = TIMER, histogram = true )
+  @Cacheable( cacheNames = CLOSED_GAMES, unless = "#result == null || #result.state != T(demo.games.model.GameState).CLOSED" )
   public Optional<GameDetails> findPvpGame( final String code ) {
-    return repository.findById( code )
+    return registry
+      .flatMap( r -> r.find( code ) )
+      .or( () -> store.find( code ) )
       .map( game -> {
           final GameDetails details = new GameDetails()
             .setCode( game.getCode() )
@@ -98,6 +325,20 @@ public class GameService {
       );
   }
 
+  private static int pageSizeOf( final int limit ) {
+    return Math.max( 1, Math.min( limit, MAX_PAGE_SIZE ) );
+  }
+
+  private static <T> GamePage<T> toPage( final List<T> games, final int size, final Function<T, String> code ) {
+    /* A full page may be followed by more games, a partial page is the last one */
+    final String next = games.size() == size ? code.apply( games.get( games.size() - 1 ) ) : null;
+    return new GamePage<>( games, next );
+  }
+
+  private static String nullToEmpty( final String after ) {
+    return after == null ? "" : after;
+  }
+
   private static GameDetails toGameDetails( Game game ) {
     return new GameDetails()
       .setCode( game.getCode() )
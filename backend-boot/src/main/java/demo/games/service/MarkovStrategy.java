@@ -0,0 +1,64 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+
+import static demo.games.service.FrequencyStrategy.NONE;
+import static demo.games.service.FrequencyStrategy.beat;
+import static demo.games.service.FrequencyStrategy.count;
+import static demo.games.service.FrequencyStrategy.mostFrequent;
+
+/**
+ * Predicts the next hand of the player from the last {@code order} hands the player played, by counting which hand
+ * followed these hands before, and plays the hand that beats it.  The state holds the last hands (as one number in base
+ * 3), how many of these there are, and the counts for every possible combination of last hands.
+ */
+public class MarkovStrategy implements ComputerStrategy {
+
+  public static final int MAX_ORDER = 4;
+
+  private static final int HANDS = Hand.values().length;
+  private static final int CONTEXT = 0;
+  private static final int SEEN = 1;
+  private static final int COUNTS = 2;
+
+  private final int order;
+  private final int contexts;
+
+  public MarkovStrategy( final int order ) {
+    if ( order < 1 || order > MAX_ORDER ) {
+      throw new IllegalArgumentException( String.format( "The order must be between 1 and %d, not %d", MAX_ORDER, order ) );
+    }
+
+    this.order = order;
+    int contexts = 1;
+    for ( int i = 0; i < order; i++ ) {
+      contexts *= HANDS;
+    }
+    this.contexts = contexts;
+  }
+
+  @Override
+  public int stateSize() {
+    return COUNTS + contexts * HANDS;
+  }
+
+  @Override
+  public int play( final int[] state, final RandomService random ) {
+    final int predicted = state[SEEN] < order ? NONE : mostFrequent( state, row( state ), random );
+    return predicted == NONE ? random.nextInt( HANDS ) : beat( predicted );
+  }
+
+  @Override
+  public void learn( final int[] state, final int player ) {
+    if ( state[SEEN] == order ) {
+      count( state, row( state ), player );
+    } else {
+      state[SEEN]++;
+    }
+    state[CONTEXT] = ( state[CONTEXT] * HANDS + player ) % contexts;
+  }
+
+  private static int row( final int[] state ) {
+    return COUNTS + state[CONTEXT] * HANDS;
+  }
+}
@@ -0,0 +1,220 @@
+package demo.games.service;
+
+import demo.games.dao.Game;
+import demo.games.dao.GameStore;
+import demo.games.model.GameDetails;
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static demo.games.model.GameState.CLOSED;
+import static demo.games.service.GameService.MAX_CODE_ATTEMPTS;
+
+/**
+ * Pairs the players as they arrive, so that no game code has to be shared.  Any two waiting players can play each
+ * other, so at most one player is ever waiting: the next player to arrive takes the waiting one out of a single slot
+ * with a compare-and-set, and whoever wins that compare-and-set (the next player or the timeout) is the only one to
+ * complete the waiting player.
+ * <p>
+ * Only the closed games are stored, in batches, and both players are answered once their game is stored.  The number
+ * of games waiting to be stored is bounded, when full the players are turned away rather than queued.
+ */
+@Slf4j
+@Service
+public class MatchmakingService {
+
+  private final AtomicReference<Waiting> waiting = new AtomicReference<>();
+  private final BlockingQueue<Match> pending;
+
+  private final GameCodeService codeService;
+  private final GameStore store;
+  private final GameMetrics metrics;
+  private final Clock clock;
+  private final long timeout;
+  private final int batchSize;
+
+  @Autowired
+  public MatchmakingService( final GameCodeService codeService, final GameStore store, final GameMetrics metrics,
+    final @Value( "${game.match.timeout:10000}" ) long timeout,
+    final @Value( "${game.match.capacity:100000}" ) int capacity,
+    final @Value( "${game.match.batch-size:1000}" ) int batchSize ) {
+    this( codeService, store, metrics, Clock.systemUTC(), timeout, capacity, batchSize );
+  }
+
+  MatchmakingService( final GameCodeService codeService, final GameStore store, final GameMetrics metrics,
+    final Clock clock, final long timeout, final int capacity, final int batchSize ) {
+    this.codeService = codeService;
+    this.store = store;
+    this.metrics = metrics;
+    this.clock = clock;
+    this.timeout = timeout;
+    this.pending = new ArrayBlockingQueue<>( capacity );
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Completes with the closed game once the player was paired and the game stored, with nothing when no other player
+   * arrived in time, or exceptionally with a {@link RejectedExecutionException} when too many games wait to be stored
+   */
+  public CompletableFuture<Optional<GameDetails>> match( final Hand player ) {
+    final Waiting arrived = new Waiting( player, clock.millis() + timeout );
+    while ( true ) {
+      final Waiting other = waiting.get();
+      if ( other == null ) {
+        if ( waiting.compareAndSet( null, arrived ) ) {
+          return arrived.result;
+        }
+      } else if ( waiting.compareAndSet( other, null ) && !other.result.isDone() ) {
+        /* A waiting player whose request was cancelled is dropped, and the next one is tried */
+        return pair( other, arrived );
+      }
+    }
+  }
+
+  private CompletableFuture<Optional<GameDetails>> pair( final Waiting player1, final Waiting player2 ) {
+    final Game game = new Game()
+      .setCode( codeService.nextCode( 8 ) )
+      .setPlayer1( player1.hand )
+      .setPlayer2( player2.hand )
+      .setOutcome( PvpOutcome.of( player1.hand, player2.hand ) )
+      .setState( CLOSED );
+
+    if ( !pending.offer( new Match( game, player1.result, player2.result ) ) ) {
+      final RejectedExecutionException rejected =
+        new RejectedExecutionException( String.format( "%d games are waiting to be stored", pending.size() ) );
+      player1.result.completeExceptionally( rejected );
+      player2.result.completeExceptionally( rejected );
+    }
+    return player2.result;
+  }
+
+  /* The single waiting player, if any, is the only one that can expire */
+  @Scheduled( fixedDelayString = "${game.match.sweep-interval:100}" )
+  public void expire() {
+    final Waiting other = waiting.get();
+    if ( other != null && other.expiresAt <= clock.millis() && waiting.compareAndSet( other, null ) ) {
+      other.result.complete( Optional.empty() );
+    }
+  }
+
+  @Scheduled( fixedDelayString = "${game.match.flush-interval:10}" )
+  public void flush() {
+    final List<Match> drained = new ArrayList<>( batchSize );
+    while ( pending.drainTo( drained, batchSize ) > 0 ) {
+      store( drained );
+      drained.clear();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    expire();
+    flush();
+  }
+
+  /* Replaces the codes that are already taken, and only stores these games again */
+  private void store( final List<Match> matches ) {
+    List<Match> remaining = matches;
+    for ( int attempt = 1; attempt <= MAX_CODE_ATTEMPTS && !remaining.isEmpty(); attempt++ ) {
+      final List<Match> retry = new ArrayList<>();
+      final Map<String, Match> byCode = new HashMap<>();
+      for ( final Match match : remaining ) {
+        if ( byCode.putIfAbsent( match.game.getCode(), match ) != null ) {
+          match.game.setCode( codeService.nextCode( 8 ) );
+          retry.add( match );
+        }
+      }
+
+      final Set<String> inserted;
+      try {
+        inserted = store.insertAll( byCode.values()
+          .stream()
+          .map( match -> match.game )
+          .collect( Collectors.toList() ) );
+      } catch ( final RuntimeException e ) {
+        log.error( "Failed to store {} matched games", byCode.size(), e );
+        fail( byCode.values(), e );
+        fail( retry, e );
+        return;
+      }
+
+      for ( final Match match : byCode.values() ) {
+        if ( inserted.contains( match.game.getCode() ) ) {
+          match.complete();
+          metrics.pvpCreated( match.game.getPlayer1() );
+          metrics.pvpClosed( match.game.getPlayer2(), match.game.getOutcome() );
+        } else {
+          match.game.setCode( codeService.nextCode( 8 ) );
+          retry.add( match );
+        }
+      }
+      remaining = retry;
+    }
+
+    if ( !remaining.isEmpty() ) {
+      fail( remaining, new IllegalStateException(
+        String.format( "Failed to find a free code for %d games after %d attempts", remaining.size(), MAX_CODE_ATTEMPTS ) ) );
+    }
+  }
+
+  private static void fail( final Iterable<Match> matches, final Throwable cause ) {
+    matches.forEach( match -> {
+      match.player1.completeExceptionally( cause );
+      match.player2.completeExceptionally( cause );
+    } );
+  }
+
+  private static class Waiting {
+    private final Hand hand;
+    private final long expiresAt;
+    private final CompletableFuture<Optional<GameDetails>> result = new CompletableFuture<>();
+
+    private Waiting( final Hand hand, final long expiresAt ) {
+      this.hand = hand;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private static class Match {
+    private final Game game;
+    private final CompletableFuture<Optional<GameDetails>> player1;
+    private final CompletableFuture<Optional<GameDetails>> player2;
+
+    private Match( final Game game, final CompletableFuture<Optional<GameDetails>> player1,
+      final CompletableFuture<Optional<GameDetails>> player2 ) {
+      this.game = game;
+      this.player1 = player1;
+      this.player2 = player2;
+    }
+
+    private void complete() {
+      final Optional<GameDetails> details = Optional.of( new GameDetails()
+        .setCode( game.getCode() )
+        .setPlayer1( game.getPlayer1() )
+        .setPlayer2( game.getPlayer2() )
+        .setOutcome( game.getOutcome() )
+        .setState( game.getState() ) );
+      player1.complete( details );
+      player2.complete( details );
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+
+/**
+ * Plays a random hand some of the time and the hand of the other strategy otherwise, so that a player who figured out
+ * the other strategy cannot exploit it every time
+ */
+public class MixedStrategy implements ComputerStrategy {
+
+  private static final int HANDS = Hand.values().length;
+
+  private final ComputerStrategy strategy;
+  private final int randomPercent;
+
+  public MixedStrategy( final ComputerStrategy strategy, final int randomPercent ) {
+    if ( randomPercent < 0 || randomPercent > 100 ) {
+      throw new IllegalArgumentException( String.format( "Cannot play %d%% of the hands at random", randomPercent ) );
+    }
+
+    this.strategy = strategy;
+    this.randomPercent = randomPercent;
+  }
+
+  @Override
+  public int stateSize() {
+    return strategy.stateSize();
+  }
+
+  @Override
+  public int play( final int[] state, final RandomService random ) {
+    return random.nextInt( 100 ) < randomPercent ? random.nextInt( HANDS ) : strategy.play( state, random );
+  }
+
+  @Override
+  public void learn( final int[] state, final int player ) {
+    strategy.learn( state, player );
+  }
+}
@@ -2,14 +2,16 @@ package demo.games.service;
 
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
-
 @Service
 public class RandomService {
 
-  public int nextInt( int bound ) {
-    return random.nextInt( bound );
+  private final RandomSource source;
+
+  public RandomService( final RandomSource source ) {
+    this.source = source;
   }
 
-  private final Random random = new Random();
+  public int nextInt( int bound ) {
+    return source.nextInt( bound );
+  }
 }
@@ -0,0 +1,10 @@
+package demo.games.service;
+
+/**
+ * Source of random numbers used by the {@link RandomService}.  Implementations are shared by all request threads and
+ * must be thread-safe.
+ */
+public interface RandomSource {
+
+  int nextInt( int bound );
+}
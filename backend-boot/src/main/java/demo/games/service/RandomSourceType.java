@@ -0,0 +1,18 @@
+package demo.games.service;
+
+public enum RandomSourceType {
+  THREAD_LOCAL,
+  SPLITTABLE,
+  SEEDED;
+
+  public RandomSource create( final long seed ) {
+    switch ( this ) {
+      case SPLITTABLE:
+        return new SplittableRandomSource();
+      case SEEDED:
+        return new SeededRandomSource( seed );
+      default:
+        return new ThreadLocalRandomSource();
+    }
+  }
+}
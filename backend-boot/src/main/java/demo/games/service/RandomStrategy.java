@@ -0,0 +1,23 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+
+/* Learns nothing, and cannot be beaten more than a third of the time either */
+public class RandomStrategy implements ComputerStrategy {
+
+  private static final int HANDS = Hand.values().length;
+
+  @Override
+  public int stateSize() {
+    return 0;
+  }
+
+  @Override
+  public int play( final int[] state, final RandomService random ) {
+    return random.nextInt( HANDS );
+  }
+
+  @Override
+  public void learn( final int[] state, final int player ) {
+  }
+}
@@ -0,0 +1,50 @@
+package demo.games.service;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws from one of a fixed number of {@link SecureRandom}s, and every draw provides eight characters of the code.
+ * Random codes may collide, so the caller must not overwrite a game that already has the returned code.
+ * <p>
+ * The generators are not kept per thread, as every request served on a virtual thread would then seed a new one.
+ */
+public class SecureRandomCodeGenerator implements GameCodeGenerator {
+
+  private static final int CHARACTERS_PER_DRAW = 8;
+
+  private final SecureRandom[] randoms;
+
+  public SecureRandomCodeGenerator() {
+    this( Runtime.getRuntime().availableProcessors() );
+  }
+
+  public SecureRandomCodeGenerator( final int generators ) {
+    this.randoms = new SecureRandom[generators];
+    for ( int i = 0; i < generators; i++ ) {
+      randoms[i] = create();
+    }
+  }
+
+  @Override
+  public String nextCode( final int length ) {
+    /* Spreads the threads over the generators, each of which is thread safe */
+    final SecureRandom random = randoms[ThreadLocalRandom.current().nextInt( randoms.length )];
+    final char[] code = new char[length];
+    for ( int offset = 0; offset < length; offset += CHARACTERS_PER_DRAW ) {
+      final long value = ( random.nextLong() >>> 1 ) % Base62.EIGHT_CHARACTERS;
+      Base62.encode( value, code, offset, Math.min( CHARACTERS_PER_DRAW, length - offset ) );
+    }
+    return new String( code );
+  }
+
+  /* NativePRNG, the default on Linux, makes all instances wait on one lock */
+  private static SecureRandom create() {
+    try {
+      return SecureRandom.getInstance( "DRBG" );
+    } catch ( final NoSuchAlgorithmException e ) {
+      return new SecureRandom();
+    }
+  }
+}
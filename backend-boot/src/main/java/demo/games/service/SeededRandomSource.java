@@ -0,0 +1,21 @@
+package demo.games.service;
+
+import java.util.Random;
+
+/**
+ * Returns the same sequence of numbers for the same seed, which makes games reproducible.  All threads share one
+ * generator, so this source is meant for tests and replays and not for serving traffic.
+ */
+public class SeededRandomSource implements RandomSource {
+
+  private final Random random;
+
+  public SeededRandomSource( final long seed ) {
+    this.random = new Random( seed );
+  }
+
+  @Override
+  public int nextInt( final int bound ) {
+    return random.nextInt( bound );
+  }
+}
@@ -0,0 +1,82 @@
+package demo.games.service;
+
+import demo.games.dao.Series;
+import demo.games.dao.SeriesStore;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.SeriesDetails;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static demo.games.service.GameService.TIMER;
+import static demo.games.service.GameService.insertWithFreeCode;
+
+/**
+ * Best-of-N series, played one round at a time.  A round is decided once both players played it, draws are played
+ * again, and the series is closed as soon as one of the players won the majority of the rounds.
+ */
+@Service
+public class SeriesService {
+
+  public static final int MAX_BEST_OF = 15;
+
+  private final GameCodeService codeService;
+  private final SeriesStore store;
+
+  public SeriesService( final GameCodeService codeService, final SeriesStore store ) {
+    this.codeService = codeService;
+    this.store = store;
+  }
+
+  /* An odd number of rounds, so that one of the players wins the majority */
+  public static boolean isValidBestOf( final int bestOf ) {
+    return bestOf > 0 && bestOf <= MAX_BEST_OF && bestOf % 2 == 1;
+  }
+
+  @Timed( value = TIMER, histogram = true )
+  public SeriesDetails createSeries( final int bestOf ) {
+    final Series series = insertWithFreeCode( codeService, "series",
+      code -> new Series().setCode( code ).setBestOf( bestOf ).setState( GameState.ACTIVE ), store::insert );
+    return toSeriesDetails( series );
+  }
+
+  /**
+   * Plays the hand of player 1 or 2 in the given round, and returns nothing when there is no such series, the series is
+   * closed, the round is not the one being played or the player already played it
+   */
+  @Timed( value = TIMER, histogram = true )
+  public Optional<SeriesDetails> playRound( final String code, final int round, final int player, final Hand hand ) {
+    return store.play( code, round, player, hand )
+      .map( SeriesService::toSeriesDetails );
+  }
+
+  @Timed( value = TIMER, histogram = true )
+  public Optional<SeriesDetails> findSeries( final String code ) {
+    return store.find( code )
+      .map( SeriesService::toSeriesDetails );
+  }
+
+  private static SeriesDetails toSeriesDetails( final Series series ) {
+    final List<Hand> player1 = new ArrayList<>( series.getRound() );
+    final List<Hand> player2 = new ArrayList<>( series.getRound() );
+    for ( int round = 0; round < series.getRound(); round++ ) {
+      player1.add( series.hand( 1, round ) );
+      player2.add( series.hand( 2, round ) );
+    }
+
+    return new SeriesDetails()
+      .setCode( series.getCode() )
+      .setBestOf( series.getBestOf() )
+      .setRound( series.getRound() )
+      .setPlayer1Wins( series.getWins1() )
+      .setPlayer2Wins( series.getWins2() )
+      .setPlayer1( player1 )
+      .setPlayer2( player2 )
+      .setOutcome( series.getOutcome() )
+      .setState( series.getState() );
+  }
+}
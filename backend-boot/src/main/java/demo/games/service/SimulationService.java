@@ -0,0 +1,182 @@
+package demo.games.service;
+
+import demo.games.model.PvcOutcome;
+import demo.games.model.SimulationRate;
+import demo.games.model.SimulationResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays simulated matches between two computer strategies, to compare these before configuring one.  The hands stay
+ * ordinals resolved with {@link PvcOutcome#resolve(int, int)}, each task reuses the same two state arrays for all its
+ * matches, and nothing is allocated per round, which makes billions of rounds a matter of seconds to minutes.
+ * <p>
+ * The matches are split over a fork-join pool, and every task plays with its own {@link SplittableRandom} split from
+ * the seed, so the same seed gives the same rates whatever the number of cores.  Both strategies start every match
+ * knowing nothing of the other one.  The confidence intervals are computed from how much the rates vary between the
+ * matches, as the rounds of one match depend on each other through what the strategies learned.
+ * <p>
+ * The pool is the service's own, with {@code game.simulation.parallelism} threads, so a simulation never takes the
+ * common pool from parallel streams and other fork-join work of the application.
+ */
+@Service
+public class SimulationService {
+
+  public static final int MAX_ROUNDS = 1 << 20;
+  public static final long MAX_TOTAL_ROUNDS = 1L << 40;
+
+  /* Below this many rounds a task plays its matches itself rather than splitting these further */
+  private static final long THRESHOLD = 1 << 20;
+  /* 95% confidence */
+  private static final double Z = 1.96;
+  private static final int OUTCOMES = PvcOutcome.values().length;
+
+  private final ForkJoinPool pool;
+
+  /* A parallelism of 0 uses all processors */
+  @Autowired
+  public SimulationService( final @Value( "${game.simulation.parallelism:0}" ) int parallelism ) {
+    this( new ForkJoinPool( parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors() ) );
+  }
+
+  SimulationService( final ForkJoinPool pool ) {
+    this.pool = pool;
+  }
+
+  @PreDestroy
+  public void close() {
+    pool.shutdownNow();
+  }
+
+  /* At least 2 matches, as the confidence intervals come from the spread between matches */
+  public static boolean isValid( final long matches, final int rounds ) {
+    return isValid( matches, rounds, MAX_TOTAL_ROUNDS );
+  }
+
+  /* As above, with fewer rounds in all for a caller that waits for the result */
+  public static boolean isValid( final long matches, final int rounds, final long maxTotalRounds ) {
+    return matches >= 2
+      && rounds >= 1 && rounds <= MAX_ROUNDS
+      && matches <= Math.min( maxTotalRounds, MAX_TOTAL_ROUNDS ) / rounds;
+  }
+
+  /**
+   * Plays the matches, where the first strategy plays the computer hand of {@link PvcOutcome} and the second one the
+   * player hand
+   */
+  public SimulationResult simulate( final ComputerStrategy strategy1, final ComputerStrategy strategy2,
+    final long matches, final int rounds, final long seed ) {
+    if ( !isValid( matches, rounds ) ) {
+      throw new IllegalArgumentException( String.format( "Cannot simulate %d matches of %d rounds", matches, rounds ) );
+    }
+
+    final long start = System.nanoTime();
+    final SplittableRandom random = new SplittableRandom( seed );
+    final Tally tally = pool.invoke( new Play( strategy1, strategy2, rounds, 0, matches, random ) );
+    return new SimulationResult()
+      .setMatches( matches )
+      .setRounds( rounds )
+      .setSeed( seed )
+      .setMillis( TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) )
+      .setStrategy1( rate( tally, PvcOutcome.COMPUTER_WIN, matches ) )
+      .setStrategy2( rate( tally, PvcOutcome.PLAYER_WIN, matches ) )
+      .setDraws( rate( tally, PvcOutcome.DRAW, matches ) );
+  }
+
+  /* All matches have the same number of rounds, so the mean of the match rates is the rate over all rounds */
+  private static SimulationRate rate( final Tally tally, final PvcOutcome outcome, final long matches ) {
+    final int i = outcome.ordinal();
+    final double mean = tally.sums[i] / matches;
+    final double variance = Math.max( 0, ( tally.squares[i] - matches * mean * mean ) / ( matches - 1 ) );
+    final double margin = Z * Math.sqrt( variance / matches );
+    return new SimulationRate( tally.counts[i], mean, Math.max( 0, mean - margin ), Math.min( 1, mean + margin ) );
+  }
+
+  /* Per outcome ordinal, the rounds, and the sum and sum of squares of the rates of the matches */
+  private static final class Tally {
+
+    private final long[] counts = new long[OUTCOMES];
+    private final double[] sums = new double[OUTCOMES];
+    private final double[] squares = new double[OUTCOMES];
+
+    private Tally add( final Tally other ) {
+      for ( int i = 0; i < OUTCOMES; i++ ) {
+        counts[i] += other.counts[i];
+        sums[i] += other.sums[i];
+        squares[i] += other.squares[i];
+      }
+      return this;
+    }
+  }
+
+  private static final class Play extends RecursiveTask<Tally> {
+
+    private final ComputerStrategy strategy1;
+    private final ComputerStrategy strategy2;
+    private final int rounds;
+    private final long from;
+    private final long to;
+    private final SplittableRandom random;
+
+    private Play( final ComputerStrategy strategy1, final ComputerStrategy strategy2, final int rounds,
+      final long from, final long to, final SplittableRandom random ) {
+      this.strategy1 = strategy1;
+      this.strategy2 = strategy2;
+      this.rounds = rounds;
+      this.from = from;
+      this.to = to;
+      this.random = random;
+    }
+
+    @Override
+    protected Tally compute() {
+      if ( to - from == 1 || ( to - from ) * rounds <= THRESHOLD ) {
+        return playAll();
+      }
+
+      /* Split before forking, so that which task gets which random does not depend on the scheduling */
+      final long middle = ( from + to ) >>> 1;
+      final Play left = new Play( strategy1, strategy2, rounds, from, middle, random.split() );
+      final Play right = new Play( strategy1, strategy2, rounds, middle, to, random );
+      left.fork();
+      return right.compute().add( left.join() );
+    }
+
+    private Tally playAll() {
+      final RandomService randomService = new RandomService( random::nextInt );
+      final int[] state1 = new int[strategy1.stateSize()];
+      final int[] state2 = new int[strategy2.stateSize()];
+      final int[] match = new int[OUTCOMES];
+      final Tally tally = new Tally();
+
+      for ( long i = from; i < to; i++ ) {
+        Arrays.fill( state1, 0 );
+        Arrays.fill( state2, 0 );
+        Arrays.fill( match, 0 );
+        for ( int round = 0; round < rounds; round++ ) {
+          final int hand1 = strategy1.play( state1, randomService );
+          final int hand2 = strategy2.play( state2, randomService );
+          strategy1.learn( state1, hand2 );
+          strategy2.learn( state2, hand1 );
+          match[PvcOutcome.resolve( hand1, hand2 )]++;
+        }
+
+        for ( int outcome = 0; outcome < OUTCOMES; outcome++ ) {
+          final double rate = (double) match[outcome] / rounds;
+          tally.counts[outcome] += match[outcome];
+          tally.sums[outcome] += rate;
+          tally.squares[outcome] += rate * rate;
+        }
+      }
+      return tally;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package demo.games.service;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Builds the codes from the seconds since {@link #EPOCH}, the node and a sequence within the second.  The result is
+ * scrambled by multiplying it with an odd number, which maps every id to a different code, so consecutive codes do not
+ * look alike.
+ * <p>
+ * Codes do not collide as long as every node is given a different number, there are at most 16 nodes, and the clock
+ * of a node does not go back across a restart.  A node hands out at most 8192 codes per second, and waits for the
+ * next second when it runs out of these rather than using seconds the clock has not reached yet.  The second a generator is created in
+ * is never used, as the process that ran before a restart may have handed out codes in that second.  The 30 bits of
+ * seconds last until 2054.
+ */
+public class SnowflakeCodeGenerator implements GameCodeGenerator {
+
+  public static final int NODE_BITS = 4;
+  public static final int SEQUENCE_BITS = 13;
+  public static final int MIN_LENGTH = 8;
+
+  private static final long EPOCH = Instant.parse( "2020-01-01T00:00:00Z" ).getEpochSecond();
+  private static final int ID_BITS = 30 + NODE_BITS + SEQUENCE_BITS;
+  private static final long ID_MASK = ( 1L << ID_BITS ) - 1;
+  private static final long SEQUENCE_MASK = ( 1L << SEQUENCE_BITS ) - 1;
+  private static final long SCRAMBLER = 0x5DEECE66DL;
+  private static final long MILLIS_PER_SECOND = TimeUnit.SECONDS.toMillis( 1 );
+
+  private final long node;
+  private final LongSupplier millis;
+  private final LongConsumer sleeper;
+
+  /* A lock rather than a monitor, as a virtual thread that sleeps inside synchronized keeps its carrier */
+  private final Lock lock = new ReentrantLock();
+  /* The second in the upper bits and the sequence in the lower bits, guarded by lock */
+  private long last;
+
+  public SnowflakeCodeGenerator( final int node ) {
+    this( node, System::currentTimeMillis, SnowflakeCodeGenerator::sleep );
+  }
+
+  SnowflakeCodeGenerator( final int node, final LongSupplier millis, final LongConsumer sleeper ) {
+    if ( node < 0 || node >= 1 << NODE_BITS ) {
+      throw new IllegalArgumentException( String.format( "The node must be between 0 and %d", ( 1 << NODE_BITS ) - 1 ) );
+    }
+
+    this.node = node;
+    this.millis = millis;
+    this.sleeper = sleeper;
+    this.last = second( millis.getAsLong() ) << SEQUENCE_BITS | SEQUENCE_MASK;
+  }
+
+  @Override
+  public String nextCode( final int length ) {
+    if ( length < MIN_LENGTH ) {
+      throw new IllegalArgumentException( String.format( "Codes must be at least %d characters long", MIN_LENGTH ) );
+    }
+
+    final long next = next();
+    final long second = next >>> SEQUENCE_BITS;
+    final long id = ( ( second << NODE_BITS | node ) << SEQUENCE_BITS ) | ( next & SEQUENCE_MASK );
+
+    final char[] code = new char[length];
+    Arrays.fill( code, Base62.ALPHABET[0] );
+    Base62.encode( ( id * SCRAMBLER ) & ID_MASK, code, length - MIN_LENGTH, MIN_LENGTH );
+    return new String( code );
+  }
+
+  private long next() {
+    lock.lock();
+    try {
+      while ( true ) {
+        final long now = millis.getAsLong();
+        final long second = second( now );
+        final long lastSecond = last >>> SEQUENCE_BITS;
+        if ( second > lastSecond ) {
+          last = second << SEQUENCE_BITS;
+          return last;
+        }
+
+        /* When the clock went back, the rest of the last second is still this generator's to use */
+        if ( ( last & SEQUENCE_MASK ) < SEQUENCE_MASK ) {
+          return ++last;
+        }
+
+        /* Out of sequence numbers, the other threads wait for the lock meanwhile */
+        sleeper.accept( ( lastSecond + 1 + EPOCH ) * MILLIS_PER_SECOND - now );
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static long second( final long millis ) {
+    return millis / MILLIS_PER_SECOND - EPOCH;
+  }
+
+  private static void sleep( final long millis ) {
+    try {
+      Thread.sleep( millis );
+    } catch ( final InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException( "Interrupted while waiting for the next second", e );
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package demo.games.service;
+
+import java.util.SplittableRandom;
+
+/**
+ * Each thread is given its own {@link SplittableRandom}, split from a common root the first time the thread asks for
+ * a number.  Only the split is synchronised, after that the thread never contends with other threads.
+ */
+public class SplittableRandomSource implements RandomSource {
+
+  private final SplittableRandom root;
+  private final ThreadLocal<SplittableRandom> random = ThreadLocal.withInitial( this::split );
+
+  public SplittableRandomSource() {
+    this( new SplittableRandom() );
+  }
+
+  public SplittableRandomSource( final SplittableRandom root ) {
+    this.root = root;
+  }
+
+  @Override
+  public int nextInt( final int bound ) {
+    return random.get().nextInt( bound );
+  }
+
+  private synchronized SplittableRandom split() {
+    return root.split();
+  }
+}
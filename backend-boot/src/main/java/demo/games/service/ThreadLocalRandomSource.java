@@ -0,0 +1,14 @@
+package demo.games.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Each thread draws from its own generator, so request threads never contend on a shared seed.
+ */
+public class ThreadLocalRandomSource implements RandomSource {
+
+  @Override
+  public int nextInt( final int bound ) {
+    return ThreadLocalRandom.current().nextInt( bound );
+  }
+}
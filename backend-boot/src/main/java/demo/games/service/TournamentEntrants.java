@@ -0,0 +1,34 @@
+package demo.games.service;
+
+import demo.games.model.TournamentEntrant;
+
+import java.util.function.Consumer;
+
+/**
+ * A copy of the scores and opponents of all entrants, taken at once so that a slow reader does not hold up the
+ * tournament.  The opponents are {@code null} for a closed tournament, where no entrant has one.
+ */
+public class TournamentEntrants {
+
+  private final int[] scores;
+  private final int[] opponents;
+
+  public TournamentEntrants( final int[] scores, final int[] opponents ) {
+    this.scores = scores;
+    this.opponents = opponents;
+  }
+
+  public int size() {
+    return scores.length;
+  }
+
+  /**
+   * Passes every entrant, in seed order, to the consumer
+   */
+  public void forEach( final Consumer<TournamentEntrant> consumer ) {
+    for ( int seed = 0; seed < scores.length; seed++ ) {
+      final int opponent = opponents == null ? Bracket.NONE : opponents[seed];
+      consumer.accept( new TournamentEntrant( seed, scores[seed], opponent == Bracket.NONE ? null : opponent ) );
+    }
+  }
+}
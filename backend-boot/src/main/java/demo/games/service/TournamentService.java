@@ -0,0 +1,251 @@
+package demo.games.service;
+
+import demo.games.dao.Tournament;
+import demo.games.dao.TournamentStore;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.TournamentDetails;
+import demo.games.model.TournamentFormat;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static demo.games.service.GameService.TIMER;
+import static demo.games.service.GameService.insertWithFreeCode;
+
+/**
+ * Runs the tournaments in memory, with each decided round written to the store as one batch.  A tournament that is not
+ * in memory, for example after a restart, is rebuilt from its stored rounds.  The tournaments are not shared between
+ * nodes, so all requests of a tournament have to reach the same node.
+ * <p>
+ * A tournament stays in memory until it is closed, as the hands played in a round that was not resolved yet are only
+ * kept there.  New tournaments are refused once their entrants would take the entrants in memory, summed over all
+ * tournaments, above {@code game.tournament.max-entrants-in-memory}.  A tournament rebuilt after a restart is always
+ * taken, as it was let in before.  A closed tournament no longer changes, and only its winner and final scores are kept,
+ * in the store.
+ */
+@Slf4j
+@Service
+public class TournamentService {
+
+  public static final int MAX_ENTRANTS = 1 << 20;
+  public static final int MAX_SWISS_ROUNDS = 64;
+
+  private final GameCodeService codeService;
+  private final TournamentStore store;
+  private final ForkJoinPool pool;
+  private final long maxEntrantsInMemory;
+  private final Map<String, Bracket> brackets = new ConcurrentHashMap<>();
+  /* The entrants of the brackets in memory, counted before a new bracket is allocated */
+  private final AtomicLong entrantsInMemory = new AtomicLong();
+
+  @Autowired
+  public TournamentService( final GameCodeService codeService, final TournamentStore store,
+    final @Value( "${game.tournament.max-entrants-in-memory:8388608}" ) long maxEntrantsInMemory ) {
+    this( codeService, store, ForkJoinPool.commonPool(), maxEntrantsInMemory );
+  }
+
+  TournamentService( final GameCodeService codeService, final TournamentStore store, final ForkJoinPool pool,
+    final long maxEntrantsInMemory ) {
+    this.codeService = codeService;
+    this.store = store;
+    this.pool = pool;
+    this.maxEntrantsInMemory = maxEntrantsInMemory;
+  }
+
+  public static boolean isValid( final TournamentFormat format, final int entrants, final int rounds ) {
+    return format != null
+      && entrants >= 2 && entrants <= MAX_ENTRANTS
+      && rounds >= 0 && rounds <= MAX_SWISS_ROUNDS
+      && ( format == TournamentFormat.SWISS || rounds == 0 );
+  }
+
+  /**
+   * Creates the tournament, and throws a {@link RejectedExecutionException} when there is no room for its entrants in
+   * memory.  The bracket is only allocated once the code is stored.
+   */
+  @Timed( value = TIMER, histogram = true )
+  public TournamentDetails createTournament( final TournamentFormat format, final int entrants, final int rounds ) {
+    final long reserved = entrantsInMemory.addAndGet( entrants );
+    if ( reserved > maxEntrantsInMemory ) {
+      entrantsInMemory.addAndGet( -entrants );
+      throw new RejectedExecutionException(
+        String.format( "%d entrants are in memory, there is no room for %d more", reserved - entrants, entrants ) );
+    }
+
+    boolean created = false;
+    try {
+      final Tournament tournament = insertWithFreeCode( codeService, "tournament", code -> new Tournament()
+        .setCode( code )
+        .setFormat( format )
+        .setEntrants( entrants )
+        .setRounds( Bracket.rounds( format, entrants, rounds ) ), store::insert );
+      final Bracket bracket = new Bracket( tournament.getCode(), format, entrants, rounds, pool );
+      brackets.put( bracket.getCode(), bracket );
+      created = true;
+      return toTournamentDetails( bracket );
+    } finally {
+      if ( !created ) {
+        entrantsInMemory.addAndGet( -entrants );
+      }
+    }
+  }
+
+  /**
+   * Plays the hands of the given entrants, and returns {@code false} when none of these were played because the round
+   * is not the one being played or one of the entrants has no opponent in it.  Returns nothing when there is no such
+   * tournament.
+   */
+  @Timed( value = TIMER, histogram = true )
+  public Optional<Boolean> playRound( final String code, final int round, final Map<Integer, Hand> played ) {
+    final int[] entrants = new int[played.size()];
+    final Hand[] hands = new Hand[played.size()];
+    int i = 0;
+    for ( final Map.Entry<Integer, Hand> entry : played.entrySet() ) {
+      entrants[i] = entry.getKey();
+      hands[i++] = entry.getValue();
+    }
+
+    return apply( code, bracket -> bracket.play( round, entrants, hands ), tournament -> false );
+  }
+
+  /**
+   * Resolves all pairings of the round at once and writes the round as one batch, and returns {@code false} when the
+   * round is not the one being played.  The results are written and the bracket is dropped once the last round is
+   * resolved.  Returns nothing when there is no such tournament.
+   */
+  @Timed( value = TIMER, histogram = true )
+  public Optional<Boolean> resolveRound( final String code, final int round ) {
+    return apply( code, bracket -> {
+      final boolean resolved = bracket.resolve( round, ( hands, played ) -> store.insertRound( code, played, hands ) );
+      if ( resolved && bracket.isClosed() ) {
+        close( bracket );
+      }
+      return resolved;
+    }, tournament -> false );
+  }
+
+  @Timed( value = TIMER, histogram = true )
+  public Optional<TournamentDetails> findTournament( final String code ) {
+    return apply( code, TournamentService::toTournamentDetails, TournamentService::toTournamentDetails );
+  }
+
+  /**
+   * Returns a copy of the state of all entrants, or nothing when there is no such tournament
+   */
+  public Optional<TournamentEntrants> findEntrants( final String code ) {
+    return apply( code, bracket -> {
+      final int[] scores = new int[bracket.getEntrants()];
+      final int[] opponents = new int[bracket.getEntrants()];
+      bracket.copyState( scores, opponents );
+      return new TournamentEntrants( scores, opponents );
+    }, tournament -> {
+      final byte[] packed = store.findScores( code ).orElseThrow( () ->
+        new IllegalStateException( String.format( "The scores of the closed tournament %s are missing", code ) ) );
+      final int[] scores = new int[packed.length];
+      for ( int seed = 0; seed < packed.length; seed++ ) {
+        scores[seed] = Byte.toUnsignedInt( packed[seed] );
+      }
+      return new TournamentEntrants( scores, null );
+    } );
+  }
+
+  long countTournamentsInMemory() {
+    return brackets.size();
+  }
+
+  long countEntrantsInMemory() {
+    return entrantsInMemory.get();
+  }
+
+  /**
+   * Applies the first function to the bracket of an active tournament, rebuilt from its rounds when it is not in memory,
+   * and the second one to a closed tournament as stored.  Returns nothing when there is no such tournament.
+   */
+  private <T> Optional<T> apply( final String code, final Function<Bracket, T> active,
+    final Function<Tournament, T> closed ) {
+    final Bracket bracket = brackets.get( code );
+    if ( bracket != null ) {
+      return Optional.of( active.apply( bracket ) );
+    }
+
+    return store.find( code ).map( tournament -> {
+      if ( tournament.getWinner() != null ) {
+        return closed.apply( tournament );
+      }
+
+      final Bracket loaded = brackets.computeIfAbsent( code, this::load );
+      if ( loaded != null && !loaded.isClosed() ) {
+        return active.apply( loaded );
+      }
+
+      if ( loaded != null ) {
+        /* All rounds were written, but the application stopped before the results were */
+        close( loaded );
+      }
+      return closed.apply( store.find( code ).orElseThrow() );
+    } );
+  }
+
+  private void close( final Bracket bracket ) {
+    final int[] scores = new int[bracket.getEntrants()];
+    bracket.copyScores( scores );
+    final byte[] packed = new byte[scores.length];
+    for ( int seed = 0; seed < scores.length; seed++ ) {
+      packed[seed] = (byte) scores[seed];
+    }
+
+    store.close( bracket.getCode(), bracket.getWinner(), packed );
+    if ( brackets.remove( bracket.getCode(), bracket ) ) {
+      entrantsInMemory.addAndGet( -bracket.getEntrants() );
+    }
+  }
+
+  /* Reads the tournament again, and returns null when it was closed since it was read before */
+  private Bracket load( final String code ) {
+    final Tournament tournament = store.find( code ).orElseThrow();
+    if ( tournament.getWinner() != null ) {
+      return null;
+    }
+
+    final Bracket bracket = new Bracket( code, tournament.getFormat(), tournament.getEntrants(), tournament.getRounds(),
+      pool );
+    store.findRounds( code ).forEach( bracket::replay );
+    entrantsInMemory.addAndGet( bracket.getEntrants() );
+    log.info( "Rebuilt tournament {} from {} rounds", code, bracket.getRound() );
+    return bracket;
+  }
+
+  private static TournamentDetails toTournamentDetails( final Tournament tournament ) {
+    return new TournamentDetails()
+      .setCode( tournament.getCode() )
+      .setFormat( tournament.getFormat() )
+      .setEntrants( tournament.getEntrants() )
+      .setRounds( tournament.getRounds() )
+      .setRound( tournament.getRounds() )
+      .setState( GameState.CLOSED )
+      .setWinner( tournament.getWinner() );
+  }
+
+  private static TournamentDetails toTournamentDetails( final Bracket bracket ) {
+    final int winner = bracket.getWinner();
+    return new TournamentDetails()
+      .setCode( bracket.getCode() )
+      .setFormat( bracket.getFormat() )
+      .setEntrants( bracket.getEntrants() )
+      .setRounds( bracket.getRounds() )
+      .setRound( bracket.getRound() )
+      .setState( winner == Bracket.NONE ? GameState.ACTIVE : GameState.CLOSED )
+      .setWinner( winner == Bracket.NONE ? null : winner );
+  }
+}
@@ -0,0 +1,26 @@
+-- Hands, states and outcomes are stored as the ordinal of their enum
+--   hand:    0 ROCK, 1 PAPER, 2 SCISSORS
+--   state:   0 ACTIVE, 1 CLOSED
+--   outcome: 0 PLAYER_1_WIN, 1 PLAYER_2_WIN, 2 DRAW
+ALTER TABLE "games" ALTER COLUMN "state" DROP DEFAULT;
+
+ALTER TABLE "games"
+  ALTER COLUMN "player_1" TYPE SMALLINT
+    USING CASE trim("player_1") WHEN 'ROCK' THEN 0 WHEN 'PAPER' THEN 1 WHEN 'SCISSORS' THEN 2 END,
+  ALTER COLUMN "player_2" TYPE SMALLINT
+    USING CASE trim("player_2") WHEN 'ROCK' THEN 0 WHEN 'PAPER' THEN 1 WHEN 'SCISSORS' THEN 2 END,
+  ALTER COLUMN "state" TYPE SMALLINT
+    USING CASE trim("state") WHEN 'ACTIVE' THEN 0 WHEN 'CLOSED' THEN 1 END,
+  ALTER COLUMN "outcome" TYPE SMALLINT
+    USING CASE trim("outcome") WHEN 'PLAYER_1_WIN' THEN 0 WHEN 'PLAYER_2_WIN' THEN 1 WHEN 'DRAW' THEN 2 END;
+
+ALTER TABLE "games" ALTER COLUMN "state" SET DEFAULT 0;
+ALTER TABLE "games" ALTER COLUMN "state" SET NOT NULL;
+
+-- Games that existed before this migration were created now, as far as we know, and their closing time is unknown
+ALTER TABLE "games"
+  ADD COLUMN "created_at" TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+  ADD COLUMN "closed_at"  TIMESTAMP WITH TIME ZONE;
+
+-- Only a small part of the games is active, and these are looked up all the time
+CREATE INDEX "games_active_idx" ON "games" ("code") WHERE "state" = 0;
@@ -0,0 +1,8 @@
+-- Closed games are moved here once they are old enough, which keeps the games table small
+CREATE TABLE "games_archive" (
+  LIKE "games" INCLUDING DEFAULTS,
+  PRIMARY KEY ("code")
+);
+
+-- The archive job picks the oldest closed games
+CREATE INDEX "games_closed_at_idx" ON "games" ("closed_at") WHERE "state" = 1;
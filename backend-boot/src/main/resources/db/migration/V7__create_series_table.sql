@@ -0,0 +1,17 @@
+-- A best-of-N series between two players, played one round at a time
+--   hands_1, hands_2: two bits per round, round r at bit 2r, 0 while not played and the hand ordinal plus 1 once played
+--   round:            the number of decided rounds, which is also the round being played
+--   wins_1, wins_2:   the rounds won by each player, draws are played again
+CREATE TABLE "series" (
+  "code"       CHAR(8)                  PRIMARY KEY,
+  "best_of"    SMALLINT                 NOT NULL,
+  "hands_1"    BIGINT                   NOT NULL DEFAULT 0,
+  "hands_2"    BIGINT                   NOT NULL DEFAULT 0,
+  "round"      SMALLINT                 NOT NULL DEFAULT 0,
+  "wins_1"     SMALLINT                 NOT NULL DEFAULT 0,
+  "wins_2"     SMALLINT                 NOT NULL DEFAULT 0,
+  "state"      SMALLINT                 NOT NULL DEFAULT 0,
+  "outcome"    SMALLINT,
+  "created_at" TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+  "closed_at"  TIMESTAMP WITH TIME ZONE
+);
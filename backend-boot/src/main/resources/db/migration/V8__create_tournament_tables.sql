@@ -0,0 +1,18 @@
+-- The format is stored as the ordinal of its enum: 0 SINGLE_ELIMINATION, 1 SWISS
+CREATE TABLE "tournaments" (
+  "code"       CHAR(8)                  PRIMARY KEY,
+  "format"     SMALLINT                 NOT NULL,
+  "entrants"   INTEGER                  NOT NULL,
+  "rounds"     SMALLINT                 NOT NULL,
+  "created_at" TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+-- One row per decided round, with the hand of every entrant (one byte per entrant in seed order, 0 when the entrant did
+-- not play and the hand ordinal plus 1 otherwise).  The pairings and the outcomes follow from the hands, so the bracket
+-- is rebuilt by playing the rounds again.
+CREATE TABLE "tournament_rounds" (
+  "code"  CHAR(8)  NOT NULL REFERENCES "tournaments" ("code"),
+  "round" SMALLINT NOT NULL,
+  "hands" BYTEA    NOT NULL,
+  PRIMARY KEY ("code", "round")
+);
@@ -0,0 +1,4 @@
+-- Set when the last round is decided, so that a closed tournament is read without playing its rounds again.  The scores
+-- are one unsigned byte per entrant in seed order.
+ALTER TABLE "tournaments" ADD COLUMN "winner" INTEGER;
+ALTER TABLE "tournaments" ADD COLUMN "scores" BYTEA;
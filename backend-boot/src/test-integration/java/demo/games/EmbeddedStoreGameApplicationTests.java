@@ -0,0 +1,72 @@
+package demo.games;
+
+import demo.games.dao.EmbeddedGameStore;
+import demo.games.dao.GameStore;
+import demo.games.model.ActiveGame;
+import demo.games.model.CreateGame;
+import demo.games.model.GameDetails;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PlayGame;
+import demo.games.model.PvpOutcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+@DisplayName( "PvP game application with the embedded store" )
+@ActiveProfiles( "embedded" )
+@SpringBootTest( webEnvironment = WebEnvironment.RANDOM_PORT )
+public class EmbeddedStoreGameApplicationTests {
+
+  @TempDir
+  static Path directory;
+
+  @DynamicPropertySource
+  static void embeddedStoreProperties( final DynamicPropertyRegistry registry ) {
+    registry.add( "game.store.embedded.path", () -> directory.resolve( "games.log" ).toString() );
+  }
+
+  @Test
+  @DisplayName( "should create and close a game without a database" )
+  public void shouldCreateAndCloseGame() {
+    assertThat( store ).isInstanceOf( EmbeddedGameStore.class );
+
+    final ResponseEntity<ActiveGame> created =
+      restTemplate.postForEntity( "/pvp", new CreateGame( Hand.ROCK ), ActiveGame.class );
+    assertThat( created.getStatusCode() ).isSameAs( HttpStatus.CREATED );
+    final String code = created.getBody().getCode();
+
+    final GameDetails active = restTemplate.getForObject( String.format( "/pvp/%s", code ), GameDetails.class );
+    assertThat( active.getState() ).isSameAs( GameState.ACTIVE );
+
+    restTemplate.put( String.format( "/pvp/%s", code ), new PlayGame( Hand.SCISSORS ) );
+
+    final GameDetails closed = restTemplate.getForObject( String.format( "/pvp/%s", code ), GameDetails.class );
+    assertThat( closed.getState() ).isSameAs( GameState.CLOSED );
+    assertThat( closed.getPlayer1() ).isSameAs( Hand.ROCK );
+    assertThat( closed.getPlayer2() ).isSameAs( Hand.SCISSORS );
+    assertThat( closed.getOutcome() ).isSameAs( PvpOutcome.PLAYER_1_WIN );
+
+    assertThat( Files.exists( directory.resolve( "games.log" ) ) ).isTrue();
+  }
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Autowired
+  private GameStore store;
+}
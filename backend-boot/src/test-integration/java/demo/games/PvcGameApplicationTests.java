@@ -1,6 +1,9 @@
 package demo.games;
 
+import demo.games.model.BatchStrategy;
 import demo.games.model.Hand;
+import demo.games.model.PlayBatch;
+import demo.games.model.PvcBatchResult;
 import demo.games.model.PvcGameResult;
 import demo.games.model.PvcOutcome;
 import demo.games.model.RandomHand;
@@ -46,10 +49,32 @@ public class PvcGameApplicationTests {
       .isIn( outcomes );
   }
 
+  @Test
+  @DisplayName( "should play a batch against computer" )
+  public void shouldPlayBatchAgainstComputer() {
+    final int rounds = 1_000;
+
+    final PvcBatchResult result =
+      this.restTemplate.postForObject( pvcBatchPath(), new PlayBatch( null, rounds, BatchStrategy.CYCLE ), PvcBatchResult.class );
+
+    assertThat( result.getComputer() ).hasSize( rounds );
+    assertThat( result.getPlayer() ).hasSize( rounds );
+    assertThat( result.getOutcomes() ).hasSize( rounds );
+    for ( int i = 0; i < rounds; i++ ) {
+      assertThat( result.getOutcomes().get( i ) )
+        .isSameAs( PvcOutcome.of( result.getComputer().get( i ), result.getPlayer().get( i ) ) );
+    }
+    assertThat( result.getPlayerWins() + result.getComputerWins() + result.getDraws() ).isEqualTo( rounds );
+  }
+
   private String pvcPath( final Hand player ) {
     return String.format( "/pvc/%s", player.name() );
   }
 
+  private String pvcBatchPath() {
+    return "/pvc/batch";
+  }
+
   private String randomHandPath() {
     return "/randomHand";
   }
@@ -3,6 +3,7 @@ package demo.games;
 import demo.games.model.ActiveGame;
 import demo.games.model.AllGames;
 import demo.games.model.CreateGame;
+import demo.games.model.FindMatch;
 import demo.games.model.GameDetails;
 import demo.games.model.GameState;
 import demo.games.model.Hand;
@@ -21,9 +22,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -53,6 +60,72 @@ public class PvpGameApplicationTests {
     fetchSingleGameAndAssertThatGameIsNowClosed( code, player1, player2 );
   }
 
+  @Test
+  @DisplayName( "should close the game only once when many players join at the same time" )
+  public void shouldCloseGameOnlyOnce() throws Exception {
+    final int players = 32;
+    final Hand player1 = Hand.ROCK;
+    final String code = createGameAndAssertReturnedCodeAndReturnCode( player1 );
+
+    final ExecutorService executor = Executors.newFixedThreadPool( players );
+    try {
+      final CountDownLatch start = new CountDownLatch( 1 );
+      final List<Future<ResponseEntity<GameDetails>>> joins = new ArrayList<>( players );
+      for ( int i = 0; i < players; i++ ) {
+        final Hand player2 = Hand.values()[i % Hand.values().length];
+        joins.add( executor.submit( () -> {
+          start.await();
+          return playGame( code, player2 );
+        } ) );
+      }
+      start.countDown();
+
+      final List<GameDetails> closed = new ArrayList<>();
+      for ( final Future<ResponseEntity<GameDetails>> join : joins ) {
+        final ResponseEntity<GameDetails> entity = join.get();
+        if ( entity.getStatusCode() == HttpStatus.OK ) {
+          closed.add( entity.getBody() );
+        } else {
+          assertEquals( HttpStatus.NOT_FOUND, entity.getStatusCode() );
+        }
+      }
+
+      assertEquals( 1, closed.size() );
+      final GameDetails winner = closed.get( 0 );
+      fetchSingleGameAndAssertThatGameIsNowClosed( code, player1, winner.getPlayer2() );
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName( "should pair two players looking for a match and store the closed game" )
+  public void shouldPairPlayersLookingForAMatch() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+    try {
+      final Future<ResponseEntity<GameDetails>> rock = executor.submit( () -> findMatch( Hand.ROCK ) );
+      final Future<ResponseEntity<GameDetails>> paper = executor.submit( () -> findMatch( Hand.PAPER ) );
+
+      assertEquals( HttpStatus.OK, rock.get().getStatusCode() );
+      assertEquals( HttpStatus.OK, paper.get().getStatusCode() );
+      final GameDetails game = rock.get().getBody();
+      assertNotNull( game );
+      assertEquals( game, paper.get().getBody() );
+
+      /* Whoever arrived first waited, and is player 1 */
+      final Hand player1 = game.getPlayer1();
+      final Hand player2 = player1 == Hand.ROCK ? Hand.PAPER : Hand.ROCK;
+      assertClosedGame( game.getCode(), player1, player2, game );
+      fetchSingleGameAndAssertThatGameIsNowClosed( game.getCode(), player1, player2 );
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private ResponseEntity<GameDetails> findMatch( final Hand player ) {
+    return restTemplate.postForEntity( matchPath(), new FindMatch( player ), GameDetails.class );
+  }
+
   private String createGameAndAssertReturnedCodeAndReturnCode( final Hand player1 ) {
     final ResponseEntity<ActiveGame> entity =
       restTemplate.postForEntity( newGamePath(), new CreateGame( player1 ), ActiveGame.class );
@@ -89,16 +162,7 @@ public class PvpGameApplicationTests {
   }
 
   private void playGameAndAssertResult( final Hand player1, final Hand player2, final String code ) {
-    final HttpHeaders headers = new HttpHeaders();
-    headers.setContentType( MediaType.APPLICATION_JSON );
-
-    final ResponseEntity<GameDetails> entity =
-      restTemplate.exchange(
-        gameDetailsPath( code ),
-        HttpMethod.PUT,
-        new HttpEntity<>( new PlayGame( player2 ), headers ),
-        GameDetails.class
-      );
+    final ResponseEntity<GameDetails> entity = playGame( code, player2 );
 
     assertNotNull( entity );
     assertEquals( HttpStatus.OK, entity.getStatusCode() );
@@ -112,6 +176,18 @@ public class PvpGameApplicationTests {
     assertEquals( GameState.CLOSED, closedGame.getState() );
   }
 
+  private ResponseEntity<GameDetails> playGame( final String code, final Hand player2 ) {
+    final HttpHeaders headers = new HttpHeaders();
+    headers.setContentType( MediaType.APPLICATION_JSON );
+
+    return restTemplate.exchange(
+      gameDetailsPath( code ),
+      HttpMethod.PUT,
+      new HttpEntity<>( new PlayGame( player2 ), headers ),
+      GameDetails.class
+    );
+  }
+
   private void listAllGamesAndAssertThatGameIsOnlyInClosedList( final String code, final Hand player1, final Hand player2 ) {
     final AllGames games = restTemplate.getForObject( listAllPath(), AllGames.class );
     assertNotNull( games );
@@ -149,6 +225,10 @@ public class PvpGameApplicationTests {
     return "/pvp";
   }
 
+  private String matchPath() {
+    return "/pvp/match";
+  }
+
   private String listActivePath() {
     return "/pvp/list/active";
   }
@@ -0,0 +1,90 @@
+package demo.games;
+
+import demo.games.model.ActiveGame;
+import demo.games.model.CreateGame;
+import demo.games.model.GamePage;
+import demo.games.model.Hand;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+@DisplayName( "PvP game listing application" )
+@SpringBootTest( webEnvironment = WebEnvironment.RANDOM_PORT )
+public class PvpListGameApplicationTests {
+
+  private static final ParameterizedTypeReference<GamePage<ActiveGame>> ACTIVE_PAGE =
+    new ParameterizedTypeReference<>() {};
+
+  @Test
+  @DisplayName( "should page through all active games" )
+  public void shouldPageThroughActiveGames() {
+    final Set<String> created = createGames( 25 );
+
+    final List<String> observed = new ArrayList<>();
+    String after = "";
+    do {
+      final GamePage<ActiveGame> page = restTemplate
+        .exchange( pageActivePath( after, 10 ), HttpMethod.GET, null, ACTIVE_PAGE )
+        .getBody();
+      assertThat( page ).isNotNull();
+      assertThat( page.getGames().size() ).isLessThanOrEqualTo( 10 );
+      page.getGames().forEach( game -> observed.add( game.getCode() ) );
+      after = page.getNext();
+    } while ( after != null );
+
+    assertThat( observed ).containsAll( created );
+    assertThat( new HashSet<>( observed ) ).hasSameSizeAs( observed );
+  }
+
+  @Test
+  @DisplayName( "should stream all active games as newline delimited JSON" )
+  public void shouldStreamActiveGames() {
+    final Set<String> created = createGames( 5 );
+
+    final String body = restTemplate.getForObject( streamActivePath(), String.class );
+    assertThat( body ).isNotNull();
+
+    final List<String> codes = Arrays.stream( body.split( "\n" ) )
+      .map( line -> line.replaceAll( "\\{\"code\":\"([^\"]+)\"}", "$1" ) )
+      .collect( Collectors.toList() );
+    assertThat( codes ).containsAll( created );
+  }
+
+  private Set<String> createGames( final int number ) {
+    return IntStream.range( 0, number )
+      .mapToObj( i -> restTemplate.postForObject( newGamePath(), new CreateGame( Hand.PAPER ), ActiveGame.class ) )
+      .map( ActiveGame::getCode )
+      .collect( Collectors.toSet() );
+  }
+
+  private String newGamePath() {
+    return "/pvp";
+  }
+
+  private String pageActivePath( final String after, final int limit ) {
+    return String.format( "/pvp/page/active?after=%s&limit=%d", after, limit );
+  }
+
+  private String streamActivePath() {
+    return "/pvp/stream/active";
+  }
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+}
@@ -0,0 +1,134 @@
+package demo.games;
+
+import demo.games.SlowDatabaseConfiguration.SlowDatabase;
+import demo.games.model.ActiveGame;
+import demo.games.model.CreateGame;
+import demo.games.model.Hand;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+/**
+ * Sends {@link #CONCURRENT_REQUESTS} requests at the same time, a number of rounds in a row, each reading a game from a
+ * slow database.  There are more connections than Tomcat threads, so with platform threads the threads are the limit
+ * on the number of requests served at the same time, and with virtual threads the connections are.
+ * <p>
+ * The number of requests served at the same time, the throughput and the latency percentiles are logged, to compare
+ * both modes.
+ */
+@Import( SlowDatabaseConfiguration.class )
+@SpringBootTest( webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+  "server.tomcat.threads.max=" + PvpLoadApplicationTests.TOMCAT_THREADS,
+  "spring.datasource.hikari.maximum-pool-size=" + PvpLoadApplicationTests.CONNECTIONS,
+  "spring.datasource.hikari.minimum-idle=" + PvpLoadApplicationTests.CONNECTIONS
+} )
+/* Closes the connections once done, as the database only accepts a limited number */
+@DirtiesContext
+public abstract class PvpLoadApplicationTests {
+
+  static final int TOMCAT_THREADS = 10;
+  static final int CONNECTIONS = 30;
+  static final int CONCURRENT_REQUESTS = 90;
+  static final int ROUNDS = 10;
+
+  private static final Logger log = LoggerFactory.getLogger( PvpLoadApplicationTests.class );
+
+  private final boolean virtual;
+
+  protected PvpLoadApplicationTests( final boolean virtual ) {
+    this.virtual = virtual;
+  }
+
+  @Test
+  @DisplayName( "should serve concurrent requests reading from a slow database" )
+  public void shouldServeConcurrentRequests() {
+    final String code = restTemplate.postForObject( "/pvp", new CreateGame( Hand.ROCK ), ActiveGame.class ).getCode();
+    final HttpRequest request = HttpRequest.newBuilder( URI.create( String.format( "http://localhost:%d/pvp/%s", port, code ) ) )
+      .timeout( Duration.ofSeconds( 30 ) )
+      .build();
+
+    /* Warm up, so that the first round does not include starting the threads and opening the connections */
+    load( request, 1 );
+
+    slowDatabase.slow( true );
+    final long started = System.nanoTime();
+    final List<Long> latencies;
+    try {
+      latencies = load( request, ROUNDS );
+    } finally {
+      slowDatabase.slow( false );
+    }
+    final double seconds = ( System.nanoTime() - started ) / 1e9;
+
+    Collections.sort( latencies );
+    log.info( "{} threads: {} requests served at the same time, {} requests/s, p50 {} ms, p99 {} ms",
+      virtual ? "Virtual" : "Platform", slowDatabase.maxRunning(), Math.round( latencies.size() / seconds ),
+      percentile( latencies, 0.50 ), percentile( latencies, 0.99 ) );
+
+    if ( virtual ) {
+      assertThat( slowDatabase.maxRunning() ).isGreaterThan( TOMCAT_THREADS );
+    } else {
+      assertThat( slowDatabase.maxRunning() ).isLessThanOrEqualTo( TOMCAT_THREADS );
+    }
+  }
+
+  /* Returns the latency of every request, in milliseconds */
+  private List<Long> load( final HttpRequest request, final int rounds ) {
+    final List<Long> latencies = new ArrayList<>( rounds * CONCURRENT_REQUESTS );
+    try ( final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor() ) {
+      final HttpClient client = HttpClient.newBuilder()
+        .version( HttpClient.Version.HTTP_1_1 )
+        .executor( executor )
+        .build();
+
+      for ( int round = 0; round < rounds; round++ ) {
+        final List<CompletableFuture<Long>> responses = new ArrayList<>( CONCURRENT_REQUESTS );
+        for ( int i = 0; i < CONCURRENT_REQUESTS; i++ ) {
+          final long sent = System.nanoTime();
+          responses.add( client.sendAsync( request, HttpResponse.BodyHandlers.discarding() )
+            .thenApply( response -> {
+              assertThat( response.statusCode() ).isEqualTo( 200 );
+              return ( System.nanoTime() - sent ) / 1_000_000;
+            } ) );
+        }
+        responses.forEach( response -> latencies.add( response.join() ) );
+      }
+    }
+    return latencies;
+  }
+
+  private static long percentile( final List<Long> sorted, final double percentile ) {
+    return sorted.get( (int) Math.ceil( percentile * sorted.size() ) - 1 );
+  }
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Autowired
+  private SlowDatabase slowDatabase;
+}
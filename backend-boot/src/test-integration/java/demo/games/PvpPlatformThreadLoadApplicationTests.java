@@ -0,0 +1,13 @@
+package demo.games;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+@DisplayName( "PvP game application under load on platform threads" )
+@TestPropertySource( properties = "spring.threads.virtual.enabled=false" )
+public class PvpPlatformThreadLoadApplicationTests extends PvpLoadApplicationTests {
+
+  public PvpPlatformThreadLoadApplicationTests() {
+    super( false );
+  }
+}
@@ -0,0 +1,62 @@
+package demo.games;
+
+import demo.games.dao.Game;
+import demo.games.dao.GameRepository;
+import demo.games.model.ActiveGame;
+import demo.games.model.CreateGame;
+import demo.games.model.GameDetails;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PlayGame;
+import demo.games.model.PvpOutcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+@DisplayName( "PvP game application with the active game registry" )
+@SpringBootTest( webEnvironment = WebEnvironment.RANDOM_PORT, properties = "game.registry.enabled=true" )
+public class PvpRegistryGameApplicationTests {
+
+  @Test
+  @DisplayName( "should play a game in memory and write it to the database in the background" )
+  public void shouldPlayAndPersistGame() throws InterruptedException {
+    final ActiveGame created = restTemplate.postForObject( "/pvp", new CreateGame( Hand.ROCK ), ActiveGame.class );
+    final String code = created.getCode();
+
+    restTemplate.put( String.format( "/pvp/%s", code ), new PlayGame( Hand.PAPER ) );
+
+    final GameDetails details = restTemplate.getForObject( String.format( "/pvp/%s", code ), GameDetails.class );
+    assertThat( details.getState() ).isSameAs( GameState.CLOSED );
+    assertThat( details.getOutcome() ).isSameAs( PvpOutcome.PLAYER_2_WIN );
+
+    final Game persisted = awaitClosedGameInDatabase( code );
+    assertThat( persisted.getPlayer1() ).isSameAs( Hand.ROCK );
+    assertThat( persisted.getPlayer2() ).isSameAs( Hand.PAPER );
+    assertThat( persisted.getOutcome() ).isSameAs( PvpOutcome.PLAYER_2_WIN );
+  }
+
+  private Game awaitClosedGameInDatabase( final String code ) throws InterruptedException {
+    for ( int attempt = 0; attempt < 50; attempt++ ) {
+      final Optional<Game> game = repository.findById( code );
+      if ( game.isPresent() && game.get().getState() == GameState.CLOSED ) {
+        return game.get();
+      }
+      Thread.sleep( 100 );
+    }
+
+    throw new AssertionError( String.format( "The game with code '%s' was not written to the database", code ) );
+  }
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Autowired
+  private GameRepository repository;
+}
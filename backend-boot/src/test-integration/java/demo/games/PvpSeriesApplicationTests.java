@@ -0,0 +1,101 @@
+package demo.games;
+
+import demo.games.model.CreateSeries;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PlayRound;
+import demo.games.model.PvpOutcome;
+import demo.games.model.SeriesDetails;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+@DisplayName( "PvP series application" )
+@SpringBootTest( webEnvironment = WebEnvironment.RANDOM_PORT )
+public class PvpSeriesApplicationTests {
+
+  @Test
+  @DisplayName( "should play a best-of-3 series round by round until a player won two rounds" )
+  public void shouldPlayASeries() {
+    final String code = createSeriesAndReturnCode( 3 );
+
+    playRoundAndAssertRound( code, 0, new PlayRound( Hand.ROCK, null ), 0 );
+    playRoundAndAssertRound( code, 0, new PlayRound( null, Hand.SCISSORS ), 1 );
+    playRoundAndAssertRound( code, 1, new PlayRound( null, Hand.PAPER ), 1 );
+    playRoundAndAssertRound( code, 1, new PlayRound( Hand.PAPER, null ), 2 );
+    playRoundAndAssertRound( code, 2, new PlayRound( Hand.PAPER, null ), 2 );
+    playRoundAndAssertRound( code, 2, new PlayRound( null, Hand.ROCK ), 3 );
+
+    final SeriesDetails series = restTemplate.getForObject( seriesPath( code ), SeriesDetails.class );
+    assertNotNull( series );
+    assertEquals( GameState.CLOSED, series.getState() );
+    assertEquals( PvpOutcome.PLAYER_1_WIN, series.getOutcome() );
+    assertEquals( 2, series.getPlayer1Wins() );
+    assertEquals( 0, series.getPlayer2Wins() );
+    assertEquals( List.of( Hand.ROCK, Hand.PAPER, Hand.PAPER ), series.getPlayer1() );
+    assertEquals( List.of( Hand.SCISSORS, Hand.PAPER, Hand.ROCK ), series.getPlayer2() );
+  }
+
+  @Test
+  @DisplayName( "should not play a round that was already decided" )
+  public void shouldNotPlayDecidedRound() {
+    final String code = createSeriesAndReturnCode( 3 );
+    playRoundAndAssertRound( code, 0, new PlayRound( Hand.ROCK, null ), 0 );
+    playRoundAndAssertRound( code, 0, new PlayRound( null, Hand.PAPER ), 1 );
+
+    final ResponseEntity<SeriesDetails> entity = playRound( code, 0, new PlayRound( Hand.SCISSORS, null ) );
+    assertEquals( HttpStatus.CONFLICT, entity.getStatusCode() );
+    assertNotNull( entity.getBody() );
+    assertEquals( List.of( Hand.ROCK ), entity.getBody().getPlayer1() );
+  }
+
+  private String createSeriesAndReturnCode( final int bestOf ) {
+    final ResponseEntity<SeriesDetails> entity =
+      restTemplate.postForEntity( "/pvp/series", new CreateSeries( bestOf ), SeriesDetails.class );
+    assertEquals( HttpStatus.CREATED, entity.getStatusCode() );
+    assertNotNull( entity.getBody() );
+    assertEquals( GameState.ACTIVE, entity.getBody().getState() );
+    return entity.getBody().getCode();
+  }
+
+  private void playRoundAndAssertRound( final String code, final int round, final PlayRound play, final int expected ) {
+    final ResponseEntity<SeriesDetails> entity = playRound( code, round, play );
+    assertEquals( HttpStatus.OK, entity.getStatusCode() );
+    assertNotNull( entity.getBody() );
+    assertEquals( expected, entity.getBody().getRound() );
+  }
+
+  private ResponseEntity<SeriesDetails> playRound( final String code, final int round, final PlayRound play ) {
+    final HttpHeaders headers = new HttpHeaders();
+    headers.setContentType( MediaType.APPLICATION_JSON );
+
+    return restTemplate.exchange(
+      String.format( "%s/rounds/%d", seriesPath( code ), round ),
+      HttpMethod.PUT,
+      new HttpEntity<>( play, headers ),
+      SeriesDetails.class
+    );
+  }
+
+  private String seriesPath( final String code ) {
+    return String.format( "/pvp/series/%s", code );
+  }
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+}
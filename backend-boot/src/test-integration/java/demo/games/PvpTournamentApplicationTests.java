@@ -0,0 +1,121 @@
+package demo.games;
+
+import demo.games.model.CreateTournament;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PlayTournamentRound;
+import demo.games.model.TournamentDetails;
+import demo.games.model.TournamentFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+/* Room for one tournament of four entrants, so that every test closes the tournaments it creates */
+@DisplayName( "PvP tournament application" )
+@SpringBootTest( webEnvironment = WebEnvironment.RANDOM_PORT, properties = "game.tournament.max-entrants-in-memory=4" )
+public class PvpTournamentApplicationTests {
+
+  @Test
+  @DisplayName( "should play a single elimination tournament and read the closed tournament from its results" )
+  public void shouldPlayATournament() {
+    final String code = createTournamentAndReturnCode( TournamentFormat.SINGLE_ELIMINATION, 4, 0 );
+
+    /* 0 v 3 and 1 v 2 */
+    playRoundAndAssertStatus( code, 0, Map.of( 0, Hand.ROCK, 3, Hand.PAPER, 2, Hand.ROCK ), HttpStatus.NO_CONTENT );
+    resolveRoundAndAssertStatus( code, 0, HttpStatus.NO_CONTENT );
+    resolveRoundAndAssertStatus( code, 0, HttpStatus.CONFLICT );
+
+    /* 3 v 2, which closes the tournament, and the closed tournament is only kept in the database */
+    playRoundAndAssertStatus( code, 1, Map.of( 2, Hand.SCISSORS, 3, Hand.PAPER ), HttpStatus.NO_CONTENT );
+    resolveRoundAndAssertStatus( code, 1, HttpStatus.NO_CONTENT );
+
+    final TournamentDetails tournament = restTemplate.getForObject( tournamentPath( code ), TournamentDetails.class );
+    assertNotNull( tournament );
+    assertEquals( GameState.CLOSED, tournament.getState() );
+    assertEquals( 2, tournament.getRound() );
+    assertEquals( 2, tournament.getWinner() );
+
+    final String entrants = restTemplate.getForObject( tournamentPath( code ) + "/entrants", String.class );
+    assertNotNull( entrants );
+    assertEquals( 4, entrants.lines().count() );
+  }
+
+  @Test
+  @DisplayName( "should refuse a tournament while there is no room for its entrants" )
+  public void shouldRefuseTournamentWhenFull() {
+    final String code = createTournamentAndReturnCode( TournamentFormat.SWISS, 4, 1 );
+    playRoundAndAssertStatus( code, 0, Map.of( 0, Hand.ROCK, 1, Hand.PAPER ), HttpStatus.NO_CONTENT );
+
+    final ResponseEntity<TournamentDetails> refused = restTemplate.postForEntity( "/pvp/tournaments",
+      new CreateTournament( TournamentFormat.SWISS, 4, 1 ), TournamentDetails.class );
+    assertEquals( HttpStatus.SERVICE_UNAVAILABLE, refused.getStatusCode() );
+
+    /* The hands played before are kept, and closing the tournament makes room again */
+    resolveRoundAndAssertStatus( code, 0, HttpStatus.NO_CONTENT );
+    final TournamentDetails tournament = restTemplate.getForObject( tournamentPath( code ), TournamentDetails.class );
+    assertNotNull( tournament );
+    assertEquals( 1, tournament.getWinner() );
+
+    final String next = createTournamentAndReturnCode( TournamentFormat.SWISS, 4, 1 );
+    resolveRoundAndAssertStatus( next, 0, HttpStatus.NO_CONTENT );
+  }
+
+  @Test
+  @DisplayName( "should not create a tournament with more than the maximum entrants" )
+  public void shouldNotCreateTooLargeTournament() {
+    final ResponseEntity<TournamentDetails> entity = restTemplate.postForEntity( "/pvp/tournaments",
+      new CreateTournament( TournamentFormat.SINGLE_ELIMINATION, ( 1 << 20 ) + 1, 0 ), TournamentDetails.class );
+    assertEquals( HttpStatus.BAD_REQUEST, entity.getStatusCode() );
+  }
+
+  private String createTournamentAndReturnCode( final TournamentFormat format, final int entrants, final int rounds ) {
+    final ResponseEntity<TournamentDetails> entity = restTemplate.postForEntity( "/pvp/tournaments",
+      new CreateTournament( format, entrants, rounds ), TournamentDetails.class );
+    assertEquals( HttpStatus.CREATED, entity.getStatusCode() );
+    assertNotNull( entity.getBody() );
+    assertEquals( GameState.ACTIVE, entity.getBody().getState() );
+    return entity.getBody().getCode();
+  }
+
+  private void playRoundAndAssertStatus( final String code, final int round, final Map<Integer, Hand> hands,
+    final HttpStatus expected ) {
+    final HttpHeaders headers = new HttpHeaders();
+    headers.setContentType( MediaType.APPLICATION_JSON );
+
+    final ResponseEntity<Void> entity = restTemplate.exchange(
+      String.format( "%s/rounds/%d", tournamentPath( code ), round ),
+      HttpMethod.PUT,
+      new HttpEntity<>( new PlayTournamentRound( hands ), headers ),
+      Void.class
+    );
+    assertEquals( expected, entity.getStatusCode() );
+  }
+
+  private void resolveRoundAndAssertStatus( final String code, final int round, final HttpStatus expected ) {
+    final ResponseEntity<Void> entity = restTemplate.postForEntity(
+      String.format( "%s/rounds/%d/resolve", tournamentPath( code ), round ), null, Void.class );
+    assertEquals( expected, entity.getStatusCode() );
+  }
+
+  private String tournamentPath( final String code ) {
+    return String.format( "/pvp/tournaments/%s", code );
+  }
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+}
@@ -0,0 +1,13 @@
+package demo.games;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+@DisplayName( "PvP game application under load on virtual threads" )
+@TestPropertySource( properties = "spring.threads.virtual.enabled=true" )
+public class PvpVirtualThreadLoadApplicationTests extends PvpLoadApplicationTests {
+
+  public PvpVirtualThreadLoadApplicationTests() {
+    super( true );
+  }
+}
@@ -0,0 +1,102 @@
+package demo.games;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Makes every statement take {@link #DELAY_MILLIS} longer while {@link SlowDatabase#slow(boolean)} is on, as if the
+ * database was under load, and keeps track of the number of statements running at the same time.
+ */
+@TestConfiguration
+public class SlowDatabaseConfiguration {
+
+  public static final long DELAY_MILLIS = 50;
+
+  @Bean
+  public static SlowDatabase slowDatabase() {
+    return new SlowDatabase();
+  }
+
+  @Bean
+  public static BeanPostProcessor slowDataSourcePostProcessor( final SlowDatabase slowDatabase ) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization( final Object bean, final String name ) {
+        return bean instanceof DataSource ? slowDatabase.wrap( (DataSource) bean ) : bean;
+      }
+    };
+  }
+
+  public static class SlowDatabase {
+
+    private volatile boolean slow;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    public void slow( final boolean slow ) {
+      this.slow = slow;
+      maxRunning.set( 0 );
+    }
+
+    /* The most statements that were running at the same time since the database was made slow */
+    public int maxRunning() {
+      return maxRunning.get();
+    }
+
+    private DataSource wrap( final DataSource dataSource ) {
+      return new DelegatingDataSource( dataSource ) {
+        @Override
+        public Connection getConnection() throws SQLException {
+          return proxy( Connection.class, super.getConnection() );
+        }
+
+        @Override
+        public Connection getConnection( final String username, final String password ) throws SQLException {
+          return proxy( Connection.class, super.getConnection( username, password ) );
+        }
+      };
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private <T> T proxy( final Class<T> type, final T target ) {
+      return (T) Proxy.newProxyInstance( type.getClassLoader(), new Class<?>[] { type }, ( proxy, method, args ) -> {
+        final Object result = invoke( method, target, args );
+        if ( result instanceof Statement && Statement.class.isAssignableFrom( method.getReturnType() ) ) {
+          return proxy( (Class<Statement>) method.getReturnType(), (Statement) result );
+        }
+        return result;
+      } );
+    }
+
+    private Object invoke( final Method method, final Object target, final Object[] args ) throws Throwable {
+      final boolean execute = slow && target instanceof Statement && method.getName().startsWith( "execute" );
+      if ( execute ) {
+        maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+      }
+
+      try {
+        if ( execute ) {
+          Thread.sleep( DELAY_MILLIS );
+        }
+        return method.invoke( target, args );
+      } catch ( final InvocationTargetException e ) {
+        throw e.getCause();
+      } finally {
+        if ( execute ) {
+          running.decrementAndGet();
+        }
+      }
+    }
+  }
+}
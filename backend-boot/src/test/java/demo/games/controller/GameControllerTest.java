@@ -3,16 +3,30 @@ package demo.games.controller;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import demo.games.model.ActiveGame;
+import demo.games.model.BatchStrategy;
 import demo.games.model.CreateGame;
+import demo.games.model.CreateGames;
+import demo.games.model.CreateSeries;
+import demo.games.model.FindMatch;
 import demo.games.model.GameDetails;
+import demo.games.model.GamePage;
 import demo.games.model.GameState;
 import demo.games.model.Hand;
+import demo.games.model.PlayBatch;
 import demo.games.model.PlayGame;
+import demo.games.model.PlayRound;
+import demo.games.model.PvcBatchResult;
 import demo.games.model.PvcGameResult;
 import demo.games.model.PvcOutcome;
 import demo.games.model.PvpOutcome;
+import demo.games.model.SeriesDetails;
 import demo.games.resource.GameController;
+import demo.games.service.ComputerOpponent;
+import demo.games.service.GameClosedEvent;
+import demo.games.service.GameClosedNotifier;
 import demo.games.service.GameService;
+import demo.games.service.MatchmakingService;
+import demo.games.service.SeriesService;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,31 +35,48 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /* Just load the following controller and all it needs */
 @WebMvcTest( GameController.class )
+@Import( GameClosedNotifier.class )
 @DisplayName( "Game controller" )
 public class GameControllerTest {
 
@@ -55,9 +86,18 @@ public class GameControllerTest {
   @MockBean
   private GameService service;
 
+  @MockBean
+  private MatchmakingService matchmaking;
+
+  @MockBean
+  private SeriesService series;
+
+  @Autowired
+  private GameClosedNotifier notifier;
+
   @BeforeEach
   public void setUp() {
-    reset( service );
+    reset( service, matchmaking, series );
   }
 
   @Test
@@ -89,6 +129,96 @@ public class GameControllerTest {
     verify( service, times( 1 ) ).playAgainstComputer( result.getPlayer() );
   }
 
+  @Test
+  @DisplayName( "should let the service play against the player with the given id" )
+  public void shouldPlayAgainstThePlayerWithTheGivenId() throws Exception {
+    final PvcGameResult result = new PvcGameResult( Hand.SCISSORS, Hand.PAPER, PvcOutcome.COMPUTER_WIN );
+
+    when( service.playAgainstComputer( Hand.PAPER, "player-1" ) ).thenReturn( result );
+
+    mockMvc.perform( get( "/pvc/PAPER" ).param( "playerId", "player-1" ) )
+      .andExpect( status().isOk() )
+      .andExpect( jsonPath( "$.computer", is( "SCISSORS" ) ) )
+      .andExpect( jsonPath( "$.outcome", is( "COMPUTER_WIN" ) ) );
+
+    verify( service, times( 1 ) ).playAgainstComputer( Hand.PAPER, "player-1" );
+  }
+
+  @Test
+  @DisplayName( "should return bad request when the player id is blank or too long" )
+  public void shouldReturnBadRequestForInvalidPlayerId() throws Exception {
+    mockMvc.perform( get( "/pvc/PAPER" ).param( "playerId", " " ) )
+      .andExpect( status().isBadRequest() );
+    mockMvc.perform( get( "/pvc/PAPER" ).param( "playerId", "p".repeat( ComputerOpponent.MAX_PLAYER_ID_LENGTH + 1 ) ) )
+      .andExpect( status().isBadRequest() );
+
+    verifyNoInteractions( service );
+  }
+
+  @Nested
+  @DisplayName( "batch against computer" )
+  class PlayBatchAgainstComputer {
+    @Test
+    @DisplayName( "should return the batch outcome provided by the service for the given hands" )
+    public void shouldReturnTheBatchOutcomeForTheGivenHands() throws Exception {
+      final List<Hand> hands = List.of( Hand.ROCK, Hand.PAPER );
+      final PvcBatchResult result = new PvcBatchResult( List.of( Hand.PAPER, Hand.PAPER ), hands,
+        List.of( PvcOutcome.COMPUTER_WIN, PvcOutcome.DRAW ), 0, 1, 1 );
+
+      when( service.playBatchAgainstComputer( eq( hands ) ) ).thenReturn( result );
+
+      mockMvc.perform( post( "/pvc/batch" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new PlayBatch( hands, 0, null ) ) )
+      )
+        .andExpect( status().isOk() )
+        .andExpect( jsonPath( "$.computer", contains( "PAPER", "PAPER" ) ) )
+        .andExpect( jsonPath( "$.player", contains( "ROCK", "PAPER" ) ) )
+        .andExpect( jsonPath( "$.outcomes", contains( "COMPUTER_WIN", "DRAW" ) ) )
+        .andExpect( jsonPath( "$.playerWins", is( 0 ) ) )
+        .andExpect( jsonPath( "$.computerWins", is( 1 ) ) )
+        .andExpect( jsonPath( "$.draws", is( 1 ) ) );
+
+      verify( service, times( 1 ) ).playBatchAgainstComputer( hands );
+    }
+
+    @Test
+    @DisplayName( "should return the batch outcome provided by the service for a number of rounds" )
+    public void shouldReturnTheBatchOutcomeForANumberOfRounds() throws Exception {
+      final PvcBatchResult result = new PvcBatchResult( List.of( Hand.ROCK ), List.of( Hand.ROCK ),
+        List.of( PvcOutcome.DRAW ), 0, 0, 1 );
+
+      when( service.playBatchAgainstComputer( eq( 1 ), eq( BatchStrategy.CYCLE ) ) ).thenReturn( result );
+
+      mockMvc.perform( post( "/pvc/batch" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new PlayBatch( null, 1, BatchStrategy.CYCLE ) ) )
+      )
+        .andExpect( status().isOk() )
+        .andExpect( jsonPath( "$.outcomes", contains( "DRAW" ) ) )
+        .andExpect( jsonPath( "$.draws", is( 1 ) ) );
+
+      verify( service, times( 1 ) ).playBatchAgainstComputer( 1, BatchStrategy.CYCLE );
+    }
+
+    @Test
+    @DisplayName( "should return 400 when the number of rounds is out of range or the strategy is missing" )
+    public void shouldReturnBadRequest() throws Exception {
+      for ( final PlayBatch batch : List.of(
+        new PlayBatch( null, 0, BatchStrategy.RANDOM ),
+        new PlayBatch( null, GameService.MAX_BATCH_SIZE + 1, BatchStrategy.RANDOM ),
+        new PlayBatch( null, 1, null ) ) ) {
+        mockMvc.perform( post( "/pvc/batch" )
+          .contentType( APPLICATION_JSON )
+          .content( toJson( batch ) )
+        )
+          .andExpect( status().isBadRequest() );
+      }
+
+      verifyNoInteractions( service );
+    }
+  }
+
   @Test
   @DisplayName( "should create the new game and return the code" )
   public void shouldCreateGameAndReturnCode() throws Exception {
@@ -109,6 +239,46 @@ public class GameControllerTest {
     verify( service, times( 1 ) ).createPvpGame( player1 );
   }
 
+  @Nested
+  @DisplayName( "create games in bulk" )
+  class CreateGamesInBulk {
+    @Test
+    @DisplayName( "should create one game for every hand and return the codes" )
+    public void shouldCreateGamesAndReturnCodes() throws Exception {
+      final List<Hand> hands = List.of( Hand.ROCK, Hand.SCISSORS );
+      final List<ActiveGame> games = createRandomGames( hands.size() );
+
+      when( service.createPvpGames( eq( hands ) ) ).thenReturn( games );
+
+      mockMvc.perform( post( "/pvp/bulk" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new CreateGames( hands ) ) )
+      )
+        .andExpect( status().isOk() )
+        .andExpect( jsonPath( "$", hasSize( games.size() ) ) )
+        .andExpect( jsonPath( "$[*].code", contains( toGameCode( games ) ) ) );
+
+      verify( service, times( 1 ) ).createPvpGames( hands );
+    }
+
+    @Test
+    @DisplayName( "should return 400 when no hands or too many hands are given" )
+    public void shouldReturnBadRequest() throws Exception {
+      for ( final CreateGames games : List.of(
+        new CreateGames( null ),
+        new CreateGames( List.of() ),
+        new CreateGames( Collections.nCopies( GameService.MAX_BATCH_SIZE + 1, Hand.ROCK ) ) ) ) {
+        mockMvc.perform( post( "/pvp/bulk" )
+          .contentType( APPLICATION_JSON )
+          .content( toJson( games ) )
+        )
+          .andExpect( status().isBadRequest() );
+      }
+
+      verifyNoInteractions( service );
+    }
+  }
+
   @Test
   @DisplayName( "should return the list of open games" )
   public void shouldReturnOpenGames() throws Exception {
@@ -126,6 +296,63 @@ public class GameControllerTest {
     verify( service, times( 1 ) ).listActivePvpGames();
   }
 
+  @Test
+  @DisplayName( "should return a page of active games" )
+  public void shouldReturnPageOfActiveGames() throws Exception {
+    final List<ActiveGame> games = createRandomGames( 2 );
+    final String next = games.get( 1 ).getCode();
+
+    when( service.pageActivePvpGames( eq( "00000000" ), eq( 2 ) ) ).thenReturn( new GamePage<>( games, next ) );
+
+    mockMvc.perform( get( "/pvp/page/active" ).param( "after", "00000000" ).param( "limit", "2" ) )
+      .andExpect( status().isOk() )
+      .andExpect( jsonPath( "$.games", hasSize( games.size() ) ) )
+      .andExpect( jsonPath( "$.games[*].code", contains( toGameCode( games ) ) ) )
+      .andExpect( jsonPath( "$.next", is( next ) ) );
+
+    verify( service, times( 1 ) ).pageActivePvpGames( "00000000", 2 );
+  }
+
+  @Test
+  @DisplayName( "should return the first page of closed games with the default limit" )
+  public void shouldReturnFirstPageOfClosedGames() throws Exception {
+    when( service.pageClosedPvpGames( eq( "" ), eq( 100 ) ) ).thenReturn( new GamePage<>( List.of(), null ) );
+
+    mockMvc.perform( get( "/pvp/page/closed" ) )
+      .andExpect( status().isOk() )
+      .andExpect( jsonPath( "$.games" ).isEmpty() )
+      .andExpect( jsonPath( "$.next" ).doesNotExist() );
+
+    verify( service, times( 1 ) ).pageClosedPvpGames( "", 100 );
+  }
+
+  @Test
+  @DisplayName( "should stream the active games as newline delimited JSON" )
+  @SuppressWarnings( "unchecked" )
+  public void shouldStreamActiveGames() throws Exception {
+    final List<ActiveGame> games = createRandomGames( 3 );
+
+    doAnswer( invocation -> {
+      games.forEach( invocation.<Consumer<ActiveGame>>getArgument( 0 ) );
+      return null;
+    } ).when( service ).streamActivePvpGames( any() );
+
+    final MvcResult result = mockMvc.perform( get( "/pvp/stream/active" ) )
+      .andExpect( request().asyncStarted() )
+      .andReturn();
+
+    final String expected = games.stream()
+      .map( game -> String.format( "{\"code\":\"%s\"}\n", game.getCode() ) )
+      .collect( Collectors.joining() );
+
+    mockMvc.perform( asyncDispatch( result ) )
+      .andExpect( status().isOk() )
+      .andExpect( content().contentType( GameController.APPLICATION_NDJSON ) )
+      .andExpect( content().string( expected ) );
+
+    verify( service, times( 1 ) ).streamActivePvpGames( any() );
+  }
+
   @Nested
   @DisplayName( "game details" )
   class ReturnGameDetails {
@@ -217,6 +444,228 @@ public class GameControllerTest {
     }
   }
 
+  @Nested
+  @DisplayName( "matchmaking" )
+  class Matchmaking {
+    @Test
+    @DisplayName( "should return the closed game once the player was paired" )
+    public void shouldReturnMatchedGame() throws Exception {
+      final GameDetails details = new GameDetails()
+        .setCode( "00000000" )
+        .setPlayer1( Hand.ROCK )
+        .setPlayer2( Hand.SCISSORS )
+        .setOutcome( PvpOutcome.PLAYER_1_WIN )
+        .setState( GameState.CLOSED );
+      when( matchmaking.match( Hand.SCISSORS ) ).thenReturn( CompletableFuture.completedFuture( Optional.of( details ) ) );
+
+      final MvcResult result = mockMvc.perform( post( "/pvp/match" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new FindMatch( Hand.SCISSORS ) ) ) )
+        .andExpect( request().asyncStarted() )
+        .andReturn();
+
+      mockMvc.perform( asyncDispatch( result ) )
+        .andExpect( status().isOk() )
+        .andExpect( jsonPath( "$.code", is( details.getCode() ) ) )
+        .andExpect( jsonPath( "$.outcome", is( PvpOutcome.PLAYER_1_WIN.name() ) ) );
+    }
+
+    @Test
+    @DisplayName( "should return 408 when no other player arrived in time" )
+    public void shouldReturnTimeout() throws Exception {
+      when( matchmaking.match( Hand.ROCK ) ).thenReturn( CompletableFuture.completedFuture( Optional.empty() ) );
+
+      final MvcResult result = mockMvc.perform( post( "/pvp/match" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new FindMatch( Hand.ROCK ) ) ) )
+        .andExpect( request().asyncStarted() )
+        .andReturn();
+
+      mockMvc.perform( asyncDispatch( result ) )
+        .andExpect( status().isRequestTimeout() );
+    }
+
+    @Test
+    @DisplayName( "should return 503 when the game could not be stored" )
+    public void shouldReturnUnavailable() throws Exception {
+      when( matchmaking.match( Hand.ROCK ) )
+        .thenReturn( CompletableFuture.failedFuture( new RejectedExecutionException( "Too many games" ) ) );
+
+      final MvcResult result = mockMvc.perform( post( "/pvp/match" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new FindMatch( Hand.ROCK ) ) ) )
+        .andExpect( request().asyncStarted() )
+        .andReturn();
+
+      mockMvc.perform( asyncDispatch( result ) )
+        .andExpect( status().isServiceUnavailable() );
+    }
+
+    @Test
+    @DisplayName( "should return 400 when no hand is given" )
+    public void shouldRejectMissingHand() throws Exception {
+      final MvcResult result = mockMvc.perform( post( "/pvp/match" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new FindMatch() ) ) )
+        .andReturn();
+
+      mockMvc.perform( asyncDispatch( result ) )
+        .andExpect( status().isBadRequest() );
+      verifyNoInteractions( matchmaking );
+    }
+  }
+
+  @Nested
+  @DisplayName( "best-of series" )
+  class BestOfSeries {
+    @Test
+    @DisplayName( "should create the series and return its location" )
+    public void shouldCreateSeries() throws Exception {
+      final SeriesDetails details = activeSeries( "00000000" );
+      when( series.createSeries( 5 ) ).thenReturn( details );
+
+      mockMvc.perform( post( "/pvp/series" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new CreateSeries( 5 ) ) ) )
+        .andExpect( status().isCreated() )
+        .andExpect( redirectedUrl( "/pvp/series/00000000" ) )
+        .andExpect( jsonPath( "$.bestOf", is( 5 ) ) );
+    }
+
+    @Test
+    @DisplayName( "should not create a series with an even number of rounds" )
+    public void shouldRejectEvenBestOf() throws Exception {
+      mockMvc.perform( post( "/pvp/series" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new CreateSeries( 4 ) ) ) )
+        .andExpect( status().isBadRequest() );
+      verifyNoInteractions( series );
+    }
+
+    @Test
+    @DisplayName( "should play the hand of player 2 in the given round" )
+    public void shouldPlayRound() throws Exception {
+      final SeriesDetails details = activeSeries( "00000000" ).setRound( 1 );
+      when( series.playRound( "00000000", 0, 2, Hand.PAPER ) ).thenReturn( Optional.of( details ) );
+
+      mockMvc.perform( put( "/pvp/series/00000000/rounds/0" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new PlayRound( null, Hand.PAPER ) ) ) )
+        .andExpect( status().isOk() )
+        .andExpect( jsonPath( "$.round", is( 1 ) ) );
+    }
+
+    @Test
+    @DisplayName( "should return 409 and the series when the hand cannot be played" )
+    public void shouldReturnConflict() throws Exception {
+      when( series.playRound( "00000000", 0, 1, Hand.ROCK ) ).thenReturn( Optional.empty() );
+      when( series.findSeries( "00000000" ) ).thenReturn( Optional.of( activeSeries( "00000000" ).setRound( 2 ) ) );
+
+      mockMvc.perform( put( "/pvp/series/00000000/rounds/0" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new PlayRound( Hand.ROCK, null ) ) ) )
+        .andExpect( status().isConflict() )
+        .andExpect( jsonPath( "$.round", is( 2 ) ) );
+    }
+
+    @Test
+    @DisplayName( "should return 404 when the series does not exist" )
+    public void shouldReturnNotFound() throws Exception {
+      when( series.playRound( "00000000", 0, 1, Hand.ROCK ) ).thenReturn( Optional.empty() );
+      when( series.findSeries( "00000000" ) ).thenReturn( Optional.empty() );
+
+      mockMvc.perform( put( "/pvp/series/00000000/rounds/0" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new PlayRound( Hand.ROCK, null ) ) ) )
+        .andExpect( status().isNotFound() );
+    }
+
+    @Test
+    @DisplayName( "should return 400 unless exactly one of the players plays" )
+    public void shouldRejectBothOrNoPlayers() throws Exception {
+      mockMvc.perform( put( "/pvp/series/00000000/rounds/0" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new PlayRound( Hand.ROCK, Hand.PAPER ) ) ) )
+        .andExpect( status().isBadRequest() );
+      mockMvc.perform( put( "/pvp/series/00000000/rounds/0" )
+        .contentType( APPLICATION_JSON )
+        .content( toJson( new PlayRound() ) ) )
+        .andExpect( status().isBadRequest() );
+      verifyNoInteractions( series );
+    }
+
+    private SeriesDetails activeSeries( final String code ) {
+      return new SeriesDetails()
+        .setCode( code )
+        .setBestOf( 5 )
+        .setPlayer1( List.of() )
+        .setPlayer2( List.of() )
+        .setState( GameState.ACTIVE );
+    }
+  }
+
+  @Nested
+  @DisplayName( "game events" )
+  class GameEvents {
+    @Test
+    @DisplayName( "should return 404 when game is not found" )
+    public void shouldReturnNotFound() throws Exception {
+      final String code = "00000000";
+
+      when( service.findPvpGame( eq( code ) ) ).thenReturn( Optional.empty() );
+
+      mockMvc.perform( get( String.format( "/pvp/%s/events", code ) ) )
+        .andExpect( status().isNotFound() );
+
+      assertEquals( 0, notifier.countWaiting( code ) );
+      verify( service, times( 1 ) ).findPvpGame( code );
+    }
+
+    @Test
+    @DisplayName( "should push the game details straight away when the game is already closed" )
+    public void shouldPushClosedGame() throws Exception {
+      final GameDetails details = closedGame( "00000000" );
+
+      when( service.findPvpGame( eq( details.getCode() ) ) ).thenReturn( Optional.of( details ) );
+
+      mockMvc.perform( get( String.format( "/pvp/%s/events", details.getCode() ) ) )
+        .andExpect( request().asyncStarted() )
+        .andExpect( content().string( containsString( "event:closed" ) ) )
+        .andExpect( content().string( containsString( toCompactJson( details ) ) ) );
+
+      assertEquals( 0, notifier.countWaiting( details.getCode() ) );
+    }
+
+    @Test
+    @DisplayName( "should push the game details once the active game is closed" )
+    public void shouldPushGameOnceClosed() throws Exception {
+      final GameDetails details = closedGame( "00000000" );
+
+      when( service.findPvpGame( eq( details.getCode() ) ) )
+        .thenReturn( Optional.of( new GameDetails().setCode( details.getCode() ).setState( GameState.ACTIVE ) ) );
+
+      final MvcResult result = mockMvc.perform( get( String.format( "/pvp/%s/events", details.getCode() ) ) )
+        .andExpect( request().asyncStarted() )
+        .andReturn();
+      assertEquals( 1, notifier.countWaiting( details.getCode() ) );
+      assertEquals( "", result.getResponse().getContentAsString() );
+
+      notifier.onGameClosed( new GameClosedEvent( details ) );
+
+      assertEquals( 0, notifier.countWaiting( details.getCode() ) );
+      assertTrue( result.getResponse().getContentAsString().contains( toCompactJson( details ) ) );
+    }
+
+    private GameDetails closedGame( final String code ) {
+      return new GameDetails()
+        .setCode( code )
+        .setPlayer1( Hand.ROCK )
+        .setPlayer2( Hand.PAPER )
+        .setOutcome( PvpOutcome.PLAYER_2_WIN )
+        .setState( GameState.CLOSED );
+    }
+  }
+
   @Test
   @DisplayName( "should return all game" )
   public void shouldReturnAllGames() throws Exception {
@@ -260,6 +709,10 @@ public class GameControllerTest {
       .writeValueAsString( object );
   }
 
+  private String toCompactJson( final Object object ) throws JsonProcessingException {
+    return new ObjectMapper().writeValueAsString( object );
+  }
+
   private ActiveGame createRandomGame() {
     return new ActiveGame( RandomStringUtils.randomAlphanumeric( 8 ) );
   }
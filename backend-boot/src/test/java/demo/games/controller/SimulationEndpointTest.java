@@ -0,0 +1,54 @@
+package demo.games.controller;
+
+import demo.games.model.SimulationResult;
+import demo.games.resource.SimulationEndpoint;
+import demo.games.service.ComputerStrategyType;
+import demo.games.service.FrequencyStrategy;
+import demo.games.service.MarkovStrategy;
+import demo.games.service.SimulationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName( "Simulation endpoint" )
+public class SimulationEndpointTest {
+
+  private final SimulationService service = mock( SimulationService.class );
+  private final SimulationEndpoint endpoint = new SimulationEndpoint( service, 1_000_000 );
+
+  @Test
+  @DisplayName( "should simulate the given strategies with the given seed" )
+  public void shouldSimulate() {
+    final SimulationResult result = new SimulationResult().setMatches( 100 ).setRounds( 10 ).setSeed( 42 );
+    when( service.simulate( any( MarkovStrategy.class ), any( FrequencyStrategy.class ), eq( 100L ), eq( 10 ), eq( 42L ) ) )
+      .thenReturn( result );
+
+    assertSame( result,
+      endpoint.simulate( ComputerStrategyType.MARKOV, ComputerStrategyType.FREQUENCY, 100, 10, 3, null, 42L ) );
+  }
+
+  @Test
+  @DisplayName( "should reject too few matches, too many rounds, too many rounds in all, or an invalid strategy" )
+  public void shouldRejectInvalidRequests() {
+    assertThrows( InvalidEndpointRequestException.class,
+      () -> endpoint.simulate( ComputerStrategyType.RANDOM, ComputerStrategyType.RANDOM, 1, 10, null, null, null ) );
+    assertThrows( InvalidEndpointRequestException.class, () -> endpoint.simulate(
+      ComputerStrategyType.RANDOM, ComputerStrategyType.RANDOM, 100, SimulationService.MAX_ROUNDS + 1, null, null, null ) );
+    assertThrows( InvalidEndpointRequestException.class, () -> endpoint.simulate(
+      ComputerStrategyType.RANDOM, ComputerStrategyType.RANDOM, 1_001, 1_000, null, null, null ) );
+    assertThrows( InvalidEndpointRequestException.class, () -> endpoint.simulate(
+      ComputerStrategyType.MARKOV, ComputerStrategyType.RANDOM, 100, 10, MarkovStrategy.MAX_ORDER + 1, null, null ) );
+    assertThrows( InvalidEndpointRequestException.class, () -> endpoint.simulate(
+      ComputerStrategyType.RANDOM, ComputerStrategyType.MIXED, 100, 10, null, 101, null ) );
+
+    verifyNoInteractions( service );
+  }
+}
@@ -0,0 +1,145 @@
+package demo.games.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import demo.games.model.CreateTournament;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PlayTournamentRound;
+import demo.games.model.TournamentDetails;
+import demo.games.model.TournamentFormat;
+import demo.games.resource.TournamentController;
+import demo.games.service.Bracket;
+import demo.games.service.TournamentEntrants;
+import demo.games.service.TournamentService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest( TournamentController.class )
+@DisplayName( "Tournament controller" )
+public class TournamentControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private TournamentService service;
+
+  @Test
+  @DisplayName( "should create the tournament and return its location" )
+  public void shouldCreateTournament() throws Exception {
+    final TournamentDetails details = new TournamentDetails( "00000000", TournamentFormat.SWISS, 1_000, 5, 0, GameState.ACTIVE, null );
+    when( service.createTournament( TournamentFormat.SWISS, 1_000, 5 ) ).thenReturn( details );
+
+    mockMvc.perform( post( "/pvp/tournaments" )
+      .contentType( APPLICATION_JSON )
+      .content( toJson( new CreateTournament( TournamentFormat.SWISS, 1_000, 5 ) ) ) )
+      .andExpect( status().isCreated() )
+      .andExpect( redirectedUrl( "/pvp/tournaments/00000000" ) )
+      .andExpect( jsonPath( "$.rounds", is( 5 ) ) );
+  }
+
+  @Test
+  @DisplayName( "should not create a single elimination tournament with a number of rounds" )
+  public void shouldRejectInvalidTournament() throws Exception {
+    mockMvc.perform( post( "/pvp/tournaments" )
+      .contentType( APPLICATION_JSON )
+      .content( toJson( new CreateTournament( TournamentFormat.SINGLE_ELIMINATION, 1_000, 5 ) ) ) )
+      .andExpect( status().isBadRequest() );
+    verifyNoInteractions( service );
+  }
+
+  @Test
+  @DisplayName( "should return 503 when there is no room for the tournament" )
+  public void shouldReturnServiceUnavailableWhenFull() throws Exception {
+    when( service.createTournament( TournamentFormat.SWISS, 1_000, 5 ) )
+      .thenThrow( new RejectedExecutionException( "Full" ) );
+
+    mockMvc.perform( post( "/pvp/tournaments" )
+      .contentType( APPLICATION_JSON )
+      .content( toJson( new CreateTournament( TournamentFormat.SWISS, 1_000, 5 ) ) ) )
+      .andExpect( status().isServiceUnavailable() );
+  }
+
+  @Test
+  @DisplayName( "should play the hands, and return 409 when these cannot be played" )
+  public void shouldPlayHands() throws Exception {
+    when( service.playRound( "00000000", 0, Map.of( 1, Hand.ROCK ) ) ).thenReturn( Optional.of( true ) );
+    when( service.playRound( "00000000", 1, Map.of( 1, Hand.ROCK ) ) ).thenReturn( Optional.of( false ) );
+
+    mockMvc.perform( put( "/pvp/tournaments/00000000/rounds/0" )
+      .contentType( APPLICATION_JSON )
+      .content( toJson( new PlayTournamentRound( Map.of( 1, Hand.ROCK ) ) ) ) )
+      .andExpect( status().isNoContent() );
+    mockMvc.perform( put( "/pvp/tournaments/00000000/rounds/1" )
+      .contentType( APPLICATION_JSON )
+      .content( toJson( new PlayTournamentRound( Map.of( 1, Hand.ROCK ) ) ) ) )
+      .andExpect( status().isConflict() );
+  }
+
+  @Test
+  @DisplayName( "should return 400 when no hands are given" )
+  public void shouldRejectMissingHands() throws Exception {
+    mockMvc.perform( put( "/pvp/tournaments/00000000/rounds/0" )
+      .contentType( APPLICATION_JSON )
+      .content( toJson( new PlayTournamentRound( Collections.emptyMap() ) ) ) )
+      .andExpect( status().isBadRequest() );
+    verifyNoInteractions( service );
+  }
+
+  @Test
+  @DisplayName( "should return 404 when resolving a round of an unknown tournament" )
+  public void shouldReturnNotFound() throws Exception {
+    when( service.resolveRound( "00000000", 0 ) ).thenReturn( Optional.empty() );
+
+    mockMvc.perform( post( "/pvp/tournaments/00000000/rounds/0/resolve" ) )
+      .andExpect( status().isNotFound() );
+  }
+
+  @Test
+  @DisplayName( "should stream the entrants as one JSON document per line" )
+  public void shouldStreamEntrants() throws Exception {
+    when( service.findEntrants( "00000000" ) )
+      .thenReturn( Optional.of( new TournamentEntrants( new int[] { 1, 0 }, new int[] { Bracket.NONE, 2 } ) ) );
+
+    final MvcResult result = mockMvc.perform( get( "/pvp/tournaments/00000000/entrants" ) )
+      .andExpect( request().asyncStarted() )
+      .andReturn();
+
+    mockMvc.perform( asyncDispatch( result ) )
+      .andExpect( status().isOk() )
+      .andExpect( content().string( "{\"seed\":0,\"score\":1,\"opponent\":null}\n"
+        + "{\"seed\":1,\"score\":0,\"opponent\":2}\n" ) );
+  }
+
+  private String toJson( final Object object ) throws JsonProcessingException {
+    return new ObjectMapper()
+      .writer()
+      .withDefaultPrettyPrinter()
+      .writeValueAsString( object );
+  }
+}
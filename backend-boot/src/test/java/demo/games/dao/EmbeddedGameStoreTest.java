@@ -0,0 +1,317 @@
+package demo.games.dao;
+
+import demo.games.model.ActiveGame;
+import demo.games.model.GameDetails;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName( "Embedded game store" )
+public class EmbeddedGameStoreTest {
+
+  private static final Clock CLOCK = Clock.fixed( Instant.parse( "2020-06-01T12:00:00Z" ), ZoneOffset.UTC );
+
+  @TempDir
+  Path directory;
+
+  private EmbeddedGameStore store;
+
+  @BeforeEach
+  public void open() throws IOException {
+    store = open( 4 );
+  }
+
+  @AfterEach
+  public void close() throws IOException {
+    store.close();
+  }
+
+  @Test
+  @DisplayName( "should not overwrite a game whose code is already taken" )
+  public void shouldNotOverwriteGames() {
+    assertTrue( store.insert( activeGame( "00000001", Hand.ROCK ) ) );
+    assertFalse( store.insert( activeGame( "00000001", Hand.PAPER ) ) );
+
+    assertEquals( Hand.ROCK, store.find( "00000001" ).map( Game::getPlayer1 ).orElseThrow() );
+  }
+
+  @Test
+  @DisplayName( "should only insert the games whose code is not yet taken" )
+  public void shouldInsertFreeCodes() {
+    store.insert( activeGame( "00000001", Hand.ROCK ) );
+
+    final Set<String> inserted = store.insertAll( List.of(
+      activeGame( "00000001", Hand.PAPER ),
+      activeGame( "00000002", Hand.PAPER )
+    ) );
+
+    assertEquals( Set.of( "00000002" ), inserted );
+  }
+
+  @Test
+  @DisplayName( "should close an active game only once" )
+  public void shouldCloseActiveGamesOnce() {
+    store.insert( activeGame( "00000001", Hand.ROCK ) );
+
+    final Optional<Game> closed = store.close( "00000001", Hand.PAPER );
+
+    assertTrue( closed.isPresent() );
+    assertEquals( GameState.CLOSED, closed.get().getState() );
+    assertEquals( PvpOutcome.PLAYER_2_WIN, closed.get().getOutcome() );
+    assertEquals( CLOCK.instant(), closed.get().getClosedAt() );
+    assertFalse( store.close( "00000001", Hand.SCISSORS ).isPresent() );
+    assertFalse( store.close( "00000002", Hand.SCISSORS ).isPresent() );
+  }
+
+  @Test
+  @DisplayName( "should count the active games as these are inserted, closed and loaded again" )
+  public void shouldCountActiveGames() throws IOException {
+    store.insert( activeGame( "00000001", Hand.ROCK ) );
+    store.insert( activeGame( "00000002", Hand.ROCK ) );
+    assertEquals( 2, store.countActive() );
+
+    store.close( "00000001", Hand.PAPER );
+    store.close( "00000001", Hand.PAPER );
+    assertEquals( 1, store.countActive() );
+
+    store.close();
+    store = open( 4 );
+    assertEquals( 1, store.countActive() );
+  }
+
+  @Test
+  @DisplayName( "should move the games closed before the given time to the archive log, oldest first" )
+  public void shouldArchiveClosedGames() throws IOException {
+    store.close();
+    final Instant start = CLOCK.instant();
+    final MutableClock clock = new MutableClock( start );
+    store = open( 4, clock );
+    for ( int i = 1; i <= 4; i++ ) {
+      store.insert( activeGame( String.format( "%08d", i ), Hand.ROCK ) );
+    }
+    store.close( "00000003", Hand.PAPER );
+    clock.now = start.plusSeconds( 1 );
+    store.close( "00000001", Hand.PAPER );
+    clock.now = start.plusSeconds( 2 );
+    store.close( "00000002", Hand.PAPER );
+
+    assertEquals( 1, store.archiveClosed( start.plusSeconds( 2 ), 1 ) );
+    assertEquals( 1, store.archiveClosed( start.plusSeconds( 2 ), 10 ) );
+    assertEquals( 0, store.archiveClosed( start.plusSeconds( 2 ), 10 ) );
+    assertFalse( store.find( "00000003" ).isPresent() );
+    assertFalse( store.find( "00000001" ).isPresent() );
+    assertEquals( List.of( "00000002" ), codes( store.findClosed() ) );
+    assertEquals( 1, store.countActive() );
+
+    /* Archived games stay out after loading the log again */
+    store.close();
+    store = open( 4, clock );
+    assertEquals( List.of( "00000002" ), codes( store.findClosed() ) );
+    store.close();
+
+    final GameLog gameLog = new GameLog( directory.resolve( "games.log" ), 4 );
+    final List<String> archived = new ArrayList<>();
+    gameLog.open( game -> { }, archived::add );
+    assertEquals( List.of( "00000003", "00000001" ), archived );
+    gameLog.close();
+
+    final GameLog archive = new GameLog( directory.resolve( "games.log.archive" ), 4 );
+    final List<Game> games = new ArrayList<>();
+    archive.open( games::add );
+    assertEquals( List.of( "00000003", "00000001" ), games.stream().map( Game::getCode ).collect( Collectors.toList() ) );
+    assertEquals( GameState.CLOSED, games.get( 0 ).getState() );
+    archive.close();
+
+    store = open( 4, clock );
+  }
+
+  @Test
+  @DisplayName( "should page through the games in the order of their code" )
+  public void shouldPageGames() {
+    store.insert( activeGame( "00000003", Hand.ROCK ) );
+    store.insert( activeGame( "00000001", Hand.ROCK ) );
+    store.insert( activeGame( "00000002", Hand.ROCK ) );
+    store.close( "00000002", Hand.ROCK );
+
+    assertEquals( List.of( new ActiveGame( "00000001" ) ), store.findActiveAfter( "", 1 ) );
+    assertEquals( List.of( new ActiveGame( "00000003" ) ), store.findActiveAfter( "00000001", 10 ) );
+    assertEquals( List.of( "00000002" ), codes( store.findClosed() ) );
+  }
+
+  @Test
+  @DisplayName( "should load the games from the log when opened again" )
+  public void shouldReplayLog() throws IOException {
+    for ( int i = 0; i < 10; i++ ) {
+      store.insert( activeGame( String.format( "%08d", i ), Hand.SCISSORS ) );
+    }
+    store.close( "00000004", Hand.ROCK );
+    store.close();
+
+    store = open( 4 );
+
+    assertEquals( 9, store.findActive().size() );
+    final Game closed = store.find( "00000004" ).orElseThrow();
+    assertEquals( Hand.SCISSORS, closed.getPlayer1() );
+    assertEquals( Hand.ROCK, closed.getPlayer2() );
+    assertEquals( PvpOutcome.PLAYER_2_WIN, closed.getOutcome() );
+    assertEquals( CLOCK.instant(), closed.getCreatedAt() );
+    assertEquals( CLOCK.instant(), closed.getClosedAt() );
+  }
+
+  @Test
+  @DisplayName( "should keep the current state of every game when compacting the log" )
+  public void shouldCompactLog() throws IOException {
+    store.insert( activeGame( "00000001", Hand.ROCK ) );
+    store.insert( activeGame( "00000002", Hand.ROCK ) );
+    store.close( "00000001", Hand.PAPER );
+    store.close();
+
+    final GameLog gameLog = new GameLog( directory.resolve( "games.log" ), 4 );
+    final List<Game> games = new ArrayList<>();
+    gameLog.open( games::add );
+    assertEquals( 3, gameLog.records() );
+
+    gameLog.compact( List.of( games.get( 2 ), games.get( 1 ) ) );
+    assertEquals( 2, gameLog.records() );
+    gameLog.close();
+
+    store = open( 4 );
+    assertEquals( GameState.CLOSED, store.find( "00000001" ).map( Game::getState ).orElseThrow() );
+    assertEquals( List.of( new ActiveGame( "00000002" ) ), store.findActive() );
+  }
+
+  @Test
+  @DisplayName( "should keep the changes appended while the games were gathered for compaction" )
+  public void shouldKeepChangesDuringCompaction() throws IOException {
+    store.insert( activeGame( "00000001", Hand.ROCK ) );
+    store.insert( activeGame( "00000002", Hand.ROCK ) );
+    store.close();
+
+    final GameLog gameLog = new GameLog( directory.resolve( "games.log" ), 4 );
+    final List<Game> games = new ArrayList<>();
+    gameLog.open( games::add );
+    final long from = gameLog.records();
+
+    /* Appended after the games were gathered */
+    gameLog.append( new Game()
+      .setCode( "00000001" )
+      .setPlayer1( Hand.ROCK )
+      .setPlayer2( Hand.PAPER )
+      .setOutcome( PvpOutcome.PLAYER_2_WIN )
+      .setState( GameState.CLOSED ) );
+    gameLog.appendArchived( "00000002" );
+    gameLog.compact( games, from );
+    assertEquals( 4, gameLog.records() );
+
+    gameLog.append( activeGame( "00000003", Hand.ROCK ) );
+    gameLog.close();
+
+    store = open( 4 );
+    assertEquals( GameState.CLOSED, store.find( "00000001" ).map( Game::getState ).orElseThrow() );
+    assertEquals( List.of( new ActiveGame( "00000003" ) ), store.findActive() );
+    assertFalse( store.find( "00000002" ).isPresent() );
+  }
+
+  @Test
+  @DisplayName( "should keep forcing the log while it is compacted" )
+  public void shouldForceWhileCompacting() throws Exception {
+    final GameLog gameLog = new GameLog( directory.resolve( "forced.log" ), 4 );
+    gameLog.open( game -> { } );
+    final Game game = activeGame( "00000001", Hand.ROCK );
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final AtomicBoolean compacting = new AtomicBoolean( true );
+      final Future<?> forcing = executor.submit( () -> {
+        while ( compacting.get() ) {
+          gameLog.append( game );
+          gameLog.force();
+        }
+      } );
+
+      for ( int i = 0; i < 200; i++ ) {
+        gameLog.compact( List.of( game ) );
+      }
+      compacting.set( false );
+      forcing.get();
+
+      /* Forcing after the last compaction still finds the regions it has to force */
+      gameLog.append( game );
+      gameLog.force();
+    } finally {
+      executor.shutdown();
+      gameLog.close();
+    }
+  }
+
+  private EmbeddedGameStore open( final int recordsPerRegion ) throws IOException {
+    return open( recordsPerRegion, CLOCK );
+  }
+
+  private EmbeddedGameStore open( final int recordsPerRegion, final Clock clock ) throws IOException {
+    final EmbeddedGameStore opened = new EmbeddedGameStore( new GameLog( directory.resolve( "games.log" ), recordsPerRegion ),
+      new GameLog( directory.resolve( "games.log.archive" ), recordsPerRegion ), clock );
+    opened.open();
+    return opened;
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    private MutableClock( final Instant now ) {
+      this.now = now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone( final ZoneId zone ) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  private static Game activeGame( final String code, final Hand player1 ) {
+    return new Game()
+      .setCode( code )
+      .setPlayer1( player1 )
+      .setState( GameState.ACTIVE );
+  }
+
+  private static List<String> codes( final List<GameDetails> games ) {
+    return games.stream().map( GameDetails::getCode ).collect( Collectors.toList() );
+  }
+}
@@ -0,0 +1,97 @@
+package demo.games.dao;
+
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName( "Series" )
+public class SeriesTest {
+
+  private static final Instant NOW = Instant.parse( "2020-06-01T12:00:00Z" );
+
+  @Test
+  @DisplayName( "should only decide the round once both players played it" )
+  public void shouldDecideRoundOncePlayedByBoth() {
+    final Series series = activeSeries( 3 );
+
+    assertTrue( series.play( 0, 1, Hand.ROCK, NOW ) );
+    assertEquals( 0, series.getRound() );
+    assertEquals( Hand.ROCK, series.hand( 1, 0 ) );
+    assertNull( series.hand( 2, 0 ) );
+
+    assertTrue( series.play( 0, 2, Hand.SCISSORS, NOW ) );
+    assertEquals( 1, series.getRound() );
+    assertEquals( 1, series.getWins1() );
+    assertEquals( 0, series.getWins2() );
+    assertEquals( GameState.ACTIVE, series.getState() );
+  }
+
+  @Test
+  @DisplayName( "should not play a hand twice, or in another round than the one being played" )
+  public void shouldRejectOtherRounds() {
+    final Series series = activeSeries( 3 );
+
+    assertFalse( series.play( 1, 1, Hand.ROCK, NOW ) );
+    assertTrue( series.play( 0, 1, Hand.ROCK, NOW ) );
+    assertFalse( series.play( 0, 1, Hand.PAPER, NOW ) );
+    assertEquals( Hand.ROCK, series.hand( 1, 0 ) );
+  }
+
+  @Test
+  @DisplayName( "should play draws again and close the series once a player won the majority" )
+  public void shouldCloseOnceDecided() {
+    final Series series = activeSeries( 3 );
+
+    playRound( series, Hand.PAPER, Hand.ROCK );
+    playRound( series, Hand.ROCK, Hand.ROCK );
+    playRound( series, Hand.ROCK, Hand.PAPER );
+    assertEquals( GameState.ACTIVE, series.getState() );
+
+    playRound( series, Hand.SCISSORS, Hand.PAPER );
+    assertEquals( GameState.CLOSED, series.getState() );
+    assertEquals( PvpOutcome.PLAYER_1_WIN, series.getOutcome() );
+    assertEquals( NOW, series.getClosedAt() );
+    assertEquals( 4, series.getRound() );
+    assertEquals( Hand.PAPER, series.hand( 2, 2 ) );
+
+    assertFalse( series.play( 4, 1, Hand.ROCK, NOW ) );
+  }
+
+  @Test
+  @DisplayName( "should close a series that is still undecided after the last round that fits" )
+  public void shouldCloseAfterLastRound() {
+    final Series series = activeSeries( 3 );
+
+    playRound( series, Hand.ROCK, Hand.SCISSORS );
+    for ( int round = 1; round < Series.MAX_ROUNDS; round++ ) {
+      playRound( series, Hand.SCISSORS, Hand.SCISSORS );
+    }
+
+    assertEquals( Series.MAX_ROUNDS, series.getRound() );
+    assertEquals( GameState.CLOSED, series.getState() );
+    assertEquals( PvpOutcome.PLAYER_1_WIN, series.getOutcome() );
+    assertEquals( Hand.SCISSORS, series.hand( 1, Series.MAX_ROUNDS - 1 ) );
+  }
+
+  private static void playRound( final Series series, final Hand player1, final Hand player2 ) {
+    final int round = series.getRound();
+    assertTrue( series.play( round, 1, player1, NOW ) );
+    assertTrue( series.play( round, 2, player2, NOW ) );
+  }
+
+  private static Series activeSeries( final int bestOf ) {
+    return new Series()
+      .setCode( "00000000" )
+      .setBestOf( bestOf )
+      .setState( GameState.ACTIVE );
+  }
+}
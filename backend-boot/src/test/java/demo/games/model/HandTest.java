@@ -21,6 +21,13 @@ public class HandTest {
     assertSame( beatenBy, hand.beatenBy() );
   }
 
+  @CsvSource( { "0,ROCK", "1,PAPER", "2,SCISSORS" } )
+  @DisplayName( "from ordinal" )
+  @ParameterizedTest( name = "ordinal {0} should be {1}" )
+  void shouldReturnHandFromOrdinal( final int ordinal, final Hand hand ) {
+    assertSame( hand, Hand.fromOrdinal( ordinal ) );
+  }
+
   @Test
   @DisplayName( "should have known names" )
   void shouldHaveKnownNames() {
@@ -1,10 +1,12 @@
 package demo.games.model;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvFileSource;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DisplayName( "PvC outcome" )
 public class PvcOutcomeTest {
@@ -15,4 +17,38 @@ public class PvcOutcomeTest {
   public void shouldReturnCorrectOutcome( final Hand computer, final Hand player, final PvcOutcome expected ) {
     assertSame( expected, PvcOutcome.of( computer, player ) );
   }
+
+  @DisplayName( "resolve" )
+  @CsvFileSource( resources = { "/sample/pvc_outcome.csv" }, numLinesToSkip = 1 )
+  @ParameterizedTest( name = "should resolve to {2} when computer plays {0} and player plays {1}" )
+  public void shouldResolveCorrectOutcome( final Hand computer, final Hand player, final PvcOutcome expected ) {
+    assertSame( expected, PvcOutcome.fromOrdinal( PvcOutcome.resolve( computer.ordinal(), player.ordinal() ) ) );
+  }
+
+  @Test
+  @DisplayName( "should resolve all rounds in bulk" )
+  public void shouldResolveAllRoundsInBulk() {
+    final Hand[] hands = Hand.values();
+    final byte[] computer = new byte[hands.length * hands.length];
+    final byte[] player = new byte[computer.length];
+    for ( int i = 0; i < computer.length; i++ ) {
+      computer[i] = (byte) hands[i / hands.length].ordinal();
+      player[i] = (byte) hands[i % hands.length].ordinal();
+    }
+
+    final byte[] outcomes = new byte[computer.length];
+    PvcOutcome.resolve( computer, player, outcomes );
+
+    for ( int i = 0; i < computer.length; i++ ) {
+      assertSame( PvcOutcome.of( Hand.fromOrdinal( computer[i] ), Hand.fromOrdinal( player[i] ) ),
+        PvcOutcome.fromOrdinal( outcomes[i] ) );
+    }
+  }
+
+  @Test
+  @DisplayName( "should not resolve rounds in bulk when the arrays do not match" )
+  public void shouldNotResolveMismatchedRounds() {
+    assertThrows( IllegalArgumentException.class, () -> PvcOutcome.resolve( new byte[2], new byte[1], new byte[2] ) );
+    assertThrows( IllegalArgumentException.class, () -> PvcOutcome.resolve( new byte[2], new byte[2], new byte[1] ) );
+  }
 }
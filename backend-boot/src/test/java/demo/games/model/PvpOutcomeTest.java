@@ -9,6 +9,7 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static test.utils.Sha256Utils.computeSha256;
 
 @DisplayName( "PvP outcome" )
@@ -21,6 +22,40 @@ public class PvpOutcomeTest {
     assertSame( expected, PvpOutcome.of( player1, player2 ) );
   }
 
+  @DisplayName( "resolve" )
+  @CsvFileSource( resources = { "/sample/pvp_outcome.csv" }, numLinesToSkip = 1 )
+  @ParameterizedTest( name = "should resolve to {2} when player 1 plays {0} and player 2 plays {1}" )
+  public void shouldResolveCorrectOutcome( final Hand player1, final Hand player2, final PvpOutcome expected ) {
+    assertSame( expected, PvpOutcome.fromOrdinal( PvpOutcome.resolve( player1.ordinal(), player2.ordinal() ) ) );
+  }
+
+  @Test
+  @DisplayName( "should resolve all rounds in bulk" )
+  public void shouldResolveAllRoundsInBulk() {
+    final Hand[] hands = Hand.values();
+    final byte[] player1 = new byte[hands.length * hands.length];
+    final byte[] player2 = new byte[player1.length];
+    for ( int i = 0; i < player1.length; i++ ) {
+      player1[i] = (byte) hands[i / hands.length].ordinal();
+      player2[i] = (byte) hands[i % hands.length].ordinal();
+    }
+
+    final byte[] outcomes = new byte[player1.length];
+    PvpOutcome.resolve( player1, player2, outcomes );
+
+    for ( int i = 0; i < player1.length; i++ ) {
+      assertSame( PvpOutcome.of( Hand.fromOrdinal( player1[i] ), Hand.fromOrdinal( player2[i] ) ),
+        PvpOutcome.fromOrdinal( outcomes[i] ) );
+    }
+  }
+
+  @Test
+  @DisplayName( "should not resolve rounds in bulk when the arrays do not match" )
+  public void shouldNotResolveMismatchedRounds() {
+    assertThrows( IllegalArgumentException.class, () -> PvpOutcome.resolve( new byte[2], new byte[1], new byte[2] ) );
+    assertThrows( IllegalArgumentException.class, () -> PvpOutcome.resolve( new byte[2], new byte[2], new byte[1] ) );
+  }
+
   @Test
   @DisplayName( "should have known names" )
   void shouldHaveKnownNames() {
@@ -0,0 +1,157 @@
+package demo.games.service;
+
+import demo.games.dao.Game;
+import demo.games.dao.GameRepository;
+import demo.games.dao.GameStore;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName( "Active game registry" )
+public class ActiveGameRegistryTest {
+
+  @Test
+  @DisplayName( "should load the active games from the database" )
+  public void shouldLoadActiveGames() {
+    final Game game = createActiveGame( "00000000" );
+
+    final GameRepository repository = mock( GameRepository.class );
+    when( repository.findByStateEquals( eq( GameState.ACTIVE ) ) ).thenReturn( List.of( game ) );
+
+    final ActiveGameRegistry registry = new ActiveGameRegistry( repository, mock( GameStore.class ), 10 );
+    registry.load();
+
+    assertEquals( Optional.of( game ), registry.find( game.getCode() ) );
+    assertEquals( List.of( game ), registry.findActive() );
+  }
+
+  @Test
+  @DisplayName( "should close the game only once when many players join at the same time" )
+  public void shouldCloseGameOnlyOnce() throws Exception {
+    final int players = 32;
+    final ActiveGameRegistry registry =
+      new ActiveGameRegistry( mock( GameRepository.class ), mock( GameStore.class ), 10 );
+    registry.add( createActiveGame( "00000000" ) );
+
+    final ExecutorService executor = Executors.newFixedThreadPool( players );
+    try {
+      final CountDownLatch start = new CountDownLatch( 1 );
+      final List<Future<Optional<Game>>> results = new ArrayList<>();
+      for ( int i = 0; i < players; i++ ) {
+        final Hand player2 = Hand.fromOrdinal( i % Hand.values().length );
+        results.add( executor.submit( () -> {
+          start.await();
+          return registry.close( "00000000", player2 );
+        } ) );
+      }
+      start.countDown();
+
+      int closed = 0;
+      for ( final Future<Optional<Game>> result : results ) {
+        closed += result.get().isPresent() ? 1 : 0;
+      }
+      assertEquals( 1, closed );
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName( "should write nothing while the games are active, as these were inserted before being added" )
+  public void shouldNotWriteActiveGames() {
+    final GameStore store = mock( GameStore.class );
+    final ActiveGameRegistry registry = new ActiveGameRegistry( mock( GameRepository.class ), store, 10 );
+
+    registry.add( createActiveGame( "00000000" ) );
+    registry.flush();
+
+    verifyNoInteractions( store );
+    assertTrue( registry.find( "00000000" ).isPresent() );
+  }
+
+  @Test
+  @DisplayName( "should close the game with the conditional update and then forget it" )
+  public void shouldWriteClosedGame() {
+    final GameStore store = mock( GameStore.class );
+    when( store.close( "00000000", Hand.PAPER ) ).thenReturn( Optional.of( new Game() ) );
+    final ActiveGameRegistry registry = new ActiveGameRegistry( mock( GameRepository.class ), store, 10 );
+
+    registry.add( createActiveGame( "00000000" ) );
+    final Game closed = registry.close( "00000000", Hand.PAPER ).orElseThrow();
+    assertSame( GameState.CLOSED, closed.getState() );
+    assertSame( PvpOutcome.PLAYER_2_WIN, closed.getOutcome() );
+    assertEquals( Optional.of( closed ), registry.find( "00000000" ) );
+
+    registry.flush();
+
+    verify( store, times( 1 ) ).close( "00000000", Hand.PAPER );
+    verify( store, never() ).insertAll( any() );
+    verify( store, never() ).insert( any() );
+    assertTrue( registry.find( "00000000" ).isEmpty() );
+  }
+
+  @Test
+  @DisplayName( "should close the games again when writing fails, waiting longer after every failure" )
+  public void shouldRetryFailedWritesWithBackoff() {
+    final Clock clock = mock( Clock.class );
+    final Instant now = Instant.parse( "2020-01-01T00:00:00Z" );
+    when( clock.instant() ).thenReturn(
+      now, now,
+      now.plus( ActiveGameRegistry.MIN_BACKOFF ).minusMillis( 1 ),
+      now.plus( ActiveGameRegistry.MIN_BACKOFF ), now.plus( ActiveGameRegistry.MIN_BACKOFF ),
+      now.plus( ActiveGameRegistry.MIN_BACKOFF.multipliedBy( 3 ) ) );
+
+    final GameStore store = mock( GameStore.class );
+    when( store.close( "00000000", Hand.PAPER ) )
+      .thenThrow( new IllegalStateException( "Simulating a database failure" ) )
+      .thenThrow( new IllegalStateException( "Simulating a database failure" ) )
+      .thenReturn( Optional.of( new Game() ) );
+
+    final ActiveGameRegistry registry = new ActiveGameRegistry( mock( GameRepository.class ), store, 10, clock );
+    registry.add( createActiveGame( "00000000" ) );
+    registry.close( "00000000", Hand.PAPER );
+
+    /* Fails, waits 100 ms, fails again, and writes after waiting 200 ms */
+    registry.flush();
+    registry.flush();
+    verify( store, times( 1 ) ).close( "00000000", Hand.PAPER );
+    registry.flush();
+    verify( store, times( 2 ) ).close( "00000000", Hand.PAPER );
+    assertTrue( registry.find( "00000000" ).isPresent() );
+    registry.flush();
+    verify( store, times( 3 ) ).close( "00000000", Hand.PAPER );
+
+    assertTrue( registry.find( "00000000" ).isEmpty() );
+  }
+
+  private static Game createActiveGame( final String code ) {
+    return new Game()
+      .setCode( code )
+      .setPlayer1( Hand.ROCK )
+      .setState( GameState.ACTIVE );
+  }
+}
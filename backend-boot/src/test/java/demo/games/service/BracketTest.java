@@ -0,0 +1,182 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+import demo.games.model.TournamentFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjIntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName( "Bracket" )
+public class BracketTest {
+
+  private static final ObjIntConsumer<byte[]> NO_WRITER = ( hands, round ) -> { };
+
+  @Nested
+  @DisplayName( "single elimination" )
+  class SingleElimination {
+
+    @Test
+    @DisplayName( "should pair the highest seed with the lowest and give the highest seed a bye" )
+    public void shouldPairHighestWithLowest() {
+      final Bracket bracket = bracket( TournamentFormat.SINGLE_ELIMINATION, 5, 0 );
+
+      assertEquals( 3, bracket.getRounds() );
+      assertArrayEquals( new int[] { Bracket.NONE, 4, 3, 2, 1 }, opponents( bracket ) );
+    }
+
+    @Test
+    @DisplayName( "should advance the winners, and the higher seed on a draw or when neither played" )
+    public void shouldAdvanceWinners() {
+      final Bracket bracket = bracket( TournamentFormat.SINGLE_ELIMINATION, 8, 0 );
+
+      /* 0 v 7 draw, 1 v 6 won by 6, 2 v 5 not played, 3 v 4 only played by 4 */
+      assertTrue( bracket.play( 0, new int[] { 0, 7, 1, 6, 4 },
+        new Hand[] { Hand.ROCK, Hand.ROCK, Hand.ROCK, Hand.PAPER, Hand.SCISSORS } ) );
+      assertTrue( bracket.resolve( 0, NO_WRITER ) );
+
+      /* 0, 6, 2 and 4 are still in, and paired by seed again */
+      assertArrayEquals( new int[] { 6, Bracket.NONE, 4, Bracket.NONE, 2, Bracket.NONE, 0, Bracket.NONE },
+        opponents( bracket ) );
+    }
+
+    @Test
+    @DisplayName( "should close with a single winner after halving the entrants down to one" )
+    public void shouldCloseWithWinner() {
+      final Bracket bracket = bracket( TournamentFormat.SINGLE_ELIMINATION, 1_000, 0 );
+      playAll( bracket, 42 );
+
+      assertTrue( bracket.isClosed() );
+      assertEquals( 10, bracket.getRound() );
+      assertTrue( bracket.getWinner() >= 0 );
+      assertEquals( 10, scores( bracket )[bracket.getWinner()] );
+    }
+  }
+
+  @Nested
+  @DisplayName( "swiss" )
+  class Swiss {
+
+    @Test
+    @DisplayName( "should pair by points, and give the last one a bye" )
+    public void shouldPairByPoints() {
+      final Bracket bracket = bracket( TournamentFormat.SWISS, 5, 3 );
+      assertArrayEquals( new int[] { 1, 0, 3, 2, Bracket.NONE }, opponents( bracket ) );
+
+      /* 1 beats 0, 2 and 3 draw, 4 gets the bye */
+      assertTrue( bracket.play( 0, new int[] { 0, 1, 2, 3 },
+        new Hand[] { Hand.ROCK, Hand.PAPER, Hand.SCISSORS, Hand.SCISSORS } ) );
+      assertTrue( bracket.resolve( 0, NO_WRITER ) );
+
+      assertArrayEquals( new int[] { 0, 2, 1, 1, 2 }, scores( bracket ) );
+      /* Ranked 1, 4, 2, 3, 0 */
+      assertArrayEquals( new int[] { Bracket.NONE, 4, 3, 2, 1 }, opponents( bracket ) );
+    }
+
+    @Test
+    @DisplayName( "should close after the given number of rounds" )
+    public void shouldCloseAfterRounds() {
+      final Bracket bracket = bracket( TournamentFormat.SWISS, 100, 4 );
+      playAll( bracket, 7 );
+
+      assertEquals( 4, bracket.getRound() );
+      final int[] scores = scores( bracket );
+      for ( final int score : scores ) {
+        assertTrue( score <= scores[bracket.getWinner()] );
+      }
+    }
+  }
+
+  @Test
+  @DisplayName( "should not play an entrant without an opponent, or another round than the one being played" )
+  public void shouldRejectInvalidHands() {
+    final Bracket bracket = bracket( TournamentFormat.SINGLE_ELIMINATION, 3, 0 );
+
+    assertFalse( bracket.play( 0, new int[] { 0 }, new Hand[] { Hand.ROCK } ) );
+    assertFalse( bracket.play( 1, new int[] { 1 }, new Hand[] { Hand.ROCK } ) );
+    assertFalse( bracket.play( 0, new int[] { 3 }, new Hand[] { Hand.ROCK } ) );
+    assertFalse( bracket.resolve( 1, NO_WRITER ) );
+  }
+
+  @Test
+  @DisplayName( "should write the hands of the round before resolving it, and rebuild the same bracket from these" )
+  public void shouldRebuildFromWrittenRounds() {
+    final List<byte[]> written = new ArrayList<>();
+    final Bracket bracket = bracket( TournamentFormat.SWISS, 20_001, 5 );
+    final SplittableRandom random = new SplittableRandom( 3 );
+    for ( int round = 0; round < 5; round++ ) {
+      playRandom( bracket, round, random );
+      final int played = round;
+      assertTrue( bracket.resolve( round, ( hands, number ) -> {
+        assertEquals( played, number );
+        written.add( hands );
+      } ) );
+    }
+
+    final Bracket rebuilt = bracket( TournamentFormat.SWISS, 20_001, 5 );
+    written.forEach( rebuilt::replay );
+
+    assertArrayEquals( scores( bracket ), scores( rebuilt ) );
+    assertEquals( bracket.getWinner(), rebuilt.getWinner() );
+  }
+
+  @Test
+  @DisplayName( "should not resolve a round that could not be written" )
+  public void shouldNotResolveUnwrittenRound() {
+    final Bracket bracket = bracket( TournamentFormat.SINGLE_ELIMINATION, 4, 0 );
+
+    assertThrows( IllegalStateException.class, () -> bracket.resolve( 0, ( hands, round ) -> {
+      throw new IllegalStateException( "Database is down" );
+    } ) );
+
+    assertEquals( 0, bracket.getRound() );
+    assertTrue( bracket.resolve( 0, NO_WRITER ) );
+  }
+
+  private static Bracket bracket( final TournamentFormat format, final int entrants, final int rounds ) {
+    return new Bracket( "00000000", format, entrants, rounds, ForkJoinPool.commonPool() );
+  }
+
+  private static void playAll( final Bracket bracket, final long seed ) {
+    final SplittableRandom random = new SplittableRandom( seed );
+    while ( !bracket.isClosed() ) {
+      final int round = bracket.getRound();
+      playRandom( bracket, round, random );
+      assertTrue( bracket.resolve( round, NO_WRITER ) );
+    }
+  }
+
+  private static void playRandom( final Bracket bracket, final int round, final SplittableRandom random ) {
+    final int[] opponents = opponents( bracket );
+    for ( int entrant = 0; entrant < opponents.length; entrant++ ) {
+      if ( opponents[entrant] != Bracket.NONE ) {
+        final Hand hand = Hand.fromOrdinal( random.nextInt( Hand.values().length ) );
+        assertTrue( bracket.play( round, new int[] { entrant }, new Hand[] { hand } ) );
+      }
+    }
+  }
+
+  private static int[] opponents( final Bracket bracket ) {
+    final int[] scores = new int[bracket.getEntrants()];
+    final int[] opponents = new int[bracket.getEntrants()];
+    bracket.copyState( scores, opponents );
+    return opponents;
+  }
+
+  private static int[] scores( final Bracket bracket ) {
+    final int[] scores = new int[bracket.getEntrants()];
+    bracket.copyState( scores, new int[bracket.getEntrants()] );
+    return scores;
+  }
+}
@@ -0,0 +1,51 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName( "Computer opponent" )
+public class ComputerOpponentTest {
+
+  private final RandomService random = new RandomService( new SeededRandomSource( 7 ) );
+
+  @Test
+  @DisplayName( "should learn the habits of each player on its own" )
+  public void shouldLearnEachPlayer() {
+    final ComputerOpponent computer = new ComputerOpponent( new FrequencyStrategy(), random, 10 );
+    for ( int i = 0; i < 5; i++ ) {
+      computer.play( "rock", Hand.ROCK );
+      computer.play( "paper", Hand.PAPER );
+    }
+
+    assertEquals( Hand.PAPER, computer.play( "rock", Hand.ROCK ) );
+    assertEquals( Hand.SCISSORS, computer.play( "paper", Hand.PAPER ) );
+  }
+
+  @Test
+  @DisplayName( "should not keep the players when the strategy learns nothing" )
+  public void shouldNotKeepPlayersForRandomStrategy() {
+    final ComputerOpponent computer = new ComputerOpponent( new RandomStrategy(), random, 10 );
+    for ( int i = 0; i < 100; i++ ) {
+      computer.play( "player-" + i, Hand.ROCK );
+    }
+    computer.cleanUp();
+
+    assertEquals( 0, computer.countPlayers() );
+  }
+
+  @Test
+  @DisplayName( "should forget players once more players than the maximum played" )
+  public void shouldKeepAtMostMaxPlayers() {
+    final ComputerOpponent computer = new ComputerOpponent( new MarkovStrategy( 2 ), random, 100 );
+    for ( int i = 0; i < 10_000; i++ ) {
+      computer.play( "player-" + i, Hand.ROCK );
+    }
+    computer.cleanUp();
+
+    assertTrue( computer.countPlayers() <= 100 );
+  }
+}
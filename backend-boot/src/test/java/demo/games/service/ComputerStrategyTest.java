@@ -0,0 +1,93 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName( "Computer strategies" )
+public class ComputerStrategyTest {
+
+  private final RandomService random = new RandomService( new SeededRandomSource( 42 ) );
+
+  @Test
+  @DisplayName( "should beat the hand the player plays most" )
+  public void shouldBeatMostFrequentHand() {
+    final ComputerStrategy strategy = new FrequencyStrategy();
+    final int[] state = new int[strategy.stateSize()];
+    learn( strategy, state, Hand.ROCK, Hand.ROCK, Hand.SCISSORS );
+
+    assertEquals( Hand.PAPER.ordinal(), strategy.play( state, random ) );
+  }
+
+  @Test
+  @DisplayName( "should keep the counts below the limit and follow a player that changes habits" )
+  public void shouldFollowChangingPlayer() {
+    final ComputerStrategy strategy = new FrequencyStrategy();
+    final int[] state = new int[strategy.stateSize()];
+    for ( int i = 0; i < 10 * FrequencyStrategy.LIMIT; i++ ) {
+      strategy.learn( state, Hand.ROCK.ordinal() );
+    }
+    for ( int i = 0; i < FrequencyStrategy.LIMIT; i++ ) {
+      strategy.learn( state, Hand.SCISSORS.ordinal() );
+    }
+
+    for ( final int count : state ) {
+      assertTrue( count < FrequencyStrategy.LIMIT );
+    }
+    assertEquals( Hand.ROCK.ordinal(), strategy.play( state, random ) );
+  }
+
+  @Test
+  @DisplayName( "should beat a player that cycles through the hands once it saw the cycle" )
+  public void shouldBeatCyclingPlayer() {
+    final ComputerStrategy strategy = new MarkovStrategy( 2 );
+    final int[] state = new int[strategy.stateSize()];
+    int wins = 0;
+    for ( int i = 0; i < 300; i++ ) {
+      final Hand player = Hand.fromOrdinal( i % 3 );
+      if ( i >= 30 && strategy.play( state, random ) == player.beatenBy().ordinal() ) {
+        wins++;
+      }
+      strategy.learn( state, player.ordinal() );
+    }
+
+    assertEquals( 270, wins );
+  }
+
+  @Test
+  @DisplayName( "should play the other strategy unless playing at random" )
+  public void shouldMixWithRandom() {
+    final ComputerStrategy never = new MixedStrategy( new FrequencyStrategy(), 0 );
+    final int[] state = new int[never.stateSize()];
+    learn( never, state, Hand.SCISSORS );
+    for ( int i = 0; i < 100; i++ ) {
+      assertEquals( Hand.ROCK.ordinal(), never.play( state, random ) );
+    }
+
+    final ComputerStrategy always = new MixedStrategy( new FrequencyStrategy(), 100 );
+    final int[] counts = new int[Hand.values().length];
+    for ( int i = 0; i < 3_000; i++ ) {
+      counts[always.play( state, random )]++;
+    }
+    for ( final int count : counts ) {
+      assertTrue( count > 800, "Every hand is played about a third of the time" );
+    }
+  }
+
+  @Test
+  @DisplayName( "should not create a Markov strategy that needs too much state" )
+  public void shouldRejectLargeOrder() {
+    assertThrows( IllegalArgumentException.class, () -> new MarkovStrategy( MarkovStrategy.MAX_ORDER + 1 ) );
+    assertEquals( 2 + 81 * 3, new MarkovStrategy( MarkovStrategy.MAX_ORDER ).stateSize() );
+  }
+
+  private static void learn( final ComputerStrategy strategy, final int[] state, final Hand... hands ) {
+    for ( final Hand hand : hands ) {
+      strategy.learn( state, hand.ordinal() );
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package demo.games.service;
+
+import demo.games.dao.GameStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName( "Game archiver" )
+public class GameArchiverTest {
+
+  private static final Instant NOW = Instant.parse( "2020-06-08T12:00:00Z" );
+
+  @Test
+  @DisplayName( "should archive the games closed before the configured age until a batch is not full" )
+  public void shouldArchiveInBatches() {
+    final Instant before = Instant.parse( "2020-06-01T12:00:00Z" );
+
+    final GameStore store = mock( GameStore.class );
+    when( store.archiveClosed( eq( before ), eq( 10 ) ) ).thenReturn( 10, 10, 3 );
+
+    final GameArchiver archiver = new GameArchiver( store, Duration.ofDays( 7 ), 10, Clock.fixed( NOW, ZoneOffset.UTC ) );
+    archiver.archive();
+
+    verify( store, times( 3 ) ).archiveClosed( before, 10 );
+  }
+
+  @Test
+  @DisplayName( "should stop when there is nothing to archive" )
+  public void shouldStopWhenNothingToArchive() {
+    final GameStore store = mock( GameStore.class );
+
+    final GameArchiver archiver = new GameArchiver( store, Duration.ofDays( 7 ), 10, Clock.fixed( NOW, ZoneOffset.UTC ) );
+    archiver.archive();
+
+    verify( store, times( 1 ) ).archiveClosed( Instant.parse( "2020-06-01T12:00:00Z" ), 10 );
+  }
+}
@@ -1,7 +1,8 @@
 package demo.games.service;
 
 import org.junit.jupiter.api.DisplayName;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.util.Set;
 import java.util.TreeSet;
@@ -12,18 +13,20 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 @DisplayName( "Game code service" )
 public class GameCodeServiceTest {
 
-  @Test
-  @DisplayName( "should return a number of random codes without collisions" )
-  public void shouldReturnARandomCode() {
+  @EnumSource( GameCodeStrategy.class )
+  @ParameterizedTest( name = "should return a number of random codes without collisions using {0}" )
+  public void shouldReturnARandomCode( final GameCodeStrategy strategy ) {
 
     final int testSize = 10_000;
     final int length = 8;
 
-    final Set<String> observedCodes = new TreeSet<>( String.CASE_INSENSITIVE_ORDER );
+    final Set<String> observedCodes = new TreeSet<>();
 
-    final GameCodeService service = new GameCodeService();
+    final GameCodeService service = new GameCodeService( strategy.create( 0 ) );
     for ( int i = 0; i < testSize; i++ ) {
       final String code = service.nextCode( length );
+      assertEquals( length, code.length() );
+      assertTrue( code.chars().allMatch( Character::isLetterOrDigit ), String.format( "The code %s is not alphanumeric", code ) );
       assertTrue( observedCodes.add( code ), String.format( "The code %s was already observed", code ) );
     }
 
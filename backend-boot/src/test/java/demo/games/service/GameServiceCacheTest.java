@@ -0,0 +1,142 @@
+package demo.games.service;
+
+import demo.games.config.CacheConfiguration;
+import demo.games.dao.Game;
+import demo.games.dao.GameRepository;
+import demo.games.dao.JpaGameStore;
+import demo.games.model.GameDetails;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+
+import static demo.games.config.CacheConfiguration.CLOSED_GAMES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName( "Game service cache" )
+@ImportAutoConfiguration( CacheAutoConfiguration.class )
+@SpringBootTest(
+  classes = { GameService.class, JpaGameStore.class, GameMetrics.class, SimpleMeterRegistry.class, CacheConfiguration.class },
+  properties = {
+    "spring.cache.cache-names=closedGames",
+    "spring.cache.caffeine.spec=maximumSize=10,recordStats"
+  }
+)
+public class GameServiceCacheTest {
+
+  @BeforeEach
+  public void clearCache() {
+    cacheManager.getCache( CLOSED_GAMES ).clear();
+  }
+
+  @Test
+  @DisplayName( "should read a closed game from the database only once" )
+  public void shouldCacheClosedGames() {
+    final String code = "closed-game";
+    when( repository.findById( code ) ).thenReturn( Optional.of( closedGame( code ) ) );
+
+    final Optional<GameDetails> first = service.findPvpGame( code );
+    final Optional<GameDetails> second = service.findPvpGame( code );
+
+    assertTrue( first.isPresent() );
+    assertEquals( first, second );
+    verify( repository, times( 1 ) ).findById( code );
+  }
+
+  @Test
+  @DisplayName( "should not cache active games" )
+  public void shouldNotCacheActiveGames() {
+    final String code = "active-game";
+    when( repository.findById( code ) ).thenReturn( Optional.of(
+      new Game()
+        .setCode( code )
+        .setPlayer1( Hand.ROCK )
+        .setState( GameState.ACTIVE )
+    ) );
+
+    service.findPvpGame( code );
+    service.findPvpGame( code );
+
+    verify( repository, times( 2 ) ).findById( code );
+    assertNull( cacheManager.getCache( CLOSED_GAMES ).get( code ) );
+  }
+
+  @Test
+  @DisplayName( "should not cache missing games" )
+  public void shouldNotCacheMissingGames() {
+    final String code = "missing-game";
+    when( repository.findById( code ) ).thenReturn( Optional.empty() );
+
+    service.findPvpGame( code );
+    service.findPvpGame( code );
+
+    verify( repository, times( 2 ) ).findById( code );
+  }
+
+  @Test
+  @DisplayName( "should cache a game when it is closed" )
+  public void shouldCacheGameWhenClosed() {
+    final String code = "closing-game";
+    when( repository.closeGame( code, Hand.PAPER.ordinal(),
+      PvpOutcome.PLAYER_2_WIN.ordinal(), PvpOutcome.DRAW.ordinal(), PvpOutcome.PLAYER_1_WIN.ordinal() ) ).thenReturn( Optional.of(
+      new Game()
+        .setCode( code )
+        .setPlayer1( Hand.ROCK )
+        .setPlayer2( Hand.PAPER )
+        .setOutcome( PvpOutcome.PLAYER_2_WIN )
+        .setState( GameState.CLOSED )
+    ) );
+
+    service.playAgainstPlayer( code, Hand.PAPER );
+    final Optional<GameDetails> details = service.findPvpGame( code );
+
+    assertNotNull( cacheManager.getCache( CLOSED_GAMES ).get( code ) );
+    assertEquals( PvpOutcome.PLAYER_2_WIN, details.map( GameDetails::getOutcome ).orElseThrow() );
+    verify( repository, never() ).findById( code );
+  }
+
+  private static Game closedGame( final String code ) {
+    return new Game()
+      .setCode( code )
+      .setPlayer1( Hand.ROCK )
+      .setPlayer2( Hand.SCISSORS )
+      .setOutcome( PvpOutcome.PLAYER_1_WIN )
+      .setState( GameState.CLOSED );
+  }
+
+  @MockBean
+  private GameCodeService codeService;
+
+  @MockBean
+  private GameRepository repository;
+
+  @MockBean
+  private RandomService randomService;
+
+  @MockBean
+  private ComputerOpponent computer;
+
+  @Autowired
+  private GameService service;
+
+  @Autowired
+  private CacheManager cacheManager;
+}
@@ -2,13 +2,18 @@ package demo.games.service;
 
 import demo.games.dao.Game;
 import demo.games.dao.GameRepository;
+import demo.games.dao.JpaGameStore;
 import demo.games.model.ActiveGame;
+import demo.games.model.BatchStrategy;
 import demo.games.model.GameDetails;
+import demo.games.model.GamePage;
 import demo.games.model.GameState;
 import demo.games.model.Hand;
+import demo.games.model.PvcBatchResult;
 import demo.games.model.PvcGameResult;
 import demo.games.model.PvcOutcome;
 import demo.games.model.PvpOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,9 +21,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -30,9 +40,13 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -56,7 +70,7 @@ public class GameServiceTest {
       final GameRepository repository = mock( GameRepository.class );
       final RandomService randomService = mockRandomService( expectedHand );
 
-      final GameService service = new GameService( codeService, repository, randomService );
+      final GameService service = createService( codeService, repository, randomService );
       final Hand hand = service.randomHand();
       assertSame( expectedHand, hand );
 
@@ -83,12 +97,29 @@ public class GameServiceTest {
       playAndAssert( computer, player, PLAYER_WIN );
     }
 
+    @Test
+    @DisplayName( "should let the computer opponent pick the hand when the player gives an id" )
+    public void shouldPlayAgainstComputerOpponent() {
+      final RandomService randomService = mock( RandomService.class );
+      final ComputerOpponent computer = mock( ComputerOpponent.class );
+      when( computer.play( "player-1", Hand.ROCK ) ).thenReturn( Hand.PAPER );
+
+      final GameService service = createService( mock( GameCodeService.class ), mock( GameRepository.class ),
+        randomService, mock( ApplicationEventPublisher.class ), new GameMetrics( new SimpleMeterRegistry() ), computer,
+        Optional.empty() );
+      final PvcGameResult result = service.playAgainstComputer( Hand.ROCK, "player-1" );
+
+      assertEquals( new PvcGameResult( Hand.PAPER, Hand.ROCK, COMPUTER_WIN ), result );
+      verify( computer, times( 1 ) ).play( "player-1", Hand.ROCK );
+      verifyNoInteractions( randomService );
+    }
+
     private void playAndAssert( Hand computer, Hand player, PvcOutcome outcome ) {
       final GameCodeService codeService = mock( GameCodeService.class );
       final GameRepository repository = mock( GameRepository.class );
       final RandomService randomService = mockRandomService( computer );
 
-      final GameService service = new GameService( codeService, repository, randomService );
+      final GameService service = createService( codeService, repository, randomService );
 
       final PvcGameResult result = new PvcGameResult( computer, player, outcome );
       assertEquals( result, service.playAgainstComputer( player ) );
@@ -109,6 +140,80 @@ public class GameServiceTest {
     }
   }
 
+  @Nested
+  @DisplayName( "play batch against computer" )
+  class PlayBatchAgainstComputer {
+
+    private final int NUMBER_OF_HANDS = Hand.values().length;
+
+    @Test
+    @DisplayName( "should play the given hands and count the outcomes" )
+    public void shouldPlayTheGivenHands() {
+      final GameCodeService codeService = mock( GameCodeService.class );
+      final GameRepository repository = mock( GameRepository.class );
+      final RandomService randomService = mock( RandomService.class );
+      when( randomService.nextInt( eq( NUMBER_OF_HANDS ) ) ).thenReturn( Hand.ROCK.ordinal() );
+
+      final GameService service = createService( codeService, repository, randomService );
+
+      final List<Hand> players = List.of( Hand.ROCK, Hand.PAPER, Hand.SCISSORS, Hand.PAPER );
+      final PvcBatchResult result = service.playBatchAgainstComputer( players );
+      assertEquals( List.of( Hand.ROCK, Hand.ROCK, Hand.ROCK, Hand.ROCK ), result.getComputer() );
+      assertEquals( players, result.getPlayer() );
+      assertEquals( List.of( DRAW, PLAYER_WIN, COMPUTER_WIN, PLAYER_WIN ), result.getOutcomes() );
+      assertEquals( 2, result.getPlayerWins() );
+      assertEquals( 1, result.getComputerWins() );
+      assertEquals( 1, result.getDraws() );
+
+      verify( randomService, times( players.size() ) ).nextInt( NUMBER_OF_HANDS );
+      verifyNoInteractions( codeService );
+      verifyNoInteractions( repository );
+    }
+
+    @Test
+    @DisplayName( "should cycle through the hands when playing a number of rounds" )
+    public void shouldCycleThroughTheHands() {
+      final GameCodeService codeService = mock( GameCodeService.class );
+      final GameRepository repository = mock( GameRepository.class );
+      final RandomService randomService = mock( RandomService.class );
+      when( randomService.nextInt( eq( NUMBER_OF_HANDS ) ) ).thenReturn( Hand.PAPER.ordinal() );
+
+      final GameService service = createService( codeService, repository, randomService );
+
+      final PvcBatchResult result = service.playBatchAgainstComputer( 5, BatchStrategy.CYCLE );
+      assertEquals( List.of( Hand.ROCK, Hand.PAPER, Hand.SCISSORS, Hand.ROCK, Hand.PAPER ), result.getPlayer() );
+      assertEquals( List.of( COMPUTER_WIN, DRAW, PLAYER_WIN, COMPUTER_WIN, DRAW ), result.getOutcomes() );
+      assertEquals( 1, result.getPlayerWins() );
+      assertEquals( 2, result.getComputerWins() );
+      assertEquals( 2, result.getDraws() );
+
+      verify( randomService, times( 5 ) ).nextInt( NUMBER_OF_HANDS );
+      verifyNoInteractions( codeService );
+      verifyNoInteractions( repository );
+    }
+
+    @Test
+    @DisplayName( "should pick random player hands when playing a number of rounds" )
+    public void shouldPickRandomPlayerHands() {
+      final GameCodeService codeService = mock( GameCodeService.class );
+      final GameRepository repository = mock( GameRepository.class );
+      final RandomService randomService = mock( RandomService.class );
+      when( randomService.nextInt( eq( NUMBER_OF_HANDS ) ) ).thenReturn( Hand.SCISSORS.ordinal() );
+
+      final GameService service = createService( codeService, repository, randomService );
+
+      final PvcBatchResult result = service.playBatchAgainstComputer( 3, BatchStrategy.RANDOM );
+      assertEquals( List.of( Hand.SCISSORS, Hand.SCISSORS, Hand.SCISSORS ), result.getPlayer() );
+      assertEquals( List.of( DRAW, DRAW, DRAW ), result.getOutcomes() );
+      assertEquals( 3, result.getDraws() );
+
+      /* One for the player and one for the computer in every round */
+      verify( randomService, times( 6 ) ).nextInt( NUMBER_OF_HANDS );
+      verifyNoInteractions( codeService );
+      verifyNoInteractions( repository );
+    }
+  }
+
   @Nested
   @DisplayName( "play against another player" )
   class PlayAgainstPlayer {
@@ -126,17 +231,105 @@ public class GameServiceTest {
         final RandomService randomService = mock( RandomService.class );
 
         when( codeService.nextCode( eq( 8 ) ) ).thenReturn( gameToSaved.getCode() );
-        when( repository.save( eq( gameToSaved ) ) ).thenReturn( gameToSaved );
+        when( repository.insertGame( eq( gameToSaved.getCode() ), eq( gameToSaved.getPlayer1().ordinal() ),
+          eq( GameState.ACTIVE.ordinal() ) ) )
+          .thenReturn( 1 );
 
-        final GameService service = new GameService( codeService, repository, randomService );
+        final GameService service = createService( codeService, repository, randomService );
 
         final ActiveGame created = service.createPvpGame( gameToSaved.getPlayer1() );
         assertEquals( toActiveGame( gameToSaved ), created );
 
         verify( codeService, times( 1 ) ).nextCode( 8 );
-        verify( repository, times( 1 ) ).save( gameToSaved );
+        verify( repository, times( 1 ) )
+          .insertGame( gameToSaved.getCode(), gameToSaved.getPlayer1().ordinal(), GameState.ACTIVE.ordinal() );
+        verify( repository, never() ).save( any() );
+        verifyNoInteractions( randomService );
+      }
+
+      @Test
+      @DisplayName( "should try another code when the code is already taken" )
+      public void shouldRetryTakenCode() {
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+
+        when( codeService.nextCode( eq( 8 ) ) ).thenReturn( "00000000", "11111111" );
+        when( repository.insertGame( eq( "00000000" ), anyInt(), anyInt() ) ).thenReturn( 0 );
+        when( repository.insertGame( eq( "11111111" ), anyInt(), anyInt() ) ).thenReturn( 1 );
+
+        final GameService service = createService( codeService, repository, randomService );
+
+        assertEquals( new ActiveGame( "11111111" ), service.createPvpGame( Hand.ROCK ) );
+        verify( codeService, times( 2 ) ).nextCode( 8 );
+      }
+
+      @Test
+      @DisplayName( "should fail when every code tried is already taken" )
+      public void shouldFailWhenAllCodesAreTaken() {
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+
+        when( codeService.nextCode( eq( 8 ) ) ).thenReturn( "00000000" );
+        when( repository.insertGame( any(), anyInt(), anyInt() ) ).thenReturn( 0 );
+
+        final GameService service = createService( codeService, repository, randomService );
+
+        assertThrows( IllegalStateException.class, () -> service.createPvpGame( Hand.ROCK ) );
+        verify( repository, times( GameService.MAX_CODE_ATTEMPTS ) )
+          .insertGame( "00000000", Hand.ROCK.ordinal(), GameState.ACTIVE.ordinal() );
+      }
+    }
+
+    @Nested
+    @DisplayName( "create games in bulk" )
+    class CreateGamesInBulk {
+      @Test
+      @DisplayName( "should create one game for every hand in a single insert" )
+      public void shouldCreateGamesInBulk() {
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+
+        when( codeService.nextCode( eq( 8 ) ) ).thenReturn( "00000000", "11111111" );
+        when( repository.insertGames( any() ) ).thenReturn( Set.of( "00000000", "11111111" ) );
+
+        final GameService service = createService( codeService, repository, randomService );
+
+        assertEquals( List.of( new ActiveGame( "00000000" ), new ActiveGame( "11111111" ) ),
+          service.createPvpGames( List.of( Hand.ROCK, Hand.PAPER ) ) );
+
+        verify( repository, times( 1 ) ).insertGames( List.of(
+          new Game().setCode( "00000000" ).setPlayer1( Hand.ROCK ).setState( GameState.ACTIVE ),
+          new Game().setCode( "11111111" ).setPlayer1( Hand.PAPER ).setState( GameState.ACTIVE ) ) );
+        verify( repository, never() ).save( any() );
         verifyNoInteractions( randomService );
       }
+
+      @Test
+      @DisplayName( "should only try again the games whose code is already taken" )
+      public void shouldRetryTakenCodes() {
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+
+        /* The second code is taken in the database and the third one is a duplicate within the same bulk */
+        when( codeService.nextCode( eq( 8 ) ) )
+          .thenReturn( "00000000", "11111111", "00000000", "22222222", "33333333" );
+        when( repository.insertGames( any() ) ).thenReturn( Set.of( "00000000" ), Set.of( "22222222", "33333333" ) );
+
+        final GameService service = createService( codeService, repository, randomService );
+
+        final List<ActiveGame> expected =
+          List.of( new ActiveGame( "00000000" ), new ActiveGame( "33333333" ), new ActiveGame( "22222222" ) );
+        assertEquals( expected, service.createPvpGames( List.of( Hand.ROCK, Hand.PAPER, Hand.SCISSORS ) ) );
+
+        verify( codeService, times( 5 ) ).nextCode( 8 );
+        verify( repository, times( 1 ) ).insertGames( List.of(
+          new Game().setCode( "22222222" ).setPlayer1( Hand.SCISSORS ).setState( GameState.ACTIVE ),
+          new Game().setCode( "33333333" ).setPlayer1( Hand.PAPER ).setState( GameState.ACTIVE ) ) );
+      }
     }
 
     @Nested
@@ -152,15 +345,15 @@ public class GameServiceTest {
         final GameRepository repository = mock( GameRepository.class );
         final RandomService randomService = mock( RandomService.class );
 
-        when( repository.findByStateEquals( eq( GameState.ACTIVE ) ) ).thenReturn( gamesInDb );
+        when( repository.findActiveGamesByState( eq( GameState.ACTIVE ) ) ).thenReturn( toActiveGame( gamesInDb ) );
 
-        final GameService service = new GameService( codeService, repository, randomService );
+        final GameService service = createService( codeService, repository, randomService );
 
         final List<ActiveGame> games = service.listActivePvpGames();
         assertEquals( numberOfGamesInDb, games.size() );
         assertEquals( toActiveGame( gamesInDb ), games );
 
-        verify( repository, times( 1 ) ).findByStateEquals( GameState.ACTIVE );
+        verify( repository, times( 1 ) ).findActiveGamesByState( GameState.ACTIVE );
         verifyNoInteractions( codeService );
         verifyNoInteractions( randomService );
       }
@@ -175,15 +368,131 @@ public class GameServiceTest {
         final GameRepository repository = mock( GameRepository.class );
         final RandomService randomService = mock( RandomService.class );
 
-        when( repository.findByStateEquals( eq( GameState.CLOSED ) ) ).thenReturn( gamesInDb );
+        when( repository.findGameDetailsByState( eq( GameState.CLOSED ) ) ).thenReturn( toGameDetails( gamesInDb ) );
 
-        final GameService service = new GameService( codeService, repository, randomService );
+        final GameService service = createService( codeService, repository, randomService );
 
         final List<GameDetails> games = service.listClosedPvpGames();
         assertEquals( numberOfGamesInDb, games.size() );
         assertEquals( toGameDetails( gamesInDb ), games );
 
-        verify( repository, times( 1 ) ).findByStateEquals( GameState.CLOSED );
+        verify( repository, times( 1 ) ).findGameDetailsByState( GameState.CLOSED );
+        verifyNoInteractions( codeService );
+        verifyNoInteractions( randomService );
+      }
+    }
+
+    @Nested
+    @DisplayName( "page games" )
+    class PageGames {
+      @Test
+      @DisplayName( "should return a full page of active games with the code to continue after" )
+      public void shouldReturnFullPageOfActiveGames() {
+        final List<Game> gamesInDb = createActiveGames( 5 );
+
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+
+        when( repository.findActiveGamesByStateAfter( eq( GameState.ACTIVE ), eq( "" ), eq( PageRequest.of( 0, 5 ) ) ) )
+          .thenReturn( toActiveGame( gamesInDb ) );
+
+        final GameService service = createService( codeService, repository, randomService );
+
+        final GamePage<ActiveGame> page = service.pageActivePvpGames( null, 5 );
+        assertEquals( toActiveGame( gamesInDb ), page.getGames() );
+        assertEquals( gamesInDb.get( 4 ).getCode(), page.getNext() );
+
+        verify( repository, times( 1 ) ).findActiveGamesByStateAfter( GameState.ACTIVE, "", PageRequest.of( 0, 5 ) );
+        verifyNoInteractions( codeService );
+        verifyNoInteractions( randomService );
+      }
+
+      @Test
+      @DisplayName( "should return the last page of closed games without a code to continue after" )
+      public void shouldReturnLastPageOfClosedGames() {
+        final String after = "00000000";
+        final List<Game> gamesInDb = createCloseGames( 3 );
+
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+
+        when( repository.findGameDetailsByStateAfter( eq( GameState.CLOSED ), eq( after ),
+          eq( PageRequest.of( 0, 5 ) ) ) )
+          .thenReturn( toGameDetails( gamesInDb ) );
+
+        final GameService service = createService( codeService, repository, randomService );
+
+        final GamePage<GameDetails> page = service.pageClosedPvpGames( after, 5 );
+        assertEquals( toGameDetails( gamesInDb ), page.getGames() );
+        assertNull( page.getNext() );
+
+        verify( repository, times( 1 ) ).findGameDetailsByStateAfter( GameState.CLOSED, after, PageRequest.of( 0, 5 ) );
+        verifyNoInteractions( codeService );
+        verifyNoInteractions( randomService );
+      }
+
+      @CsvSource( { "0,1", "-1,1", "1000,1000", "1001,1000" } )
+      @ParameterizedTest( name = "should ask for {1} games when the limit is {0}" )
+      public void shouldLimitThePageSize( final int limit, final int expected ) {
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+
+        when( repository.findActiveGamesByStateAfter( any(), any(), any() ) ).thenReturn( List.of() );
+
+        final GameService service = createService( codeService, repository, randomService );
+        service.pageActivePvpGames( "", limit );
+
+        verify( repository, times( 1 ) )
+          .findActiveGamesByStateAfter( GameState.ACTIVE, "", PageRequest.of( 0, expected ) );
+      }
+    }
+
+    @Nested
+    @DisplayName( "stream games" )
+    class StreamGames {
+      @Test
+      @DisplayName( "should pass every active game to the consumer" )
+      public void shouldStreamActiveGames() {
+        final List<Game> gamesInDb = createActiveGames( 5 );
+
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+
+        when( repository.streamActiveGamesByState( eq( GameState.ACTIVE ) ) )
+          .thenReturn( toActiveGame( gamesInDb ).stream() );
+
+        final GameService service = createService( codeService, repository, randomService );
+
+        final List<ActiveGame> games = new ArrayList<>();
+        service.streamActivePvpGames( games::add );
+        assertEquals( toActiveGame( gamesInDb ), games );
+
+        verifyNoInteractions( codeService );
+        verifyNoInteractions( randomService );
+      }
+
+      @Test
+      @DisplayName( "should pass every closed game to the consumer" )
+      public void shouldStreamClosedGames() {
+        final List<Game> gamesInDb = createCloseGames( 5 );
+
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+
+        when( repository.streamGameDetailsByState( eq( GameState.CLOSED ) ) )
+          .thenReturn( toGameDetails( gamesInDb ).stream() );
+
+        final GameService service = createService( codeService, repository, randomService );
+
+        final List<GameDetails> games = new ArrayList<>();
+        service.streamClosedPvpGames( games::add );
+        assertEquals( toGameDetails( gamesInDb ), games );
+
         verifyNoInteractions( codeService );
         verifyNoInteractions( randomService );
       }
@@ -203,17 +512,55 @@ public class GameServiceTest {
         final RandomService randomService = mock( RandomService.class );
 
         when( repository.findById( eq( code ) ) ).thenReturn( Optional.empty() );
+        when( repository.findArchivedById( eq( code ) ) ).thenReturn( Optional.empty() );
 
-        final GameService service = new GameService( codeService, repository, randomService );
+        final GameService service = createService( codeService, repository, randomService );
         final Optional<GameDetails> game = service.findPvpGame( code );
         assertNotNull( game );
         assertTrue( game.isEmpty() );
 
         verify( repository, times( 1 ) ).findById( code );
+        verify( repository, times( 1 ) ).findArchivedById( code );
         verifyNoInteractions( codeService );
         verifyNoInteractions( randomService );
       }
 
+      @Test
+      @DisplayName( "should return the archived game when game is no longer in the games table" )
+      public void shouldReturnArchivedGame() {
+        final Game gameInArchive = createCloseGame();
+
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+
+        when( repository.findById( eq( gameInArchive.getCode() ) ) ).thenReturn( Optional.empty() );
+        when( repository.findArchivedById( eq( gameInArchive.getCode() ) ) ).thenReturn( Optional.of( gameInArchive ) );
+
+        final GameService service = createService( codeService, repository, randomService );
+
+        assertEquals( toGameDetails( gameInArchive ), service.findPvpGame( gameInArchive.getCode() ).orElseThrow() );
+        verify( repository, times( 1 ) ).findById( gameInArchive.getCode() );
+        verify( repository, times( 1 ) ).findArchivedById( gameInArchive.getCode() );
+      }
+
+      @Test
+      @DisplayName( "should not look in the archive when the game is in the games table" )
+      public void shouldNotLookInArchiveWhenFound() {
+        final Game gameInDb = createCloseGame();
+
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+
+        when( repository.findById( eq( gameInDb.getCode() ) ) ).thenReturn( Optional.of( gameInDb ) );
+
+        final GameService service = createService( codeService, repository, randomService );
+
+        assertTrue( service.findPvpGame( gameInDb.getCode() ).isPresent() );
+        verify( repository, never() ).findArchivedById( any() );
+      }
+
       @Test
       @DisplayName( "should return limited game details when game is still open" )
       public void shouldReturnLimitedDetails() {
@@ -225,7 +572,7 @@ public class GameServiceTest {
 
         when( repository.findById( eq( gameInDb.getCode() ) ) ).thenReturn( Optional.of( gameInDb ) );
 
-        final GameService service = new GameService( codeService, repository, randomService );
+        final GameService service = createService( codeService, repository, randomService );
         final Optional<GameDetails> game = service.findPvpGame( gameInDb.getCode() );
         assertNotNull( game );
         assertFalse( game.isEmpty() );
@@ -253,7 +600,7 @@ public class GameServiceTest {
 
         when( repository.findById( eq( gameInDb.getCode() ) ) ).thenReturn( Optional.of( gameInDb ) );
 
-        final GameService service = new GameService( codeService, repository, randomService );
+        final GameService service = createService( codeService, repository, randomService );
         final Optional<GameDetails> game = service.findPvpGame( gameInDb.getCode() );
         assertNotNull( game );
         assertFalse( game.isEmpty() );
@@ -286,16 +633,21 @@ public class GameServiceTest {
         final GameRepository repository = mock( GameRepository.class );
         final RandomService randomService = mock( RandomService.class );
 
-        when( repository.findByCodeAndStateEquals( eq( code ), eq( GameState.ACTIVE ) ) ).thenReturn( Optional.empty() );
+        final ApplicationEventPublisher events = mock( ApplicationEventPublisher.class );
+
+        when( repository.closeGame( eq( code ), eq( player2.ordinal() ), anyInt(), anyInt(), anyInt() ) )
+          .thenReturn( Optional.empty() );
 
-        final GameService service = new GameService( codeService, repository, randomService );
+        final GameService service = createService( codeService, repository, randomService, events );
         final Optional<GameDetails> game = service.playAgainstPlayer( code, player2 );
         assertNotNull( game );
         assertTrue( game.isEmpty() );
 
-        verify( repository, times( 1 ) ).findByCodeAndStateEquals( code, GameState.ACTIVE );
+        verify( repository, times( 1 ) ).closeGame( code, player2.ordinal(),
+          PvpOutcome.DRAW.ordinal(), PvpOutcome.PLAYER_1_WIN.ordinal(), PvpOutcome.PLAYER_2_WIN.ordinal() );
         verifyNoInteractions( codeService );
         verifyNoInteractions( randomService );
+        verifyNoInteractions( events );
       }
 
       @Test
@@ -304,10 +656,6 @@ public class GameServiceTest {
 
         final String code = "00000000";
         final Hand player2 = Hand.ROCK;
-        final Game gameInDb = new Game()
-          .setCode( code )
-          .setPlayer1( Hand.ROCK )
-          .setState( GameState.ACTIVE );
         final Game gameToBeSaved = new Game()
           .setCode( code )
           .setPlayer1( Hand.ROCK )
@@ -319,10 +667,11 @@ public class GameServiceTest {
         final GameRepository repository = mock( GameRepository.class );
         final RandomService randomService = mock( RandomService.class );
 
-        when( repository.findByCodeAndStateEquals( eq( code ), eq( GameState.ACTIVE ) ) ).thenReturn( Optional.of( gameInDb ) );
-        when( repository.save( eq( gameToBeSaved ) ) ).thenReturn( gameToBeSaved );
+        when( repository.closeGame( eq( code ), eq( player2.ordinal() ), anyInt(), anyInt(), anyInt() ) )
+          .thenReturn( Optional.of( gameToBeSaved ) );
 
-        final GameService service = new GameService( codeService, repository, randomService );
+        final ApplicationEventPublisher events = mock( ApplicationEventPublisher.class );
+        final GameService service = createService( codeService, repository, randomService, events );
         final Optional<GameDetails> game = service.playAgainstPlayer( code, player2 );
         assertNotNull( game );
         assertFalse( game.isEmpty() );
@@ -334,10 +683,110 @@ public class GameServiceTest {
         assertSame( gameToBeSaved.getPlayer2(), details.getPlayer2() );
         assertSame( gameToBeSaved.getOutcome(), details.getOutcome() );
 
-        verify( repository, times( 1 ) ).findByCodeAndStateEquals( code, GameState.ACTIVE );
+        verify( repository, times( 1 ) ).closeGame( code, player2.ordinal(),
+          PvpOutcome.DRAW.ordinal(), PvpOutcome.PLAYER_1_WIN.ordinal(), PvpOutcome.PLAYER_2_WIN.ordinal() );
+        verify( repository, never() ).save( any() );
+        verify( events, times( 1 ) ).publishEvent( new GameClosedEvent( details ) );
+        verifyNoInteractions( codeService );
+        verifyNoInteractions( randomService );
+      }
+    }
+
+    @Nested
+    @DisplayName( "with active game registry" )
+    class WithActiveGameRegistry {
+
+      @Test
+      @DisplayName( "should insert the new game in the database and then add it to the registry" )
+      public void shouldCreateGameInRegistry() {
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+        final ActiveGameRegistry registry = new ActiveGameRegistry( repository, new JpaGameStore( repository ), 10 );
+
+        when( codeService.nextCode( eq( 8 ) ) ).thenReturn( "00000000", "00000000", "11111111" );
+        when( repository.insertGame( "00000000", Hand.ROCK.ordinal(), GameState.ACTIVE.ordinal() ) ).thenReturn( 1, 0 );
+        when( repository.insertGame( "11111111", Hand.ROCK.ordinal(), GameState.ACTIVE.ordinal() ) ).thenReturn( 1 );
+
+        final GameService service = createService( codeService, repository, randomService, registry );
+
+        assertEquals( new ActiveGame( "00000000" ), service.createPvpGame( Hand.ROCK ) );
+        /* The second game is given a new code as the database already has the first one */
+        assertEquals( new ActiveGame( "11111111" ), service.createPvpGame( Hand.ROCK ) );
+        assertEquals( List.of( new ActiveGame( "00000000" ), new ActiveGame( "11111111" ) ),
+          service.listActivePvpGames().stream()
+            .sorted( Comparator.comparing( ActiveGame::getCode ) )
+            .collect( Collectors.toList() ) );
+
+        verify( codeService, times( 3 ) ).nextCode( 8 );
+        /* One statement per attempt reserves the code, nothing is looked up first */
+        verify( repository, times( 3 ) ).insertGame( any(), anyInt(), anyInt() );
+        verify( repository, never() ).findById( any() );
+        verifyNoInteractions( randomService );
+      }
+
+      @Test
+      @DisplayName( "should insert the bulk games in one statement and then add these to the registry" )
+      public void shouldCreateBulkGamesInRegistry() {
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final ActiveGameRegistry registry = new ActiveGameRegistry( repository, new JpaGameStore( repository ), 10 );
+
+        when( codeService.nextCode( eq( 8 ) ) ).thenReturn( "00000000", "11111111" );
+        when( repository.insertGames( any() ) ).thenReturn( Set.of( "00000000", "11111111" ) );
+
+        final GameService service = createService( codeService, repository, mock( RandomService.class ), registry );
+
+        assertEquals( List.of( new ActiveGame( "00000000" ), new ActiveGame( "11111111" ) ),
+          service.createPvpGames( List.of( Hand.ROCK, Hand.PAPER ) ) );
+        assertSame( Hand.PAPER, registry.find( "11111111" ).orElseThrow().getPlayer1() );
+        verify( repository, times( 1 ) ).insertGames( any() );
+        verify( repository, never() ).findById( any() );
+      }
+
+      @Test
+      @DisplayName( "should play and find the game in the registry without the database" )
+      public void shouldPlayGameInRegistry() {
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+        final ActiveGameRegistry registry = new ActiveGameRegistry( repository, new JpaGameStore( repository ), 10 );
+        registry.add( createActiveGame().setCode( "00000000" ) );
+
+        final GameService service = createService( codeService, repository, randomService, registry );
+
+        assertSame( GameState.ACTIVE, service.findPvpGame( "00000000" ).orElseThrow().getState() );
+
+        final GameDetails details = service.playAgainstPlayer( "00000000", Hand.SCISSORS ).orElseThrow();
+        assertSame( GameState.CLOSED, details.getState() );
+        assertSame( PvpOutcome.PLAYER_1_WIN, details.getOutcome() );
+        assertEquals( details, service.findPvpGame( "00000000" ).orElseThrow() );
+
+        /* The game is already closed */
+        assertTrue( service.playAgainstPlayer( "00000000", Hand.SCISSORS ).isEmpty() );
+
+        verifyNoInteractions( repository );
         verifyNoInteractions( codeService );
         verifyNoInteractions( randomService );
       }
+
+      @Test
+      @DisplayName( "should find games that are no longer in the registry in the database" )
+      public void shouldFindGameInDatabase() {
+        final Game gameInDb = createCloseGame();
+
+        final GameCodeService codeService = mock( GameCodeService.class );
+        final GameRepository repository = mock( GameRepository.class );
+        final RandomService randomService = mock( RandomService.class );
+        final ActiveGameRegistry registry = new ActiveGameRegistry( repository, new JpaGameStore( repository ), 10 );
+
+        when( repository.findById( eq( gameInDb.getCode() ) ) ).thenReturn( Optional.of( gameInDb ) );
+
+        final GameService service = createService( codeService, repository, randomService, registry );
+
+        assertEquals( toGameDetails( gameInDb ), service.findPvpGame( gameInDb.getCode() ).orElseThrow() );
+        verify( repository, times( 1 ) ).findById( gameInDb.getCode() );
+      }
     }
 
     private List<Game> createActiveGames( final int number ) {
@@ -398,4 +847,128 @@ public class GameServiceTest {
       return details;
     }
   }
+
+  @Nested
+  @DisplayName( "metrics" )
+  class Metrics {
+
+    @Test
+    @DisplayName( "should count the games against the computer by outcome and hand" )
+    public void shouldCountPvcGames() {
+      final RandomService randomService = mock( RandomService.class );
+      when( randomService.nextInt( Hand.values().length ) ).thenReturn( Hand.ROCK.ordinal() );
+
+      final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+      final GameService service = createService( mock( GameCodeService.class ), mock( GameRepository.class ),
+        randomService, registry );
+      service.playAgainstComputer( Hand.PAPER );
+      service.playBatchAgainstComputer( List.of( Hand.PAPER, Hand.ROCK, Hand.SCISSORS ) );
+
+      assertEquals( 2, registry.counter( GameMetrics.PVC_GAMES, "outcome", PLAYER_WIN.name() ).count() );
+      assertEquals( 1, registry.counter( GameMetrics.PVC_GAMES, "outcome", DRAW.name() ).count() );
+      assertEquals( 1, registry.counter( GameMetrics.PVC_GAMES, "outcome", COMPUTER_WIN.name() ).count() );
+      assertEquals( 2, registry.counter( GameMetrics.HANDS, "game", "pvc", "hand", Hand.PAPER.name() ).count() );
+      assertEquals( 0, registry.counter( GameMetrics.HANDS, "game", "pvp", "hand", Hand.PAPER.name() ).count() );
+    }
+
+    @Test
+    @DisplayName( "should count the closed games by outcome and the hands of both players" )
+    public void shouldCountPvpGames() {
+      final GameCodeService codeService = mock( GameCodeService.class );
+      when( codeService.nextCode( 8 ) ).thenReturn( "00000000" );
+
+      final GameRepository repository = mock( GameRepository.class );
+      when( repository.insertGame( "00000000", Hand.ROCK.ordinal(), GameState.ACTIVE.ordinal() ) ).thenReturn( 1 );
+      when( repository.closeGame( eq( "00000000" ), eq( Hand.PAPER.ordinal() ), anyInt(), anyInt(), anyInt() ) )
+        .thenReturn( Optional.of( new Game()
+          .setCode( "00000000" )
+          .setPlayer1( Hand.ROCK )
+          .setPlayer2( Hand.PAPER )
+          .setState( GameState.CLOSED )
+          .setOutcome( PvpOutcome.PLAYER_2_WIN ) ) );
+
+      final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+      final GameService service = createService( codeService, repository, mock( RandomService.class ), registry );
+      service.createPvpGame( Hand.ROCK );
+      service.playAgainstPlayer( "00000000", Hand.PAPER );
+      service.playAgainstPlayer( "00000000", Hand.SCISSORS );
+
+      assertEquals( 1, registry.counter( GameMetrics.PVP_GAMES, "outcome", PvpOutcome.PLAYER_2_WIN.name() ).count() );
+      assertEquals( 1, registry.counter( GameMetrics.HANDS, "game", "pvp", "hand", Hand.ROCK.name() ).count() );
+      assertEquals( 1, registry.counter( GameMetrics.HANDS, "game", "pvp", "hand", Hand.PAPER.name() ).count() );
+      assertEquals( 0, registry.counter( GameMetrics.HANDS, "game", "pvp", "hand", Hand.SCISSORS.name() ).count() );
+    }
+
+    @Test
+    @DisplayName( "should not count a closed game before the close is committed" )
+    public void shouldNotCountPvpGameBeforeCommit() {
+      final GameRepository repository = mock( GameRepository.class );
+      when( repository.closeGame( eq( "00000000" ), eq( Hand.PAPER.ordinal() ), anyInt(), anyInt(), anyInt() ) )
+        .thenReturn( Optional.of( new Game()
+          .setCode( "00000000" )
+          .setPlayer1( Hand.ROCK )
+          .setPlayer2( Hand.PAPER )
+          .setState( GameState.CLOSED )
+          .setOutcome( PvpOutcome.PLAYER_2_WIN ) ) );
+
+      final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+      final GameService service = createService( mock( GameCodeService.class ), repository, mock( RandomService.class ),
+        mock( ApplicationEventPublisher.class ), new GameMetrics( registry ), mock( ComputerOpponent.class ),
+        Optional.empty() );
+      service.playAgainstPlayer( "00000000", Hand.PAPER );
+
+      assertEquals( 0, registry.counter( GameMetrics.PVP_GAMES, "outcome", PvpOutcome.PLAYER_2_WIN.name() ).count() );
+      assertEquals( 0, registry.counter( GameMetrics.HANDS, "game", "pvp", "hand", Hand.PAPER.name() ).count() );
+    }
+
+    @Test
+    @DisplayName( "should read the number of active games when the gauge is published" )
+    public void shouldGaugeActiveGames() {
+      final GameRepository repository = mock( GameRepository.class );
+      when( repository.countByState( GameState.ACTIVE ) ).thenReturn( 42L );
+
+      final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+      createService( mock( GameCodeService.class ), repository, mock( RandomService.class ), registry );
+
+      assertEquals( 42, registry.get( GameMetrics.ACTIVE_GAMES ).gauge().value() );
+    }
+  }
+
+  private static GameService createService( final GameCodeService codeService, final GameRepository repository,
+    final RandomService randomService ) {
+    return createService( codeService, repository, randomService, mock( ApplicationEventPublisher.class ),
+      new GameMetrics( new SimpleMeterRegistry() ), mock( ComputerOpponent.class ), Optional.empty() );
+  }
+
+  private static GameService createService( final GameCodeService codeService, final GameRepository repository,
+    final RandomService randomService, final ApplicationEventPublisher events ) {
+    return createService( codeService, repository, randomService, events, new GameMetrics( new SimpleMeterRegistry() ),
+      mock( ComputerOpponent.class ), Optional.empty() );
+  }
+
+  private static GameService createService( final GameCodeService codeService, final GameRepository repository,
+    final RandomService randomService, final ActiveGameRegistry registry ) {
+    return createService( codeService, repository, randomService, mock( ApplicationEventPublisher.class ),
+      new GameMetrics( new SimpleMeterRegistry() ), mock( ComputerOpponent.class ), Optional.of( registry ) );
+  }
+
+  private static GameService createService( final GameCodeService codeService, final GameRepository repository,
+    final RandomService randomService, final SimpleMeterRegistry meterRegistry ) {
+    /* Delivers the closed games to the metrics as the listener does once the transaction commits */
+    final GameMetrics metrics = new GameMetrics( meterRegistry );
+    final ApplicationEventPublisher events = event -> {
+      if ( event instanceof GameClosedEvent ) {
+        metrics.onGameClosed( (GameClosedEvent) event );
+      }
+    };
+    return createService( codeService, repository, randomService, events, metrics, mock( ComputerOpponent.class ),
+      Optional.empty() );
+  }
+
+  private static GameService createService( final GameCodeService codeService, final GameRepository repository,
+    final RandomService randomService, final ApplicationEventPublisher events, final GameMetrics metrics,
+    final ComputerOpponent computer, final Optional<ActiveGameRegistry> registry ) {
+    return new GameService( codeService, new JpaGameStore( repository ), randomService, events, metrics, computer,
+      registry );
+  }
 }
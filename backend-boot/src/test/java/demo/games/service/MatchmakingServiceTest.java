@@ -0,0 +1,175 @@
+package demo.games.service;
+
+import demo.games.dao.Game;
+import demo.games.dao.GameStore;
+import demo.games.model.GameDetails;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.PvpOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName( "Matchmaking service" )
+public class MatchmakingServiceTest {
+
+  @Test
+  @DisplayName( "should pair two players and answer both once the closed game is stored" )
+  public void shouldPairPlayers() throws Exception {
+    final GameStore store = storeAcceptingAll();
+    final MatchmakingService service = createService( store, 10_000, 10 );
+
+    final CompletableFuture<Optional<GameDetails>> player1 = service.match( Hand.ROCK );
+    final CompletableFuture<Optional<GameDetails>> player2 = service.match( Hand.SCISSORS );
+    assertFalse( player1.isDone() );
+    assertFalse( player2.isDone() );
+
+    service.flush();
+
+    final GameDetails details = player1.get().orElseThrow();
+    assertEquals( Optional.of( details ), player2.get() );
+    assertEquals( Hand.ROCK, details.getPlayer1() );
+    assertEquals( Hand.SCISSORS, details.getPlayer2() );
+    assertEquals( PvpOutcome.of( Hand.ROCK, Hand.SCISSORS ), details.getOutcome() );
+    assertEquals( GameState.CLOSED, details.getState() );
+    verify( store, times( 1 ) ).insertAll( any() );
+  }
+
+  @Test
+  @DisplayName( "should answer with nothing when no other player arrived in time" )
+  public void shouldExpireWaitingPlayer() throws Exception {
+    final GameStore store = storeAcceptingAll();
+    final MatchmakingService service = createService( store, 0, 10 );
+
+    final CompletableFuture<Optional<GameDetails>> player = service.match( Hand.PAPER );
+    service.expire();
+
+    assertEquals( Optional.empty(), player.get() );
+
+    /* The next player waits instead of being paired with the expired one */
+    assertFalse( service.match( Hand.ROCK ).isDone() );
+    verifyNoInteractions( store );
+  }
+
+  @Test
+  @DisplayName( "should turn both players away when too many games wait to be stored" )
+  public void shouldRejectWhenFull() {
+    final MatchmakingService service = createService( storeAcceptingAll(), 10_000, 1 );
+
+    service.match( Hand.ROCK );
+    service.match( Hand.ROCK );
+
+    final CompletableFuture<Optional<GameDetails>> player1 = service.match( Hand.PAPER );
+    final CompletableFuture<Optional<GameDetails>> player2 = service.match( Hand.PAPER );
+
+    final ExecutionException e1 = assertThrows( ExecutionException.class, player1::get );
+    assertInstanceOf( RejectedExecutionException.class, e1.getCause() );
+    final ExecutionException e2 = assertThrows( ExecutionException.class, player2::get );
+    assertInstanceOf( RejectedExecutionException.class, e2.getCause() );
+  }
+
+  @Test
+  @DisplayName( "should store the game again with another code when the code is taken" )
+  public void shouldRetryTakenCodes() throws Exception {
+    final GameStore store = mock( GameStore.class );
+    when( store.insertAll( any() ) )
+      .thenReturn( Set.of() )
+      .thenAnswer( invocation -> codesOf( invocation.getArgument( 0 ) ) );
+    final MatchmakingService service = createService( store, 10_000, 10 );
+
+    final CompletableFuture<Optional<GameDetails>> player1 = service.match( Hand.ROCK );
+    service.match( Hand.PAPER );
+    service.flush();
+
+    assertEquals( "00000001", player1.get().orElseThrow().getCode() );
+    verify( store, times( 2 ) ).insertAll( any() );
+  }
+
+  @Test
+  @DisplayName( "should pair every player when many players arrive at the same time" )
+  public void shouldPairConcurrentPlayers() throws Exception {
+    final int players = 1_000;
+    final MatchmakingService service = createService( storeAcceptingAll(), 10_000, players );
+
+    final ExecutorService executor = Executors.newFixedThreadPool( 8 );
+    try {
+      final CountDownLatch start = new CountDownLatch( 1 );
+      final List<Future<CompletableFuture<Optional<GameDetails>>>> futures = new ArrayList<>();
+      for ( int i = 0; i < players; i++ ) {
+        final Hand hand = Hand.values()[i % Hand.values().length];
+        futures.add( executor.submit( () -> {
+          start.await();
+          return service.match( hand );
+        } ) );
+      }
+      start.countDown();
+
+      final List<CompletableFuture<Optional<GameDetails>>> results = new ArrayList<>();
+      for ( final Future<CompletableFuture<Optional<GameDetails>>> future : futures ) {
+        results.add( future.get( 10, TimeUnit.SECONDS ) );
+      }
+      service.flush();
+
+      final List<String> codes = new ArrayList<>();
+      for ( final CompletableFuture<Optional<GameDetails>> result : results ) {
+        assertTrue( result.isDone() );
+        codes.add( result.get().orElseThrow().getCode() );
+      }
+
+      /* Each code is shared by exactly the two players of that game */
+      assertEquals( players / 2, codes.stream().distinct().count() );
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static MatchmakingService createService( final GameStore store, final long timeout, final int capacity ) {
+    final AtomicInteger codes = new AtomicInteger();
+    final GameCodeService codeService = mock( GameCodeService.class );
+    when( codeService.nextCode( anyInt() ) ).thenAnswer( invocation -> String.format( "%08d", codes.getAndIncrement() ) );
+
+    return new MatchmakingService( codeService, store, new GameMetrics( new SimpleMeterRegistry() ),
+      Clock.systemUTC(), timeout, capacity, 100 );
+  }
+
+  private static GameStore storeAcceptingAll() {
+    final GameStore store = mock( GameStore.class );
+    when( store.insertAll( any() ) ).thenAnswer( invocation -> codesOf( invocation.getArgument( 0 ) ) );
+    return store;
+  }
+
+  private static Set<String> codesOf( final List<Game> games ) {
+    return games.stream()
+      .map( Game::getCode )
+      .collect( Collectors.toSet() );
+  }
+}
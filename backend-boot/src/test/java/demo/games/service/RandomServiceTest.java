@@ -2,21 +2,30 @@ package demo.games.service;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName( "Random service" )
 public class RandomServiceTest {
 
-  @Test
-  @DisplayName( "should return a random int with a fair probability" )
-  public void shouldReturnARandomNumber() {
+  @EnumSource( RandomSourceType.class )
+  @ParameterizedTest( name = "should return a random int with a fair probability using the {0} source" )
+  public void shouldReturnARandomNumber( final RandomSourceType type ) {
 
     final int numberOfCandidates = 10;
     final int sampleSize = numberOfCandidates * 1_000;
 
     /* Retrieve a random number and count the occurrence */
-    final RandomService service = new RandomService();
+    final RandomService service = new RandomService( type.create( 42 ) );
     final int[] candidateCounts = new int[numberOfCandidates];
     for ( int i = 0; i < sampleSize; i++ ) {
       final int randomNumber = service.nextInt( numberOfCandidates );
@@ -33,4 +42,51 @@ public class RandomServiceTest {
         .isBetween( expectedCount - buffer, expectedCount + buffer );
     }
   }
+
+  @Test
+  @DisplayName( "should return the same sequence for the same seed" )
+  public void shouldReturnTheSameSequenceForTheSameSeed() {
+    final RandomService first = new RandomService( RandomSourceType.SEEDED.create( 42 ) );
+    final RandomService second = new RandomService( RandomSourceType.SEEDED.create( 42 ) );
+
+    for ( int i = 0; i < 1_000; i++ ) {
+      assertThat( first.nextInt( 3 ) ).isEqualTo( second.nextInt( 3 ) );
+    }
+  }
+
+  @Test
+  @DisplayName( "should draw evenly from a splittable generator per virtual thread" )
+  public void shouldDrawEvenlyFromVirtualThreads() throws Exception {
+    final int numberOfCandidates = 10;
+    final int threads = 1_000;
+    final int samplesPerThread = 100;
+
+    final RandomSource source = new SplittableRandomSource( new SplittableRandom( 42 ) );
+    final int[] candidateCounts = new int[numberOfCandidates];
+    try ( final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor() ) {
+      final List<Future<int[]>> draws = new ArrayList<>( threads );
+      for ( int i = 0; i < threads; i++ ) {
+        draws.add( executor.submit( () -> {
+          final int[] drawn = new int[samplesPerThread];
+          for ( int j = 0; j < samplesPerThread; j++ ) {
+            drawn[j] = source.nextInt( numberOfCandidates );
+          }
+          return drawn;
+        } ) );
+      }
+
+      for ( final Future<int[]> draw : draws ) {
+        for ( final int randomNumber : draw.get() ) {
+          candidateCounts[randomNumber]++;
+        }
+      }
+    }
+
+    final int expectedCount = threads * samplesPerThread / numberOfCandidates;
+    final int buffer = Math.round( expectedCount * 0.1F );
+    for ( int i = 0; i < numberOfCandidates; i++ ) {
+      assertThat( candidateCounts[i] )
+        .isBetween( expectedCount - buffer, expectedCount + buffer );
+    }
+  }
 }
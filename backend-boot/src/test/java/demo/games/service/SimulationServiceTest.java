@@ -0,0 +1,115 @@
+package demo.games.service;
+
+import demo.games.model.Hand;
+import demo.games.model.SimulationRate;
+import demo.games.model.SimulationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName( "Simulation service" )
+public class SimulationServiceTest {
+
+  /* Plays rock, whatever happened before */
+  private static final ComputerStrategy ROCK = new ComputerStrategy() {
+    @Override
+    public int stateSize() {
+      return 0;
+    }
+
+    @Override
+    public int play( final int[] state, final RandomService random ) {
+      return Hand.ROCK.ordinal();
+    }
+
+    @Override
+    public void learn( final int[] state, final int player ) {
+    }
+  };
+
+  private final SimulationService service = new SimulationService( 4 );
+
+  @AfterEach
+  public void tearDown() {
+    service.close();
+  }
+
+  @Test
+  @DisplayName( "should find that counting the hands beats a player who always plays the same hand" )
+  public void shouldBeatConstantPlayer() {
+    final SimulationResult result = service.simulate( new FrequencyStrategy(), ROCK, 1_000, 100, 42 );
+
+    assertEquals( 100_000, result.getStrategy1().getCount() + result.getStrategy2().getCount()
+      + result.getDraws().getCount() );
+    /* Only the first round of every match is played at random */
+    assertTrue( result.getStrategy1().getRate() > 0.99 );
+    assertTrue( result.getStrategy2().getRate() < 0.01 );
+    assertWithin( result.getStrategy1() );
+  }
+
+  @Test
+  @DisplayName( "should find that random against random wins a third of the rounds, with a narrow confidence interval" )
+  public void shouldPlayEvenlyAtRandom() {
+    final SimulationResult result = service.simulate( new RandomStrategy(), new RandomStrategy(), 10_000, 100, 7 );
+
+    final SimulationRate[] rates = { result.getStrategy1(), result.getStrategy2(), result.getDraws() };
+    for ( final SimulationRate rate : rates ) {
+      assertWithin( rate );
+      assertEquals( 1.0 / 3, rate.getRate(), 0.005, rate::toString );
+      assertTrue( rate.getHigh() - rate.getLow() > 0.001 && rate.getHigh() - rate.getLow() < 0.01, rate::toString );
+    }
+  }
+
+  @Test
+  @DisplayName( "should give the same rates for the same seed, whatever the number of threads" )
+  public void shouldBeReproducible() {
+    final SimulationService single = new SimulationService( 1 );
+    try {
+      final SimulationResult parallel =
+        service.simulate( new MarkovStrategy( 2 ), new FrequencyStrategy(), 5_000, 500, 3 );
+      final SimulationResult sequential =
+        single.simulate( new MarkovStrategy( 2 ), new FrequencyStrategy(), 5_000, 500, 3 );
+
+      assertEquals( parallel.getStrategy1(), sequential.getStrategy1() );
+      assertEquals( parallel.getStrategy2(), sequential.getStrategy2() );
+      assertEquals( parallel.getDraws(), sequential.getDraws() );
+    } finally {
+      single.close();
+    }
+  }
+
+  @Test
+  @DisplayName( "should not simulate once closed" )
+  public void shouldNotSimulateOnceClosed() {
+    service.close();
+
+    assertThrows( RejectedExecutionException.class,
+      () -> service.simulate( new RandomStrategy(), new RandomStrategy(), 2, 1, 0 ) );
+  }
+
+  @Test
+  @DisplayName( "should not simulate fewer than 2 matches, or too many rounds" )
+  public void shouldRejectInvalidSizes() {
+    assertTrue( SimulationService.isValid( 2, 1 ) );
+    assertFalse( SimulationService.isValid( 1, 1_000 ) );
+    assertFalse( SimulationService.isValid( 1_000, 0 ) );
+    assertFalse( SimulationService.isValid( 2, SimulationService.MAX_ROUNDS + 1 ) );
+    assertFalse( SimulationService.isValid( SimulationService.MAX_TOTAL_ROUNDS, 2 ) );
+    assertTrue( SimulationService.isValid( 1_000, 1_000, 1_000_000 ) );
+    assertFalse( SimulationService.isValid( 1_001, 1_000, 1_000_000 ) );
+    assertThrows( IllegalArgumentException.class,
+      () -> service.simulate( new RandomStrategy(), new RandomStrategy(), 1, 1, 0 ) );
+  }
+
+  private static void assertWithin( final SimulationRate rate ) {
+    assertTrue( rate.getLow() <= rate.getRate() && rate.getRate() <= rate.getHigh(), rate::toString );
+    assertTrue( rate.getLow() >= 0 && rate.getHigh() <= 1, rate::toString );
+  }
+}
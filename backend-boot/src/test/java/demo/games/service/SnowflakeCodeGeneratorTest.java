@@ -0,0 +1,103 @@
+package demo.games.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName( "Snowflake code generator" )
+public class SnowflakeCodeGeneratorTest {
+
+  private static final long NOW = Instant.parse( "2020-06-01T12:00:00Z" ).toEpochMilli();
+
+  /* Sleeping moves the clock forward by as long as was slept */
+  private final AtomicLong clock = new AtomicLong( NOW );
+
+  @Test
+  @DisplayName( "should not return the same code from different nodes" )
+  public void shouldNotCollideBetweenNodes() {
+    final Set<String> observedCodes = new HashSet<>();
+
+    for ( int node = 0; node < 1 << SnowflakeCodeGenerator.NODE_BITS; node++ ) {
+      clock.set( NOW );
+      final SnowflakeCodeGenerator generator = createGenerator( node );
+      for ( int i = 0; i < 1_000; i++ ) {
+        final String code = generator.nextCode( 8 );
+        assertTrue( observedCodes.add( code ), String.format( "The code %s was already observed", code ) );
+      }
+    }
+  }
+
+  @Test
+  @DisplayName( "should wait for the next second when running out of sequence numbers" )
+  public void shouldWaitForNextSecond() {
+    final int testSize = 3 << SnowflakeCodeGenerator.SEQUENCE_BITS;
+    final Set<String> observedCodes = new HashSet<>();
+
+    final SnowflakeCodeGenerator generator = createGenerator( 0 );
+    for ( int i = 0; i < testSize; i++ ) {
+      final String code = generator.nextCode( 8 );
+      assertTrue( observedCodes.add( code ), String.format( "The code %s was already observed", code ) );
+    }
+
+    /* The second the generator was created in, and the two seconds it used up, were waited for */
+    assertEquals( NOW + 3_000, clock.get() );
+  }
+
+  @Test
+  @DisplayName( "should not return the codes of the generator that ran before a restart in the same second" )
+  public void shouldNotCollideAfterRestart() {
+    final Set<String> observedCodes = new HashSet<>();
+
+    final SnowflakeCodeGenerator generator = createGenerator( 0 );
+    for ( int i = 0; i < 10_000; i++ ) {
+      observedCodes.add( generator.nextCode( 8 ) );
+    }
+
+    final SnowflakeCodeGenerator restarted = createGenerator( 0 );
+    for ( int i = 0; i < 10_000; i++ ) {
+      final String code = restarted.nextCode( 8 );
+      assertTrue( observedCodes.add( code ), String.format( "The code %s was already observed", code ) );
+    }
+  }
+
+  @Test
+  @DisplayName( "should go on with the sequence of the last second when the clock went back" )
+  public void shouldContinueWhenClockGoesBack() {
+    final Set<String> observedCodes = new HashSet<>();
+
+    final SnowflakeCodeGenerator generator = createGenerator( 0 );
+    observedCodes.add( generator.nextCode( 8 ) );
+    clock.addAndGet( -5_000 );
+
+    assertTrue( observedCodes.add( generator.nextCode( 8 ) ) );
+    assertEquals( NOW - 4_000, clock.get() );
+  }
+
+  @Test
+  @DisplayName( "should pad longer codes and reject shorter codes" )
+  public void shouldPadLongerCodes() {
+    final SnowflakeCodeGenerator generator = createGenerator( 0 );
+
+    assertEquals( 10, generator.nextCode( 10 ).length() );
+    assertThrows( IllegalArgumentException.class, () -> generator.nextCode( 7 ) );
+  }
+
+  @Test
+  @DisplayName( "should reject nodes that do not fit in the code" )
+  public void shouldRejectInvalidNode() {
+    assertThrows( IllegalArgumentException.class, () -> new SnowflakeCodeGenerator( -1 ) );
+    assertThrows( IllegalArgumentException.class, () -> new SnowflakeCodeGenerator( 1 << SnowflakeCodeGenerator.NODE_BITS ) );
+  }
+
+  private SnowflakeCodeGenerator createGenerator( final int node ) {
+    return new SnowflakeCodeGenerator( node, clock::get, clock::addAndGet );
+  }
+}
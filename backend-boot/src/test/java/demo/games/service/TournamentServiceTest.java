@@ -0,0 +1,201 @@
+package demo.games.service;
+
+import demo.games.dao.EmbeddedTournamentStore;
+import demo.games.model.GameState;
+import demo.games.model.Hand;
+import demo.games.model.TournamentDetails;
+import demo.games.model.TournamentEntrant;
+import demo.games.model.TournamentFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName( "Tournament service" )
+public class TournamentServiceTest {
+
+  @Test
+  @DisplayName( "should play a single elimination tournament until one entrant is left" )
+  public void shouldPlayTournament() {
+    final TournamentService service = createService( new EmbeddedTournamentStore() );
+    final String code = service.createTournament( TournamentFormat.SINGLE_ELIMINATION, 4, 0 ).getCode();
+
+    /* 0 v 3 and 1 v 2 */
+    assertEquals( Optional.of( true ), service.playRound( code, 0, Map.of( 0, Hand.ROCK, 3, Hand.PAPER, 2, Hand.ROCK ) ) );
+    assertEquals( Optional.of( true ), service.resolveRound( code, 0 ) );
+    assertEquals( Optional.of( false ), service.resolveRound( code, 0 ) );
+
+    /* 3 v 2 */
+    assertEquals( Optional.of( true ), service.playRound( code, 1, Map.of( 2, Hand.SCISSORS, 3, Hand.PAPER ) ) );
+    assertEquals( Optional.of( true ), service.resolveRound( code, 1 ) );
+
+    final TournamentDetails details = service.findTournament( code ).orElseThrow();
+    assertEquals( GameState.CLOSED, details.getState() );
+    assertEquals( 2, details.getRound() );
+    assertEquals( 2, details.getWinner() );
+  }
+
+  @Test
+  @DisplayName( "should rebuild a tournament that is not in memory from its stored rounds" )
+  public void shouldRebuildTournament() {
+    final EmbeddedTournamentStore store = new EmbeddedTournamentStore();
+    final TournamentService service = createService( store );
+    final String code = service.createTournament( TournamentFormat.SWISS, 5, 2 ).getCode();
+    service.playRound( code, 0, Map.of( 0, Hand.ROCK, 1, Hand.PAPER ) );
+    service.resolveRound( code, 0 );
+
+    final TournamentService restarted = createService( store );
+    assertEquals( 1, restarted.findTournament( code ).orElseThrow().getRound() );
+    assertEquals( entrants( service, code ), entrants( restarted, code ) );
+  }
+
+  @Test
+  @DisplayName( "should return nothing for an unknown tournament" )
+  public void shouldNotFindUnknownTournament() {
+    final TournamentService service = createService( new EmbeddedTournamentStore() );
+
+    assertEquals( Optional.empty(), service.findTournament( "00000000" ) );
+    assertEquals( Optional.empty(), service.resolveRound( "00000000", 0 ) );
+    assertEquals( Optional.empty(), service.findEntrants( "00000000" ) );
+  }
+
+  @Test
+  @DisplayName( "should stream the entrants in seed order" )
+  public void shouldStreamEntrants() {
+    final TournamentService service = createService( new EmbeddedTournamentStore() );
+    final String code = service.createTournament( TournamentFormat.SINGLE_ELIMINATION, 3, 0 ).getCode();
+
+    final List<TournamentEntrant> entrants = entrants( service, code );
+    assertEquals( 3, entrants.size() );
+    assertNull( entrants.get( 0 ).getOpponent() );
+    assertEquals( 2, entrants.get( 1 ).getOpponent() );
+  }
+
+  @Test
+  @DisplayName( "should not keep a closed tournament in memory" )
+  public void shouldNotKeepClosedTournament() {
+    final TournamentService service = createService( new EmbeddedTournamentStore() );
+    final String code = service.createTournament( TournamentFormat.SINGLE_ELIMINATION, 2, 0 ).getCode();
+    assertEquals( 1, service.countTournamentsInMemory() );
+    assertEquals( 2, service.countEntrantsInMemory() );
+
+    service.playRound( code, 0, Map.of( 0, Hand.PAPER, 1, Hand.ROCK ) );
+    service.resolveRound( code, 0 );
+    assertEquals( 0, service.countTournamentsInMemory() );
+    assertEquals( 0, service.countEntrantsInMemory() );
+
+    /* Rebuilt from the store, and not kept either */
+    final TournamentDetails details = service.findTournament( code ).orElseThrow();
+    assertEquals( GameState.CLOSED, details.getState() );
+    assertEquals( 0, details.getWinner() );
+    assertEquals( 0, service.countTournamentsInMemory() );
+  }
+
+  @Test
+  @DisplayName( "should read a closed tournament from its results and drop its rounds" )
+  public void shouldReadClosedTournamentFromResults() {
+    final EmbeddedTournamentStore store = new EmbeddedTournamentStore();
+    final TournamentService service = createService( store );
+    final String code = service.createTournament( TournamentFormat.SWISS, 3, 1 ).getCode();
+    service.playRound( code, 0, Map.of( 0, Hand.PAPER, 1, Hand.ROCK ) );
+    service.resolveRound( code, 0 );
+
+    assertEquals( 0, store.find( code ).orElseThrow().getWinner() );
+    assertEquals( List.of(), store.findRounds( code ) );
+
+    final TournamentService restarted = createService( store );
+    final TournamentDetails details = restarted.findTournament( code ).orElseThrow();
+    assertEquals( GameState.CLOSED, details.getState() );
+    assertEquals( 1, details.getRound() );
+    assertEquals( 0, details.getWinner() );
+    assertEquals( List.of( new TournamentEntrant( 0, 2, null ), new TournamentEntrant( 1, 0, null ),
+      new TournamentEntrant( 2, 2, null ) ), entrants( restarted, code ) );
+    assertEquals( Optional.of( false ), restarted.resolveRound( code, 0 ) );
+  }
+
+  @Test
+  @DisplayName( "should write the results of a tournament whose last round was written without these" )
+  public void shouldCloseTournamentWithAllRoundsWritten() {
+    final EmbeddedTournamentStore store = spy( new EmbeddedTournamentStore() );
+    doThrow( new IllegalStateException( "Failed" ) ).when( store ).close( anyString(), anyInt(), any() );
+    final TournamentService service = createService( store );
+    final String code = service.createTournament( TournamentFormat.SINGLE_ELIMINATION, 2, 0 ).getCode();
+    service.playRound( code, 0, Map.of( 0, Hand.PAPER, 1, Hand.ROCK ) );
+    assertThrows( IllegalStateException.class, () -> service.resolveRound( code, 0 ) );
+
+    doCallRealMethod().when( store ).close( anyString(), anyInt(), any() );
+    final TournamentService restarted = createService( store );
+    assertEquals( GameState.CLOSED, restarted.findTournament( code ).orElseThrow().getState() );
+    assertArrayEquals( new byte[] { 1, 0 }, store.findScores( code ).orElseThrow() );
+  }
+
+  @Test
+  @DisplayName( "should refuse a tournament, without taking a code, while its entrants do not fit in memory" )
+  public void shouldRejectTournamentWhenFull() {
+    final GameCodeService codeService = mock( GameCodeService.class );
+    when( codeService.nextCode( anyInt() ) ).thenReturn( "00000001", "00000002" );
+    final TournamentService service =
+      new TournamentService( codeService, new EmbeddedTournamentStore(), ForkJoinPool.commonPool(), 5 );
+
+    final String first = service.createTournament( TournamentFormat.SWISS, 4, 1 ).getCode();
+    service.playRound( first, 0, Map.of( 0, Hand.ROCK, 1, Hand.PAPER ) );
+    assertThrows( RejectedExecutionException.class, () -> service.createTournament( TournamentFormat.SWISS, 4, 1 ) );
+    verify( codeService, times( 1 ) ).nextCode( anyInt() );
+    assertEquals( 4, service.countEntrantsInMemory() );
+
+    /* The hands played are still there */
+    assertEquals( Optional.of( true ), service.resolveRound( first, 0 ) );
+    assertEquals( 1, service.findTournament( first ).orElseThrow().getWinner() );
+
+    final String second = service.createTournament( TournamentFormat.SWISS, 4, 1 ).getCode();
+    assertEquals( "00000002", second );
+    assertEquals( 4, service.countEntrantsInMemory() );
+  }
+
+  @Test
+  @DisplayName( "should give back the room of a tournament that could not be stored" )
+  public void shouldReleaseEntrantsWhenNotCreated() {
+    final EmbeddedTournamentStore store = spy( new EmbeddedTournamentStore() );
+    doThrow( new IllegalStateException( "Failed" ) ).when( store ).insert( any() );
+    final TournamentService service = createService( store );
+
+    assertThrows( IllegalStateException.class, () -> service.createTournament( TournamentFormat.SWISS, 4, 1 ) );
+    assertEquals( 0, service.countEntrantsInMemory() );
+  }
+
+  private static TournamentService createService( final EmbeddedTournamentStore store ) {
+    return new TournamentService( codeService(), store, ForkJoinPool.commonPool(), 1 << 20 );
+  }
+
+  private static List<TournamentEntrant> entrants( final TournamentService service, final String code ) {
+    final List<TournamentEntrant> entrants = new ArrayList<>();
+    service.findEntrants( code ).orElseThrow().forEach( entrants::add );
+    return entrants;
+  }
+
+  private static GameCodeService codeService() {
+    final GameCodeService codeService = mock( GameCodeService.class );
+    when( codeService.nextCode( anyInt() ) ).thenReturn( "00000001" );
+    return codeService;
+  }
+}